@@ -0,0 +1,70 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Cold copy of a long-departed employee, moved out of the employees table by
+ * EmployeeArchiveService. Relations are flattened to ids so the row does not
+ * depend on anything still living in the hot tables.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "archived_employees",
+        indexes = {
+                @Index(name = "idx_archived_employees_number", columnList = "employee_number"),
+                @Index(name = "idx_archived_employees_last_name", columnList = "last_name")
+        })
+public class ArchivedEmployee {
+    // Same id as the original employee row
+    @Id
+    UUID id;
+
+    @Column(name = "employee_number", length = 8)
+    String employeeNumber;
+    @Column(name = "first_name")
+    String firstName;
+    @Column(name = "last_name")
+    String lastName;
+
+    @Enumerated(EnumType.STRING)
+    EmployeeDepartment department;
+    @Enumerated(EnumType.STRING)
+    EmployeeJobTitle jobTitle;
+    @Enumerated(EnumType.STRING)
+    ContractType contract;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal salary;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate hireDate;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate departedAt;
+
+    UUID managerId;
+    UUID userId;
+    String userEmail;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant archivedAt;
+}
@@ -0,0 +1,66 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Cold copy of a document that belonged to an archived employee.
+ * The encrypted body is kept (lazily loaded) for retention; lookups only read metadata.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString(exclude = "encrypedContent")
+@EqualsAndHashCode(of = "id")
+@Table(name = "archived_hr_documents",
+        indexes = @Index(name = "idx_archived_documents_employee", columnList = "employee_id"))
+public class ArchivedHRDocument {
+    // Same id as the original document row
+    @Id
+    UUID id;
+
+    String documentName;
+    String contentType;
+    long fileSize;
+
+    @Enumerated(EnumType.STRING)
+    DocumentAccessLevel level;
+
+    @Column(name = "employee_id")
+    UUID employeeId;
+
+    // comma separated
+    @Column(length = 1000)
+    String tags;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant uploadedAt;
+    String checkSum;
+
+    @Lob
+    @Basic(fetch = FetchType.LAZY)
+    byte[] encrypedContent;
+    // body in DocumentContentStore (kept on archive), null for inline content
+    @Column(length = 64)
+    String storageKey;
+    // compression of the body, copied from the original row (null: uncompressed)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    ContentCodec compression;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant archivedAt;
+}
@@ -0,0 +1,64 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One row of the change feed (GET /api/changes).
+ *
+ * Rows are inserted by ChangeLogWriter in the transaction of the change itself.
+ * transactionId is filled by PostgreSQL with the id of that transaction; the feed
+ * position of a row is (transactionId, id), see ChangeFeedService.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "change_log",
+        indexes = {
+                @Index(name = "idx_change_log_position", columnList = "transaction_id, id"),
+                @Index(name = "idx_change_log_resource", columnList = "resource, resource_id"),
+                @Index(name = "idx_change_log_time", columnList = "occurred_at")
+        })
+public class ChangeLogEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    Long id;
+
+    @Column(name = "transaction_id", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "bigint default (pg_current_xact_id()::text::bigint)")
+    long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    ChangeResource resource;
+
+    @Column(name = "resource_id", nullable = false, updatable = false)
+    UUID resourceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    ChangeType type;
+
+    // version of the resource after the change (last version for deletes)
+    @Column(updatable = false)
+    long version;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    Instant occurredAt;
+}
@@ -0,0 +1,37 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+
+import java.time.Instant;
+
+/**
+ * Single row: the feed position up to which change_log has been purged by the
+ * retention job. A client whose cursor is older has missed changes and must resync.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "change_log_horizon")
+public class ChangeLogHorizon {
+    public static final int ID = 1;
+
+    @Id
+    int id;
+
+    long transactionId;
+    long entryId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant purgedAt;
+}
@@ -0,0 +1,46 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+
+import java.time.Instant;
+
+/**
+ * A document body in the content-addressed store, shared by every document
+ * (and archived document) with the same content. refCount is the number of
+ * rows whose storageKey is this id; the file goes once it drops to zero.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "document_blobs",
+        indexes = @Index(name = "idx_document_blobs_released", columnList = "released_at"))
+public class DocumentBlob {
+    // hex SHA-256 of the plain content
+    @Id
+    @Column(length = 64)
+    String id;
+
+    long fileSize;
+    long refCount;
+    // how the file is compressed and its size, null for bodies stored before compression
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    ContentCodec codec;
+    Long storedSize;
+
+    @Column(nullable = false)
+    Instant createdAt;
+    // when refCount last dropped to zero, null while referenced
+    Instant releasedAt;
+}
@@ -0,0 +1,56 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A resumable upload in progress: the metadata of the future HRDocument and
+ * the chunk layout. Received chunks are files in the staging directory of the
+ * session (see DocumentUploadService), not rows, so chunk PUTs never write here.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "document_upload_sessions")
+public class DocumentUploadSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(nullable = false)
+    String documentName;
+    String contentType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    DocumentAccessLevel level;
+
+    @Column(nullable = false)
+    UUID employeeId;
+
+    // comma-separated, as in archived_hr_documents
+    String tags;
+
+    long totalSize;
+    int chunkSize;
+    int chunkCount;
+
+    // email of the uploader, the only one (besides admins) who may add chunks or commit
+    @Column(nullable = false)
+    String createdBy;
+    @Column(nullable = false)
+    Instant createdAt;
+}
@@ -30,6 +30,7 @@ public class EmbeddingModel {
     HRDocument document;
     @NonNull
     String content;
+    @Builder.Default
     Vector<Object> embedding=new Vector<>(1536);
     String metaData;
     Instant createdAt;
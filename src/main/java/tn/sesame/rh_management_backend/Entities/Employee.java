@@ -11,6 +11,8 @@ import lombok.experimental.FieldDefaults;
 import tn.sesame.rh_management_backend.Enumerations.ContractType;
 import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
 import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
+import tn.sesame.rh_management_backend.Events.ChangeLogListener;
 import tn.sesame.rh_management_backend.Validations.ValidSalaryRange;
 
 import java.math.BigDecimal;
@@ -29,7 +31,14 @@ import java.util.UUID;
 @NoArgsConstructor
 @ToString(exclude={"user", "subordinates", "documents", "manager"})
 @EqualsAndHashCode(of="employeeNumber")
-@Table(name = "employees")
+@Table(name = "employees",
+        indexes = {
+                // salary statistics: min/max of one department x job title x contract cell
+                @Index(name = "idx_employees_cell", columnList = "department, job_title, contract, salary"),
+                // archive job: offboarded employees by departure date
+                @Index(name = "idx_employees_status_departed", columnList = "status, departed_at")
+        })
+@EntityListeners(ChangeLogListener.class)
 @ValidSalaryRange
 public class Employee {
     @Id
@@ -72,12 +81,22 @@ public class Employee {
     @PastOrPresent(message = "Hire date cannot be in the future")
             //by default, LocalDate is in UTC
             //hireDate has by default the system date
+    @Builder.Default
     LocalDate hireDate = LocalDate.now();
 
     @Enumerated(EnumType.STRING)
     @NotNull(message = "Contract type is required")
     ContractType contract;
 
+    //OFFBOARDED employees stay in this table until the archive job moves them to archived_employees
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, columnDefinition = "varchar(20) default 'ACTIVE'")
+    @Builder.Default
+    EmploymentStatus status = EmploymentStatus.ACTIVE;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    LocalDate departedAt;
+
     @DecimalMin(value = "0.0", inclusive = false, message = "Salary must be greater than 0")
     //Limits 10 digits before decimal, 2 after
     @Digits(integer = 10, fraction = 2, message = "Salary format is invalid (expected: 12345.67)")
@@ -89,6 +108,7 @@ public class Employee {
 
     @OneToMany(mappedBy = "employee",fetch = FetchType.LAZY)
     @JsonIgnoreProperties("manager")
+    @Builder.Default
     Set<Employee> subordinates=new HashSet<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -97,6 +117,19 @@ public class Employee {
 
     @OneToMany(mappedBy = "employee",fetch = FetchType.LAZY)
     @JsonIgnoreProperties("employee")
+    @Builder.Default
     Set<HRDocument> documents=new HashSet<>();
 
+    //sequence number of the last event appended to employee_events for this employee
+    //written on insert only, then incremented in place (EmployeeRepository.nextHistorySequence):
+    //the entity's own UPDATE must not write back a stale value
+    @JsonIgnore
+    @Column(name = "history_sequence", nullable = false, updatable = false, columnDefinition = "integer default 0")
+    int historySequence;
+
+    //optimistic locking, also the source of the entity tag (ETag) of GET /api/employees/{id}
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long version;
+
 }
@@ -0,0 +1,79 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Append-only employee change log.
+ *
+ * payload is a compact JSON object of the fields changed by this event. Every
+ * EmployeeHistoryService.SNAPSHOT_INTERVAL events (and on creation) the payload
+ * holds the full state instead and snapshot is true, so any point-in-time state
+ * is rebuilt from one snapshot plus a few events.
+ *
+ * department is the department after the change; salary/previousSalary are
+ * only set when the salary changed, to answer salary history queries directly.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = {"employeeId", "sequence"})
+@Table(name = "employee_events",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"employee_id", "sequence"}),
+        indexes = {
+                @Index(name = "idx_employee_events_department_time", columnList = "department, occurred_at"),
+                @Index(name = "idx_employee_events_time", columnList = "occurred_at")
+        })
+public class EmployeeHistoryEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "employee_id", nullable = false, updatable = false)
+    UUID employeeId;
+
+    @Column(nullable = false, updatable = false)
+    int sequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false)
+    ChangeType type;
+
+    @Column(nullable = false, updatable = false)
+    boolean snapshot;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    Instant occurredAt;
+
+    @Column(updatable = false)
+    String changedBy;
+
+    @Enumerated(EnumType.STRING)
+    @Column(updatable = false)
+    EmployeeDepartment department;
+
+    @Column(precision = 12, scale = 2, updatable = false)
+    BigDecimal salary;
+
+    @Column(precision = 12, scale = 2, updatable = false)
+    BigDecimal previousSalary;
+
+    @Column(length = 2000, updatable = false)
+    String payload;
+}
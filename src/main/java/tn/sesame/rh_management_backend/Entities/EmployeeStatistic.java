@@ -0,0 +1,64 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Incrementally maintained counters for one (department, job title, contract) cell.
+ *
+ * EmployeeStatisticsService keeps these rows in sync inside the same transaction
+ * as the employee write, so dashboards read a handful of rows instead of
+ * loading the employee table.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = {"department", "jobTitle", "contract"})
+@Table(name = "employee_statistics",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"department", "job_title", "contract"}))
+public class EmployeeStatistic {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    EmployeeDepartment department;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "job_title", nullable = false)
+    EmployeeJobTitle jobTitle;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    ContractType contract;
+
+    long headcount;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    @Builder.Default
+    BigDecimal salarySum = BigDecimal.ZERO;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal minSalary;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal maxSalary;
+
+    Instant updatedAt;
+}
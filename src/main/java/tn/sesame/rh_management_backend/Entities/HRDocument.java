@@ -5,7 +5,9 @@ import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
 import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
 import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Events.ChangeLogListener;
 
 import java.time.Instant;
 import java.util.HashSet;
@@ -22,7 +24,9 @@ import java.util.UUID;
 @NoArgsConstructor
 @ToString
 @EqualsAndHashCode
-@Table(name = "hr_documents")
+@Table(name = "hr_documents",
+        indexes = @Index(name = "idx_hr_documents_owner", columnList = "owner_id"))
+@EntityListeners(ChangeLogListener.class)
 public class HRDocument {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -31,10 +35,17 @@ public class HRDocument {
     @NonNull
     String documentName;
     String contentType;
-    @NonNull
+    // inline content of documents uploaded before the content store, null for the others
     @Lob
     byte[] encrypedContent;
+    // key of the encrypted body in DocumentContentStore
+    @Column(length = 64)
+    String storageKey;
     long fileSize;
+    // compression of the stored body, null for bodies stored before compression (uncompressed)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    ContentCodec compression;
     @Enumerated(EnumType.STRING)
     DocumentAccessLevel level;
 
@@ -46,9 +57,15 @@ public class HRDocument {
     @ElementCollection
     @CollectionTable(name = "document_tags", joinColumns = @JoinColumn(name = "document_id"))
 
+    @Builder.Default
     Set<String> tags=new HashSet<>();
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     Instant uploadedAt;
     String checkSum;
 
+    //optimistic locking, also the source of the entity tag (ETag) of GET /api/documents/{id}
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long version;
+
 }
@@ -0,0 +1,49 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+
+import java.util.UUID;
+
+/**
+ * A slice of the employee key space processed by one worker of a payroll run.
+ *
+ * lastEmployeeId is the keyset cursor (exclusive): it is advanced in the same
+ * transaction that inserts the payslips of a chunk, so a restart never skips
+ * or duplicates employees.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "payroll_partitions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"run_id", "partition_index"}))
+public class PayrollPartition {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "run_id", nullable = false)
+    UUID runId;
+
+    @Column(name = "partition_index", nullable = false)
+    int partitionIndex;
+
+    @Column(nullable = false)
+    UUID lastEmployeeId;
+
+    // Inclusive upper bound of the partition
+    @Column(nullable = false)
+    UUID upperBound;
+
+    long processed;
+    boolean done;
+}
@@ -0,0 +1,52 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.PayrollRunStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One monthly payroll computation.
+ * Progress is tracked per partition (see PayrollPartition) so an interrupted
+ * run can be resumed from the last committed chunk.
+ */
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = "id")
+@Table(name = "payroll_runs")
+public class PayrollRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    // yyyy-MM
+    @Column(nullable = false, unique = true, length = 7)
+    String period;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    PayrollRunStatus status;
+
+    long totalEmployees;
+    long processedEmployees;
+    long payslipCount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant startedAt;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant finishedAt;
+
+    String lastError;
+}
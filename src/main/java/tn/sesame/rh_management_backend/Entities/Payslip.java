@@ -0,0 +1,63 @@
+package tn.sesame.rh_management_backend.Entities;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.Accessors;
+import lombok.experimental.FieldDefaults;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Builder
+@Entity
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Accessors(fluent = true)
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@ToString
+@EqualsAndHashCode(of = {"employeeId", "period"})
+@Table(name = "payslips",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"employee_id", "period"}),
+        indexes = @Index(name = "idx_payslips_run", columnList = "run_id"))
+public class Payslip {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    UUID id;
+
+    @Column(name = "run_id", nullable = false)
+    UUID runId;
+
+    @Column(name = "employee_id", nullable = false)
+    UUID employeeId;
+
+    // yyyy-MM
+    @Column(nullable = false, length = 7)
+    String period;
+
+    @Enumerated(EnumType.STRING)
+    ContractType contract;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal baseSalary;
+
+    // Share of the month paid: part-time factor x proration for mid-month hires
+    @Column(precision = 7, scale = 6)
+    BigDecimal payFactor;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal grossAmount;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal contributions;
+
+    @Column(precision = 12, scale = 2)
+    BigDecimal netAmount;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
+    Instant createdAt;
+}
@@ -11,6 +11,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import tn.sesame.rh_management_backend.Enumerations.UserRole;
+import tn.sesame.rh_management_backend.Events.ChangeLogListener;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -28,6 +29,7 @@ import java.util.*;
 @EqualsAndHashCode(of="email")
 @Table(name = "users",
 uniqueConstraints = @UniqueConstraint(columnNames = {"email"}))
+@EntityListeners(ChangeLogListener.class)
 public class User implements UserDetails {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -75,6 +77,11 @@ public class User implements UserDetails {
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     LocalDateTime lockedUntil;
 
+    //optimistic locking, also the source of the entity tag (ETag) of GET /api/users/{id}
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    long version;
+
     //the relationship with User
     @OneToOne(mappedBy = "user",fetch = FetchType.LAZY)
     @JsonIgnoreProperties("user")
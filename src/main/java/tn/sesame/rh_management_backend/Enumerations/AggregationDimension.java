@@ -0,0 +1,8 @@
+package tn.sesame.rh_management_backend.Enumerations;
+
+public enum AggregationDimension {
+    DEPARTMENT,
+    JOB_TITLE,
+    CONTRACT,
+    HIRE_YEAR
+}
@@ -0,0 +1,8 @@
+package tn.sesame.rh_management_backend.Enumerations;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    OFFBOARDED,
+    DELETED
+}
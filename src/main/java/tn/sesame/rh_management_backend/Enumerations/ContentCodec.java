@@ -0,0 +1,29 @@
+package tn.sesame.rh_management_backend.Enumerations;
+
+/**
+ * Compression applied to a stored document body before encryption. id is
+ * what the body header records, it must never change.
+ */
+public enum ContentCodec {
+    NONE(0),
+    DEFLATE(1);
+
+    private final int id;
+
+    ContentCodec(int id) {
+        this.id = id;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public static ContentCodec of(int id) {
+        for (ContentCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown content codec " + id);
+    }
+}
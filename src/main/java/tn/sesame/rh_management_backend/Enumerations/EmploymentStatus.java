@@ -0,0 +1,6 @@
+package tn.sesame.rh_management_backend.Enumerations;
+
+public enum EmploymentStatus {
+    ACTIVE,
+    OFFBOARDED
+}
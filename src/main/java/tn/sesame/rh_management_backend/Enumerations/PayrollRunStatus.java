@@ -0,0 +1,7 @@
+package tn.sesame.rh_management_backend.Enumerations;
+
+public enum PayrollRunStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,50 @@
+package tn.sesame.rh_management_backend.Events;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Entities.User;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Services.ChangeLogWriter;
+
+/**
+ * JPA entity listener feeding the change log for Employee, User and HRDocument.
+ * Instantiated by Hibernate through the Spring bean container, so it can be injected.
+ * Callbacks run during flush, i.e. inside the writing transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogListener {
+
+    private final ChangeLogWriter writer;
+
+    @PostPersist
+    public void created(Object entity) {
+        record(entity, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        record(entity, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void deleted(Object entity) {
+        record(entity, ChangeType.DELETED);
+    }
+
+    private void record(Object entity, ChangeType type) {
+        switch (entity) {
+            case Employee e -> writer.record(ChangeResource.EMPLOYEE, e.id(), type, e.version());
+            case User u -> writer.record(ChangeResource.USER, u.getId(), type, u.getVersion());
+            case HRDocument d -> writer.record(ChangeResource.DOCUMENT, d.id(), type, d.version());
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package tn.sesame.rh_management_backend.Events;
+
+import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published by HRDocumentService after a document is uploaded or deleted.
+ * Carries what listeners need for access checks, so they never reload the document.
+ */
+public record DocumentChangedEvent(
+        UUID documentId,
+        ChangeType type,
+        UUID ownerId,
+        String ownerEmail,
+        DocumentAccessLevel level,
+        long version,
+        String storageKey,
+        Set<String> tags
+) {
+
+    public static DocumentChangedEvent of(HRDocument document, ChangeType type) {
+        UUID ownerId = document.employee() != null ? document.employee().id() : null;
+        String ownerEmail = document.employee() != null && document.employee().user() != null
+                ? document.employee().user().getEmail() : null;
+        return new DocumentChangedEvent(document.id(), type, ownerId, ownerEmail, document.level(), document.version(),
+                document.storageKey(), document.tags() != null ? Set.copyOf(document.tags()) : Set.of());
+    }
+}
@@ -0,0 +1,59 @@
+package tn.sesame.rh_management_backend.Events;
+
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Published by EmployeeService after every write.
+ *
+ * Listeners that keep derived data (search index, counters, ...) in sync
+ * react to this event instead of being called directly from the service.
+ * For DELETED events, employee is the state right before removal.
+ * previous holds the values before the write (null for CREATED).
+ */
+public record EmployeeChangedEvent(
+        UUID employeeId,
+        ChangeType type,
+        Employee employee,
+        Snapshot previous
+) {
+
+    public EmployeeChangedEvent(UUID employeeId, ChangeType type, Employee employee) {
+        this(employeeId, type, employee, null);
+    }
+
+    /**
+     * Immutable copy of the employee fields other components aggregate on.
+     * Needed because the entity itself is modified in place.
+     */
+    public record Snapshot(
+            String firstName,
+            String lastName,
+            EmployeeDepartment department,
+            EmployeeJobTitle jobTitle,
+            ContractType contract,
+            BigDecimal salary,
+            LocalDate hireDate,
+            UUID managerId
+    ) {
+        public static Snapshot of(Employee employee) {
+            return new Snapshot(
+                    employee.firstName(),
+                    employee.lastName(),
+                    employee.department(),
+                    employee.jobTitle(),
+                    employee.contract(),
+                    employee.salary(),
+                    employee.hireDate(),
+                    employee.manager() != null ? employee.manager().id() : null
+            );
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.ArchivedEmployee;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedEmployeeRepository extends JpaRepository<ArchivedEmployee, UUID> {
+    Optional<ArchivedEmployee> findByEmployeeNumber(String employeeNumber);
+    Page<ArchivedEmployee> findByLastNameContainingIgnoreCase(String lastName, Pageable pageable);
+
+    // Archive job: copies the employees inside the database, without loading the entities
+    @Modifying
+    @Query(value = "insert into archived_employees (id, employee_number, first_name, last_name, department, " +
+            "job_title, contract, salary, hire_date, departed_at, manager_id, user_id, user_email, archived_at) " +
+            "select e.id, e.employee_number, e.first_name, e.last_name, e.department, e.job_title, e.contract, " +
+            "e.salary, e.hire_date, e.departed_at, e.manager_id, e.user_id, u.email, :archivedAt " +
+            "from employees e left join users u on u.id = e.user_id where e.id in (:ids)", nativeQuery = true)
+    int copyFromEmployees(@Param("ids") Collection<UUID> ids, @Param("archivedAt") Instant archivedAt);
+}
@@ -0,0 +1,48 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.ArchivedHRDocument;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface ArchivedHRDocumentRepository extends JpaRepository<ArchivedHRDocument, UUID> {
+
+    // Metadata only, never touches the archived content column
+    @Query("select d.id as id, d.documentName as documentName, d.contentType as contentType, " +
+            "d.fileSize as fileSize, d.level as level, d.tags as tags, d.uploadedAt as uploadedAt, " +
+            "d.checkSum as checkSum, d.archivedAt as archivedAt " +
+            "from ArchivedHRDocument d where d.employeeId = :employeeId order by d.uploadedAt")
+    List<MetadataRow> findMetadataByEmployeeId(@Param("employeeId") UUID employeeId);
+
+    // Archive job: copies the documents of these owners inside the database,
+    // so the inline bodies (large objects) never reach the application
+    @Modifying
+    @Query(value = "insert into archived_hr_documents (id, document_name, content_type, file_size, level, " +
+            "employee_id, tags, uploaded_at, check_sum, encryped_content, storage_key, compression, archived_at) " +
+            "select d.id, d.document_name, d.content_type, d.file_size, d.level, d.owner_id, " +
+            "(select string_agg(t.tags, ',') from document_tags t where t.document_id = d.id), " +
+            "d.uploaded_at, d.check_sum, d.encryped_content, d.storage_key, d.compression, :archivedAt " +
+            "from hr_documents d where d.owner_id in (:ownerIds)", nativeQuery = true)
+    int copyFromOwners(@Param("ownerIds") Collection<UUID> ownerIds, @Param("archivedAt") Instant archivedAt);
+
+    interface MetadataRow {
+        UUID getId();
+        String getDocumentName();
+        String getContentType();
+        long getFileSize();
+        DocumentAccessLevel getLevel();
+        String getTags();
+        Instant getUploadedAt();
+        String getCheckSum();
+        Instant getArchivedAt();
+    }
+}
@@ -0,0 +1,9 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.ChangeLogHorizon;
+
+@Repository
+public interface ChangeLogHorizonRepository extends JpaRepository<ChangeLogHorizon, Integer> {
+}
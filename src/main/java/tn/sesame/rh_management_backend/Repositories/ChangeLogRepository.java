@@ -0,0 +1,53 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.ChangeLogEntry;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    /**
+     * Entries after the given position, restricted to transactions older than the
+     * oldest transaction still running: those are all committed, and no entry can
+     * appear before the returned ones later on.
+     */
+    @Query(value = "select c.* from change_log c " +
+            "where (c.transaction_id, c.id) > (:transactionId, :entryId) " +
+            "and c.transaction_id < cast(cast(pg_snapshot_xmin(pg_current_snapshot()) as text) as bigint) " +
+            "order by c.transaction_id, c.id limit :limit", nativeQuery = true)
+    List<ChangeLogEntry> findAfter(@Param("transactionId") long transactionId,
+                                   @Param("entryId") long entryId,
+                                   @Param("limit") int limit);
+
+    // Last position written before the cutoff, the retention job purges up to it
+    @Query(value = "select c.* from change_log c where c.occurred_at < :before " +
+            "and c.transaction_id < cast(cast(pg_snapshot_xmin(pg_current_snapshot()) as text) as bigint) " +
+            "order by c.transaction_id desc, c.id desc limit 1", nativeQuery = true)
+    List<ChangeLogEntry> findLastBefore(@Param("before") Instant before);
+
+    // Positions follow transaction ids, not time: an entry before the position can still be
+    // younger than the cutoff (long transaction). Retention is about age, so it is only
+    // deleted by a later run, once it is older than the cutoff itself
+    @Modifying
+    @Query(value = "delete from change_log c where (c.transaction_id, c.id) <= (:transactionId, :entryId) " +
+            "and c.occurred_at < :before", nativeQuery = true)
+    int deleteThrough(@Param("transactionId") long transactionId, @Param("entryId") long entryId,
+                      @Param("before") Instant before);
+
+    /**
+     * Compaction: drops entries older than the cutoff that are superseded by a
+     * later entry of the same resource. Readers behind them still get the later one.
+     */
+    @Modifying
+    @Query(value = "delete from change_log c where c.occurred_at < :before and exists (" +
+            "select 1 from change_log n where n.resource = c.resource and n.resource_id = c.resource_id " +
+            "and (n.transaction_id, n.id) > (c.transaction_id, c.id))", nativeQuery = true)
+    int compact(@Param("before") Instant before);
+}
@@ -0,0 +1,56 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.DocumentBlob;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DocumentBlobRepository extends JpaRepository<DocumentBlob, String> {
+
+    // One more reference, creating the blob on first use (runs in the caller's transaction)
+    @Modifying
+    @Query(value = "insert into document_blobs (id, file_size, codec, stored_size, ref_count, created_at) " +
+            "values (:id, :size, :codec, :storedSize, 1, :now) " +
+            "on conflict (id) do update set ref_count = document_blobs.ref_count + 1, released_at = null, " +
+            "codec = excluded.codec, stored_size = excluded.stored_size",
+            nativeQuery = true)
+    int addReference(@Param("id") String id, @Param("size") long size, @Param("codec") String codec,
+                     @Param("storedSize") long storedSize, @Param("now") Instant now);
+
+    // after the body was rewritten in another format (re-encryption)
+    @Transactional
+    @Modifying
+    @Query(value = "update document_blobs set codec = :codec, stored_size = :storedSize where id = :id", nativeQuery = true)
+    int updateStorage(@Param("id") String id, @Param("codec") String codec, @Param("storedSize") long storedSize);
+
+    @Modifying
+    @Query("update DocumentBlob b set b.refCount = b.refCount - 1, " +
+            "b.releasedAt = case when b.refCount = 1 then :now else b.releasedAt end where b.id = :id")
+    int removeReference(@Param("id") String id, @Param("now") Instant now);
+
+    // own transaction: also called from after-commit listeners
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from DocumentBlob b where b.id = :id and b.refCount <= 0")
+    int deleteIfUnreferenced(@Param("id") String id);
+
+    @Query("select b.id from DocumentBlob b where b.refCount <= 0 and b.releasedAt < :before")
+    List<String> findReleasedBefore(@Param("before") Instant before, Pageable pageable);
+
+    // keyset page over all bodies, for re-encryption
+    @Query("select b.id from DocumentBlob b where b.id > :after order by b.id")
+    List<String> findIdsAfter(@Param("after") String after, Pageable pageable);
+
+    @Query("select b.id from DocumentBlob b where b.id in :ids")
+    List<String> findExistingIds(@Param("ids") Collection<String> ids);
+}
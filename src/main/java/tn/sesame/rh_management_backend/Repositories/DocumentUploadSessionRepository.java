@@ -0,0 +1,11 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.DocumentUploadSession;
+
+import java.util.UUID;
+
+@Repository
+public interface DocumentUploadSessionRepository extends JpaRepository<DocumentUploadSession, UUID> {
+}
@@ -1,11 +1,18 @@
 package tn.sesame.rh_management_backend.Repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.sesame.rh_management_backend.Entities.EmbeddingModel;
 
+import java.util.Collection;
 import java.util.UUID;
 
 @Repository
 public interface EmbeddingModelRepository extends JpaRepository<EmbeddingModel, UUID> {
+    @Modifying
+    @Query("delete from EmbeddingModel m where m.document.id in :documentIds")
+    int deleteByDocumentIds(@Param("documentIds") Collection<UUID> documentIds);
 }
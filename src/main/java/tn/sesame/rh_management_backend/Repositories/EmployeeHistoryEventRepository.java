@@ -0,0 +1,32 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.EmployeeHistoryEvent;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface EmployeeHistoryEventRepository extends JpaRepository<EmployeeHistoryEvent, UUID> {
+
+    List<EmployeeHistoryEvent> findByEmployeeIdOrderBySequence(UUID employeeId);
+
+    Optional<EmployeeHistoryEvent> findFirstByEmployeeIdAndSnapshotTrueAndOccurredAtLessThanOrderBySequenceDesc(
+            UUID employeeId, Instant before);
+
+    List<EmployeeHistoryEvent> findByEmployeeIdAndSequenceGreaterThanAndOccurredAtLessThanOrderBySequence(
+            UUID employeeId, int afterSequence, Instant before);
+
+    @Query("select e from EmployeeHistoryEvent e where e.department = :department " +
+            "and e.salary is not null and e.occurredAt >= :from and e.occurredAt < :to " +
+            "order by e.occurredAt")
+    List<EmployeeHistoryEvent> findSalaryChanges(@Param("department") EmployeeDepartment department,
+                                                 @Param("from") Instant from,
+                                                 @Param("to") Instant to);
+}
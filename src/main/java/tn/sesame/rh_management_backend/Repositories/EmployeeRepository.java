@@ -1,10 +1,21 @@
 package tn.sesame.rh_management_backend.Repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.data.repository.query.Param;
 import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.dto.TeamMemberDto;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
 import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,4 +26,152 @@ public interface EmployeeRepository extends JpaRepository<Employee, UUID> {
     boolean existsByEmployeeNumber(String employeeNumber);
     List<Employee> findByDepartment(EmployeeDepartment department);
     List<Employee> findByDepartment(String department);
+    List<Employee> findByStatus(EmploymentStatus status);
+    long countByStatus(EmploymentStatus status);
+    List<Employee> findByDepartmentAndStatus(EmployeeDepartment department, EmploymentStatus status);
+
+    // Employee with the relations the DTO reads (user, manager) in one query
+    @Query("select e from Employee e left join fetch e.user left join fetch e.manager where e.id = :id")
+    Optional<Employee> findDetailedById(@Param("id") UUID id);
+
+    // One query for a page of search hits (user and manager are read by convertToDTO); unordered
+    @Query("select e from Employee e left join fetch e.user left join fetch e.manager where e.id in :ids")
+    List<Employee> findDetailedByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("select e from Employee e join fetch e.user u left join fetch e.manager where u.email = :email")
+    Optional<Employee> findDetailedByUserEmail(@Param("email") String email);
+
+    @Query("select e.id from Employee e where e.user.email = :email")
+    Optional<UUID> findIdByUserEmail(@Param("email") String email);
+
+    // Team of the employee with this account: same manager, direct reports and the manager
+    @Query("select new tn.sesame.rh_management_backend.dto.TeamMemberDto(e.id, e.firstName, e.lastName, " +
+            "e.department, e.jobTitle, u.email) " +
+            "from Employee me join me.user mu, Employee e left join e.user u " +
+            "where mu.email = :email and e <> me " +
+            "and e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE " +
+            "and (e.manager = me.manager or e.manager = me or e = me.manager) " +
+            "order by e.lastName, e.firstName")
+    List<TeamMemberDto> findTeamOf(@Param("email") String email);
+
+    // Versions of the employee and of the rows its DTO embeds plus owner email, for conditional GETs
+    @Query("select e.version as version, u.email as ownerEmail, u.version as userVersion, m.version as managerVersion " +
+            "from Employee e left join e.user u left join e.manager m where e.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") UUID id);
+
+    // History sequence: increments and returns it in one statement (PostgreSQL RETURNING, run as a query).
+    // The row lock orders concurrent writers of one employee until commit; not versioned and no
+    // entity callback, so neither the ETag nor the change log see it.
+    @Query(value = "update employees set history_sequence = history_sequence + 1 where id = :id " +
+            "returning history_sequence", nativeQuery = true)
+    int nextHistorySequence(@Param("id") UUID id);
+
+    // Archive job: long-departed employees, oldest ids first
+    @Query("select e.id from Employee e " +
+            "where e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.OFFBOARDED " +
+            "and e.departedAt < :departedBefore order by e.id")
+    List<UUID> findArchivableIds(@Param("departedBefore") LocalDate departedBefore, Pageable pageable);
+
+    @Query("select e.id from Employee e where e.manager.id in :ids or e.employee.id in :ids")
+    List<UUID> findReferencing(@Param("ids") Collection<UUID> ids);
+
+    // versioned: the version (ETag) of the detached employees changes as well
+    @Modifying
+    @Query("update versioned Employee e set e.manager = null where e.manager.id in :ids")
+    int detachManager(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("update versioned Employee e set e.employee = null where e.employee.id in :ids")
+    int detachLocation(@Param("ids") Collection<UUID> ids);
+
+    @Query("select e.id as id, e.version as version from Employee e where e.id in :ids")
+    List<VersionedId> findVersions(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Lightweight projection used to build the in-memory search index
+    @Query("select e.id as id, e.firstName as firstName, e.lastName as lastName, u.email as email " +
+            "from Employee e left join e.user u where e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE")
+    List<SearchRow> findSearchRows();
+
+    // Full recount per (department, job title, contract), used to reconcile employee_statistics
+    @Query("select e.department as department, e.jobTitle as jobTitle, e.contract as contract, " +
+            "count(e) as headcount, coalesce(sum(e.salary), 0) as salarySum, " +
+            "min(e.salary) as minSalary, max(e.salary) as maxSalary " +
+            "from Employee e where e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE " +
+            "group by e.department, e.jobTitle, e.contract")
+    List<StatisticRow> countByDepartmentJobTitleAndContract();
+
+    @Query("select min(e.salary) as minSalary, max(e.salary) as maxSalary from Employee e " +
+            "where e.department = :department and e.jobTitle = :jobTitle and e.contract = :contract " +
+            "and e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE")
+    SalaryRange findSalaryRange(@Param("department") EmployeeDepartment department,
+                                @Param("jobTitle") EmployeeJobTitle jobTitle,
+                                @Param("contract") ContractType contract);
+
+    // Attributes loaded into the in-memory column store
+    @Query("select e.id as id, e.department as department, e.jobTitle as jobTitle, e.contract as contract, " +
+            "e.salary as salary, e.hireDate as hireDate from Employee e " +
+            "where e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE")
+    List<ColumnRow> findColumnRows();
+
+    // Keyset chunk for the payroll engine: ids in (after, upperBound], ordered by id
+    @Query("select e.id as id, e.contract as contract, e.salary as salary, e.hireDate as hireDate " +
+            "from Employee e where e.id > :after and e.id <= :upperBound " +
+            "and e.status = tn.sesame.rh_management_backend.Enumerations.EmploymentStatus.ACTIVE order by e.id")
+    List<PayrollRow> findPayrollChunk(@Param("after") UUID after,
+                                      @Param("upperBound") UUID upperBound,
+                                      Pageable pageable);
+
+    interface VersionedId {
+        UUID getId();
+        long getVersion();
+    }
+
+    interface VersionRow {
+        long getVersion();
+        String getOwnerEmail();
+        Long getUserVersion();
+        Long getManagerVersion();
+    }
+
+    interface PayrollRow {
+        UUID getId();
+        ContractType getContract();
+        BigDecimal getSalary();
+        LocalDate getHireDate();
+    }
+
+    interface ColumnRow {
+        UUID getId();
+        EmployeeDepartment getDepartment();
+        EmployeeJobTitle getJobTitle();
+        ContractType getContract();
+        BigDecimal getSalary();
+        LocalDate getHireDate();
+    }
+
+    interface StatisticRow {
+        EmployeeDepartment getDepartment();
+        EmployeeJobTitle getJobTitle();
+        ContractType getContract();
+        long getHeadcount();
+        BigDecimal getSalarySum();
+        BigDecimal getMinSalary();
+        BigDecimal getMaxSalary();
+    }
+
+    interface SalaryRange {
+        BigDecimal getMinSalary();
+        BigDecimal getMaxSalary();
+    }
+
+    interface SearchRow {
+        UUID getId();
+        String getFirstName();
+        String getLastName();
+        String getEmail();
+    }
 }
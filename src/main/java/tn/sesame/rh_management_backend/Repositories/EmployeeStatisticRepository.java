@@ -0,0 +1,64 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.EmployeeStatistic;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmployeeStatisticRepository extends JpaRepository<EmployeeStatistic, UUID> {
+
+    // Blocks concurrent increments while the reconciliation job recounts
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from EmployeeStatistic s")
+    List<EmployeeStatistic> findAllForUpdate();
+
+    // Relative updates so concurrent writers to the same cell never lose an increment
+    @Modifying(flushAutomatically = true)
+    @Query("update EmployeeStatistic s set s.headcount = s.headcount + :countDelta, " +
+            "s.salarySum = s.salarySum + :salaryDelta, s.updatedAt = :now " +
+            "where s.department = :department and s.jobTitle = :jobTitle and s.contract = :contract")
+    int adjust(@Param("department") EmployeeDepartment department,
+               @Param("jobTitle") EmployeeJobTitle jobTitle,
+               @Param("contract") ContractType contract,
+               @Param("countDelta") long countDelta,
+               @Param("salaryDelta") BigDecimal salaryDelta,
+               @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update EmployeeStatistic s set " +
+            "s.minSalary = case when s.minSalary is null or :salary < s.minSalary then :salary else s.minSalary end, " +
+            "s.maxSalary = case when s.maxSalary is null or :salary > s.maxSalary then :salary else s.maxSalary end " +
+            "where s.department = :department and s.jobTitle = :jobTitle and s.contract = :contract")
+    int widenRange(@Param("department") EmployeeDepartment department,
+                   @Param("jobTitle") EmployeeJobTitle jobTitle,
+                   @Param("contract") ContractType contract,
+                   @Param("salary") BigDecimal salary);
+
+    @Query("select s.minSalary as minSalary, s.maxSalary as maxSalary from EmployeeStatistic s " +
+            "where s.department = :department and s.jobTitle = :jobTitle and s.contract = :contract")
+    EmployeeRepository.SalaryRange findRange(@Param("department") EmployeeDepartment department,
+                                             @Param("jobTitle") EmployeeJobTitle jobTitle,
+                                             @Param("contract") ContractType contract);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update EmployeeStatistic s set s.minSalary = :minSalary, s.maxSalary = :maxSalary " +
+            "where s.department = :department and s.jobTitle = :jobTitle and s.contract = :contract")
+    int setRange(@Param("department") EmployeeDepartment department,
+                 @Param("jobTitle") EmployeeJobTitle jobTitle,
+                 @Param("contract") ContractType contract,
+                 @Param("minSalary") BigDecimal minSalary,
+                 @Param("maxSalary") BigDecimal maxSalary);
+}
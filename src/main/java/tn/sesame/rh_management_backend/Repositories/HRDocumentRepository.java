@@ -1,14 +1,120 @@
 package tn.sesame.rh_management_backend.Repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import tn.sesame.rh_management_backend.Entities.Employee;
 import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface HRDocumentRepository extends JpaRepository<HRDocument, UUID> {
     List<HRDocument> findByEmployee(Employee employee);
+    boolean existsByDocumentName(String documentName);
+
+    // Document with its owner, the owner's user and the tags, everything the DTO and access check read
+    @Query("select d from HRDocument d left join fetch d.employee e left join fetch e.user " +
+            "left join fetch d.tags where d.id = :id")
+    Optional<HRDocument> findDetailedById(@Param("id") UUID id);
+
+    // Versions of the document and its owner plus what the access check needs, without the encrypted content
+    @Query("select d.version as version, e.version as employeeVersion, d.level as level, u.email as ownerEmail " +
+            "from HRDocument d left join d.employee e left join e.user u where d.id = :id")
+    Optional<VersionRow> findVersionById(@Param("id") UUID id);
+
+    interface VersionRow {
+        long getVersion();
+        Long getEmployeeVersion();
+        DocumentAccessLevel getLevel();
+        String getOwnerEmail();
+    }
+
+    // Download metadata plus the access-check columns, without the inline content
+    @Query("select d.documentName as documentName, d.contentType as contentType, d.fileSize as fileSize, " +
+            "d.version as version, d.storageKey as storageKey, d.level as level, u.email as ownerEmail " +
+            "from HRDocument d left join d.employee e left join e.user u where d.id = :id")
+    Optional<ContentRow> findContentById(@Param("id") UUID id);
+
+    interface ContentRow {
+        String getDocumentName();
+        String getContentType();
+        long getFileSize();
+        long getVersion();
+        String getStorageKey();
+        DocumentAccessLevel getLevel();
+        String getOwnerEmail();
+    }
+
+    // What DocumentTagIndex keeps per document: access columns, then the tags
+    @Query("select d.id as id, d.level as level, e.id as ownerId from HRDocument d left join d.employee e")
+    List<TagIndexRow> findTagIndexRows();
+
+    interface TagIndexRow {
+        UUID getId();
+        DocumentAccessLevel getLevel();
+        UUID getOwnerId();
+    }
+
+    @Query("select d.id as id, t as tag from HRDocument d join d.tags t")
+    List<TagRow> findTagRows();
+
+    interface TagRow {
+        UUID getId();
+        String getTag();
+    }
+
+    // Original vs stored size per content type and codec; bodies from before compression have no stored size.
+    // storedBytes counts a shared body once per document, uniqueStoredBytes once per group
+    @Query("select d.contentType as contentType, d.compression as compression, count(d) as documents, " +
+            "sum(d.fileSize) as originalBytes, sum(b.storedSize) as storedBytes, " +
+            "(select sum(u.storedSize) from DocumentBlob u where u.storedSize is not null and u.id in (" +
+            "select s.storageKey from HRDocument s " +
+            "where (s.contentType = d.contentType or s.contentType is null and d.contentType is null) " +
+            "and (s.compression = d.compression or s.compression is null and d.compression is null))) as uniqueStoredBytes " +
+            "from HRDocument d join DocumentBlob b on b.id = d.storageKey where b.storedSize is not null " +
+            "group by d.contentType, d.compression")
+    List<StorageRow> summarizeStorage();
+
+    interface StorageRow {
+        String getContentType();
+        ContentCodec getCompression();
+        long getDocuments();
+        long getOriginalBytes();
+        long getStoredBytes();
+        long getUniqueStoredBytes();
+    }
+
+    // Documents whose body is not in the content-addressed store yet (inline @Lob or pre-hash key)
+    @Query("select d.id from HRDocument d where (d.storageKey is null or length(d.storageKey) = 32) " +
+            "and d.id > :after order by d.id")
+    List<UUID> findIdsToMigrate(@Param("after") UUID after, Pageable pageable);
+
+    // Bulk update: the content is the same, the version (and ETag) stays
+    @Modifying(clearAutomatically = true)
+    @Query("update HRDocument d set d.storageKey = :storageKey, d.compression = :compression, d.encrypedContent = null " +
+            "where d.id = :id and d.version = :version")
+    int moveContent(@Param("id") UUID id, @Param("version") long version, @Param("storageKey") String storageKey,
+                    @Param("compression") ContentCodec compression);
+
+    // Archive job: ids and versions of the documents of these owners, for the change log
+    @Query("select d.id as id, d.version as version from HRDocument d where d.employee.id in :employeeIds")
+    List<EmployeeRepository.VersionedId> findVersionsByEmployeeIds(@Param("employeeIds") Collection<UUID> employeeIds);
+
+    // Bulk deletes used by the archive job (no cascade to the owning employee)
+    @Modifying
+    @Query(value = "delete from document_tags where document_id in (:ids)", nativeQuery = true)
+    int deleteTagsByDocumentIds(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from HRDocument d where d.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 }
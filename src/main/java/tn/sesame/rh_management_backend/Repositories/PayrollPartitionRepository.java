@@ -0,0 +1,13 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.PayrollPartition;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PayrollPartitionRepository extends JpaRepository<PayrollPartition, UUID> {
+    List<PayrollPartition> findByRunIdOrderByPartitionIndex(UUID runId);
+}
@@ -0,0 +1,21 @@
+package tn.sesame.rh_management_backend.Repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import tn.sesame.rh_management_backend.Entities.PayrollRun;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, UUID> {
+    Optional<PayrollRun> findByPeriod(String period);
+
+    @Modifying
+    @Query("update PayrollRun r set r.processedEmployees = r.processedEmployees + :processed, " +
+            "r.payslipCount = r.payslipCount + :payslips where r.id = :id")
+    int addProgress(@Param("id") UUID id, @Param("processed") long processed, @Param("payslips") long payslips);
+}
@@ -0,0 +1,75 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Repositories.ArchivedEmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.ArchivedHRDocumentRepository;
+import tn.sesame.rh_management_backend.Repositories.EmbeddingModelRepository;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves one batch of offboarded employees (and their documents) to the archive
+ * tables in a single transaction: copy with INSERT ... SELECT, then bulk-delete
+ * from the hot tables. Nothing but ids and versions is loaded.
+ * Bulk deletes are used on purpose, HRDocument cascades to its employee.
+ * Bulk statements skip the JPA callbacks, so the change log is written here.
+ */
+@Component
+@RequiredArgsConstructor
+public class ArchiveBatchWriter {
+
+    private final EmployeeRepository employeeRepository;
+    private final HRDocumentRepository documentRepository;
+    private final EmbeddingModelRepository embeddingRepository;
+    private final ArchivedEmployeeRepository archivedEmployeeRepository;
+    private final ArchivedHRDocumentRepository archivedDocumentRepository;
+    private final ChangeLogWriter changeLogWriter;
+
+    @Transactional
+    public int archive(List<UUID> employeeIds) {
+        Instant now = Instant.now();
+
+        // ids and versions only: the rows are copied by INSERT ... SELECT, the bodies stay in the database
+        Map<UUID, Long> documents = versions(documentRepository.findVersionsByEmployeeIds(employeeIds));
+        Map<UUID, Long> employees = versions(employeeRepository.findVersions(employeeIds));
+        archivedDocumentRepository.copyFromOwners(employeeIds, now);
+        archivedEmployeeRepository.copyFromEmployees(employeeIds, now);
+
+        if (!documents.isEmpty()) {
+            List<UUID> documentIds = List.copyOf(documents.keySet());
+            embeddingRepository.deleteByDocumentIds(documentIds);
+            documentRepository.deleteTagsByDocumentIds(documentIds);
+            documentRepository.deleteAllByIdIn(documentIds);
+            changeLogWriter.recordAll(ChangeResource.DOCUMENT, documents, ChangeType.DELETED);
+        }
+
+        List<UUID> referencing = employeeRepository.findReferencing(employeeIds).stream()
+                .filter(id -> !employeeIds.contains(id))
+                .toList();
+        employeeRepository.detachManager(employeeIds);
+        employeeRepository.detachLocation(employeeIds);
+        if (!referencing.isEmpty()) {
+            changeLogWriter.recordAll(ChangeResource.EMPLOYEE, versions(employeeRepository.findVersions(referencing)),
+                    ChangeType.UPDATED);
+        }
+
+        int deleted = employeeRepository.deleteAllByIdIn(employeeIds);
+        changeLogWriter.recordAll(ChangeResource.EMPLOYEE, employees, ChangeType.DELETED);
+        return deleted;
+    }
+
+    private static Map<UUID, Long> versions(List<EmployeeRepository.VersionedId> rows) {
+        return rows.stream().collect(Collectors.toMap(EmployeeRepository.VersionedId::getId,
+                EmployeeRepository.VersionedId::getVersion));
+    }
+}
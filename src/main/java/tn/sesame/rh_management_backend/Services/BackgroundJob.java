@@ -0,0 +1,90 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long-running admin job (archive, content migration, re-encryption): at most
+ * one run at a time on this instance, either on the caller's thread (scheduled
+ * runs) or on a virtual thread (admin endpoints, which answer 202 and expose
+ * status()). The counters are declared up front and read live.
+ */
+@Slf4j
+public final class BackgroundJob {
+
+    private final String name;
+    private final String busyMessage;
+    private final Map<String, AtomicInteger> counters = new LinkedHashMap<>();
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public BackgroundJob(String name, String busyMessage, String... counterNames) {
+        this.name = name;
+        this.busyMessage = busyMessage;
+        for (String counter : counterNames) {
+            counters.put(counter, new AtomicInteger());
+        }
+    }
+
+    /** Runs body on the calling thread, 409 if a run is in progress. */
+    public void run(Runnable body) {
+        begin();
+        execute(body);
+    }
+
+    /** Starts body on a virtual thread and returns at once, 409 if a run is in progress. */
+    public JobStatusDto start(Runnable body) {
+        begin();
+        Thread.ofVirtual().name(name).start(() -> execute(body));
+        return status();
+    }
+
+    public void add(String counter, int delta) {
+        counters.get(counter).addAndGet(delta);
+    }
+
+    public void increment(String counter) {
+        add(counter, 1);
+    }
+
+    public int get(String counter) {
+        return counters.get(counter).get();
+    }
+
+    public JobStatusDto status() {
+        Map<String, Integer> values = new LinkedHashMap<>();
+        counters.forEach((counter, value) -> values.put(counter, value.get()));
+        return new JobStatusDto(running.get(), startedAt, finishedAt, Collections.unmodifiableMap(values), error);
+    }
+
+    private void begin() {
+        if (!running.compareAndSet(false, true)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException(busyMessage);
+        }
+        counters.values().forEach(value -> value.set(0));
+        error = null;
+        finishedAt = null;
+        startedAt = Instant.now();
+    }
+
+    private void execute(Runnable body) {
+        try {
+            body.run();
+        } catch (RuntimeException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            log.error("Job {} failed", name, e);
+        } finally {
+            finishedAt = Instant.now();
+            running.set(false);
+        }
+    }
+}
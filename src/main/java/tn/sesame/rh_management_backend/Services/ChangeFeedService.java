@@ -0,0 +1,129 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.ChangeLogEntry;
+import tn.sesame.rh_management_backend.Entities.ChangeLogHorizon;
+import tn.sesame.rh_management_backend.Repositories.ChangeLogHorizonRepository;
+import tn.sesame.rh_management_backend.Repositories.ChangeLogRepository;
+import tn.sesame.rh_management_backend.dto.ChangeDto;
+import tn.sesame.rh_management_backend.dto.ChangeFeedDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Change feed over change_log (employees, users, document metadata).
+ *
+ * The position of an entry is (transaction id, entry id). A page only contains
+ * entries of transactions older than the oldest transaction still running in
+ * PostgreSQL, so every returned entry is committed and nothing can later be
+ * inserted before the cursor: following the cursor never skips a change.
+ *
+ * Entries are compacted once older than hr.changes.compact-after-hours (only the
+ * latest entry per resource is kept) and purged after hr.changes.retention-days;
+ * the purge position is kept in change_log_horizon to detect stale cursors.
+ */
+@Slf4j
+@Service
+public class ChangeFeedService {
+
+    static final int MAX_LIMIT = 1000;
+
+    private final ChangeLogRepository changeLogRepository;
+    private final ChangeLogHorizonRepository horizonRepository;
+    private final Duration retention;
+    private final Duration compactAfter;
+
+    public ChangeFeedService(ChangeLogRepository changeLogRepository,
+                             ChangeLogHorizonRepository horizonRepository,
+                             @Value("${hr.changes.retention-days:30}") int retentionDays,
+                             @Value("${hr.changes.compact-after-hours:24}") int compactAfterHours) {
+        this.changeLogRepository = changeLogRepository;
+        this.horizonRepository = horizonRepository;
+        this.retention = Duration.ofDays(retentionDays);
+        this.compactAfter = Duration.ofHours(compactAfterHours);
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public ChangeFeedDto getChanges(String since, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        long[] position = since == null || since.isBlank() ? new long[]{0, 0} : parse(since);
+
+        boolean reset = false;
+        ChangeLogHorizon horizon = horizonRepository.findById(ChangeLogHorizon.ID).orElse(null);
+        if (horizon != null && compare(position, horizon.transactionId(), horizon.entryId()) < 0) {
+            // an explicit cursor behind the purge position has missed changes
+            reset = since != null && !since.isBlank();
+            position = new long[]{horizon.transactionId(), horizon.entryId()};
+        }
+
+        List<ChangeLogEntry> entries = changeLogRepository.findAfter(position[0], position[1], limit + 1);
+        boolean hasMore = entries.size() > limit;
+        List<ChangeDto> changes = entries.stream()
+                .limit(limit)
+                .map(e -> new ChangeDto(format(e.transactionId(), e.id()), e.resource(), e.resourceId(),
+                        e.type(), e.version(), e.occurredAt()))
+                .toList();
+        String cursor = changes.isEmpty() ? format(position[0], position[1]) : changes.getLast().cursor();
+        return new ChangeFeedDto(changes, cursor, hasMore, reset);
+    }
+
+    @Scheduled(cron = "${hr.changes.maintenance-cron:0 15 * * * *}", zone = "UTC")
+    @Transactional
+    public void maintain() {
+        Instant now = Instant.now();
+        int compacted = changeLogRepository.compact(now.minus(compactAfter));
+
+        int purged = 0;
+        Instant cutoff = now.minus(retention);
+        List<ChangeLogEntry> last = changeLogRepository.findLastBefore(cutoff);
+        if (!last.isEmpty()) {
+            ChangeLogEntry through = last.getFirst();
+            purged = changeLogRepository.deleteThrough(through.transactionId(), through.id(), cutoff);
+            horizonRepository.save(ChangeLogHorizon.builder()
+                    .id(ChangeLogHorizon.ID)
+                    .transactionId(through.transactionId())
+                    .entryId(through.id())
+                    .purgedAt(now)
+                    .build());
+        }
+        if (compacted > 0 || purged > 0) {
+            log.info("Change log maintenance: {} entries compacted, {} purged", compacted, purged);
+        }
+    }
+
+    // ---------------------------------------------------------------- cursor
+
+    private static String format(long transactionId, long entryId) {
+        return transactionId + "-" + entryId;
+    }
+
+    private static long[] parse(String cursor) {
+        int dash = cursor.indexOf('-');
+        try {
+            if (dash > 0) {
+                long[] position = {Long.parseLong(cursor.substring(0, dash)), Long.parseLong(cursor.substring(dash + 1))};
+                if (position[0] >= 0 && position[1] >= 0) {
+                    return position;
+                }
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Invalid change feed cursor: " + cursor);
+    }
+
+    private static int compare(long[] position, long transactionId, long entryId) {
+        int byTransaction = Long.compare(position[0], transactionId);
+        return byTransaction != 0 ? byTransaction : Long.compare(position[1], entryId);
+    }
+}
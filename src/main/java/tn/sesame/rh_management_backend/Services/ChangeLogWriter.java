@@ -0,0 +1,60 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Appends change_log rows.
+ *
+ * Called from JPA lifecycle callbacks (ChangeLogListener) while Hibernate flushes,
+ * where the EntityManager must not be used, so the insert goes through JDBC. Inside
+ * a JPA transaction JdbcTemplate is bound to the same connection, so the row
+ * commits or rolls back with the change it records.
+ *
+ * A change is recorded once per (resource, version, type): a second flush of
+ * the same state (another listener flushing, a bulk statement after a callback)
+ * finds the earlier row and inserts nothing. The type is part of the key
+ * because an update and a delete in one transaction share the last version.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChangeLogWriter {
+
+    // uses idx_change_log_resource; rows of the current transaction are visible to it
+    private static final String INSERT =
+            "insert into change_log (resource, resource_id, type, version, occurred_at) select ?, ?, ?, ?, ? " +
+            "where not exists (select 1 from change_log c " +
+            "where c.resource = ? and c.resource_id = ? and c.version = ? and c.type = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void record(ChangeResource resource, UUID resourceId, ChangeType type, long version) {
+        jdbcTemplate.update(INSERT, row(resource, resourceId, type, version, Timestamp.from(Instant.now())));
+    }
+
+    /** Bulk variant for changes made with JPQL bulk statements (no lifecycle callbacks). */
+    public void recordAll(ChangeResource resource, Map<UUID, Long> versions, ChangeType type) {
+        if (versions.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = versions.entrySet().stream()
+                .map(e -> row(resource, e.getKey(), type, e.getValue(), now))
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private static Object[] row(ChangeResource resource, UUID resourceId, ChangeType type, long version, Timestamp now) {
+        return new Object[]{resource.name(), resourceId, type.name(), version, now,
+                resource.name(), resourceId, version, type.name()};
+    }
+}
@@ -0,0 +1,109 @@
+package tn.sesame.rh_management_backend.Services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Chooses how a document body is compressed before it is encrypted, from its
+ * content type, and (de)compresses as a stream.
+ *
+ * Rules come from hr.documents.compression: "type=codec[:level]" entries
+ * where type is exact ("text/csv"), a prefix ("application/vnd.ms-*", "text/*")
+ * or "*". The longest matching pattern wins; parameters such as charset are
+ * ignored. Formats that are compressed already (PDF, images, ZIP and the
+ * ZIP-based office formats such as DOCX) are mapped to none.
+ */
+@Component
+public class DocumentCompression {
+
+    /** Codec and level for one content type. */
+    public record Choice(ContentCodec codec, int level) {
+        static final Choice NONE = new Choice(ContentCodec.NONE, 0);
+    }
+
+    private final Map<String, Choice> rules = new LinkedHashMap<>();
+
+    public DocumentCompression(@Value("${hr.documents.compression:*=none}") String rules) {
+        for (String entry : rules.split(",")) {
+            String[] rule = entry.trim().split("=", 2);
+            String[] codec = rule[1].trim().split(":", 2);
+            ContentCodec contentCodec = ContentCodec.valueOf(codec[0].trim().toUpperCase(Locale.ROOT));
+            int level = codec.length > 1 ? Integer.parseInt(codec[1].trim()) : Deflater.DEFAULT_COMPRESSION;
+            this.rules.put(rule[0].trim().toLowerCase(Locale.ROOT), new Choice(contentCodec, level));
+        }
+    }
+
+    public Choice choose(String contentType) {
+        String type = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        Choice exact = rules.get(type);
+        if (exact != null) {
+            return exact;
+        }
+        String best = null;
+        for (String pattern : rules.keySet()) {
+            if (pattern.endsWith("*") && type.startsWith(pattern.substring(0, pattern.length() - 1))
+                    && (best == null || pattern.length() > best.length())) {
+                best = pattern;
+            }
+        }
+        return best != null ? rules.get(best) : Choice.NONE;
+    }
+
+    /** The compressed form of plain, read as the caller reads. */
+    public InputStream compress(InputStream plain, Choice choice) {
+        return switch (choice.codec()) {
+            case NONE -> plain;
+            case DEFLATE -> new DeflatingInputStream(plain, new Deflater(choice.level()));
+        };
+    }
+
+    /** The plain form of a body compressed with codec. */
+    public InputStream decompress(InputStream compressed, ContentCodec codec) {
+        return switch (codec) {
+            case NONE -> compressed;
+            case DEFLATE -> new InflatingInputStream(compressed, new Inflater());
+        };
+    }
+
+    // DeflaterInputStream and InflaterInputStream do not release the native zlib state of a passed (de)inflater
+    private static final class DeflatingInputStream extends DeflaterInputStream {
+        DeflatingInputStream(InputStream in, Deflater deflater) {
+            super(in, deflater, DocumentContentStore.BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                def.end();
+            }
+        }
+    }
+
+    private static final class InflatingInputStream extends InflaterInputStream {
+        InflatingInputStream(InputStream in, Inflater inflater) {
+            super(in, inflater, DocumentContentStore.BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Moves existing document bodies into the content-addressed store: inline
+ * encrypedContent (AES/ECB) and files written under a random key before the
+ * store was content-addressed. Each body is compressed and re-encrypted into
+ * the store, its
+ * hash checked against the recorded checksum, and the row pointed at it;
+ * the inline column is cleared and an old file is collected.
+ *
+ * Runs on demand (admin endpoint) in the background, hr.documents.migration-batch-size
+ * rows per page with a pause in between; runStatus() reports the counters.
+ * Rows that fail are logged and left as they are, a later run retries them.
+ */
+@Slf4j
+@Service
+public class DocumentContentMigration {
+
+    private static final String MIGRATED = "migrated";
+    private static final String SKIPPED = "skipped";
+    private static final String FAILED = "failed";
+
+    private final HRDocumentRepository documentRepository;
+    private final DocumentContentStore contentStore;
+    private final HRDocumentWriter documentWriter;
+    private final int batchSize;
+    private final long batchPauseMs;
+
+    private final BackgroundJob job = new BackgroundJob("content-migration",
+            "A content migration is already in progress", MIGRATED, SKIPPED, FAILED);
+
+    public DocumentContentMigration(HRDocumentRepository documentRepository,
+                                    DocumentContentStore contentStore,
+                                    HRDocumentWriter documentWriter,
+                                    @Value("${hr.documents.migration-batch-size:100}") int batchSize,
+                                    @Value("${hr.documents.migration-pause-ms:100}") long batchPauseMs) {
+        this.documentRepository = documentRepository;
+        this.contentStore = contentStore;
+        this.documentWriter = documentWriter;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runNow() {
+        return job.start(this::run);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runStatus() {
+        return job.status();
+    }
+
+    private void run() {
+        try {
+            // keyset over ids: failed rows stay unmigrated and must not be picked again in this run
+            // PostgreSQL orders uuids as unsigned bytes: the all-zero id is the smallest
+            UUID after = new UUID(0L, 0L);
+            List<UUID> ids;
+            do {
+                ids = documentRepository.findIdsToMigrate(after, PageRequest.of(0, batchSize));
+                for (UUID id : ids) {
+                    try {
+                        job.increment(migrate(id) ? MIGRATED : SKIPPED);
+                    } catch (IOException | RuntimeException e) {
+                        job.increment(FAILED);
+                        log.warn("Cannot migrate the content of document {}", id, e);
+                    }
+                    after = id;
+                }
+                if (ids.size() == batchSize) {
+                    Thread.sleep(batchPauseMs);
+                }
+            } while (ids.size() == batchSize);
+
+            log.info("Document content migration: {} migrated, {} skipped, {} failed",
+                    job.get(MIGRATED), job.get(SKIPPED), job.get(FAILED));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Content migration interrupted");
+        }
+    }
+
+    private boolean migrate(UUID id) throws IOException {
+        HRDocument document = documentRepository.findById(id).orElse(null);
+        if (document == null) {
+            return false;
+        }
+        String oldKey = document.storageKey();
+        if (oldKey == null && document.encrypedContent() == null) {
+            return false;
+        }
+
+        DocumentContentStore.StagedContent staged;
+        try (InputStream content = oldKey != null
+                ? contentStore.open(oldKey)
+                : new ByteArrayInputStream(contentStore.decryptLegacy(document.encrypedContent()))) {
+            staged = contentStore.stage(content, document.contentType());
+        }
+        if (document.checkSum() != null && !document.checkSum().equals(staged.checkSum())) {
+            contentStore.discard(staged);
+            throw new IllegalStateException("Checksum mismatch, content left in place");
+        }
+
+        boolean moved = contentStore.publish(staged,
+                stored -> documentWriter.moveContent(id, document.version(), stored));
+        if (!moved) {
+            // changed or deleted meanwhile, drop the new reference-less body again
+            contentStore.collect(staged.key());
+            return false;
+        }
+        if (oldKey != null) {
+            contentStore.collect(oldKey);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,545 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+import tn.sesame.rh_management_backend.Events.DocumentChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.DocumentBlobRepository;
+
+import javax.crypto.Cipher;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.BufferedOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Content-addressed, encrypted document bodies on the filesystem.
+ *
+ * A body is staged in one pass: the request stream goes through a SHA-256
+ * digest, the compression chosen for its content type (DocumentCompression)
+ * and the DocumentEnvelopeCipher into a temporary file, chunk by chunk, so
+ * memory use does not depend on the document size. Its key is the hex
+ * digest of the plain content: publishing a body that is already stored only
+ * adds a reference (the same policy PDF for 2,000 hires is one file).
+ *
+ * References live in document_blobs, updated in the transaction that saves
+ * or deletes the referencing row (retain/release). A body whose count drops
+ * to zero is removed after commit, and a periodic sweep removes the ones a
+ * crash left behind. Publishing and collecting exclude each other
+ * (read/write lock), so a body being re-referenced is never deleted.
+ *
+ * New bodies are written in the chunked AES-GCM envelope format ("HRD3", see
+ * DocumentEnvelopeCipher), whose header records the ContentCodec. Older ones
+ * are "HRD1": the 16-byte IV, then AES/CTR ciphertext under
+ * hr.documents.encryption-key; they stay readable until reencrypt() converts
+ * them (see DocumentReencryption).
+ *
+ * Uncompressed bodies let a range be read without decrypting what precedes
+ * it; compressed ones are inflated from the start and the bytes before the
+ * range skipped.
+ *
+ * Files are sharded by the first two characters of their key. Keys of 32
+ * characters are bodies written before the store was content-addressed (see
+ * DocumentContentMigration).
+ */
+@Slf4j
+@Component
+public class DocumentContentStore {
+
+    /**
+     * A body written to the staging area. checkSum is Base64 SHA-256 of the
+     * plain content, key the hex one; storedSize the size of the file.
+     */
+    public record StagedContent(Path file, String key, long size, String checkSum, ContentCodec codec,
+                                long storedSize, long nanos) {
+        public double megabytesPerSecond() {
+            return nanos == 0 ? 0 : size / 1_048_576.0 / (nanos / 1_000_000_000.0);
+        }
+
+        // the same content already stored, possibly compressed otherwise
+        StagedContent storedAs(ContentCodec storedCodec, long storedFileSize) {
+            return new StagedContent(file, key, size, checkSum, storedCodec, storedFileSize, nanos);
+        }
+    }
+
+    private static final byte[] MAGIC = "HRD1".getBytes(StandardCharsets.US_ASCII);
+    private static final int IV_LENGTH = 16;
+    private static final int HEADER_LENGTH = 4 + IV_LENGTH;
+    private static final int AES_BLOCK = 16;
+    static final int BUFFER_SIZE = 64 * 1024;
+    private static final String STAGING = "staging";
+
+    private final DocumentBlobRepository blobRepository;
+    private final DocumentEnvelopeCipher envelopeCipher;
+    private final DocumentCompression compression;
+    private final Path root;
+    private final SecretKeySpec key;
+    private final Duration gcGrace;
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+
+    public DocumentContentStore(DocumentBlobRepository blobRepository,
+                                DocumentEnvelopeCipher envelopeCipher,
+                                DocumentCompression compression,
+                                @Value("${hr.documents.storage-dir:data/documents}") Path root,
+                                @Value("${hr.documents.encryption-key:MySecretKey12345}") String encryptionKey,
+                                @Value("${hr.documents.gc-grace:1h}") Duration gcGrace) {
+        this.blobRepository = blobRepository;
+        this.envelopeCipher = envelopeCipher;
+        this.compression = compression;
+        this.root = root;
+        this.key = new SecretKeySpec(encryptionKey.getBytes(StandardCharsets.UTF_8), "AES");
+        this.gcGrace = gcGrace;
+    }
+
+    /**
+     * Streams content to a staging file, compressed as configured for
+     * contentType. Hand it to publish(), which also discards it.
+     */
+    public StagedContent stage(InputStream content, String contentType) throws IOException {
+        long started = System.nanoTime();
+        Path staging = root.resolve(STAGING);
+        Files.createDirectories(staging);
+        Path tmp = Files.createTempFile(staging, "body-", ".tmp");
+
+        DocumentCompression.Choice choice = compression.choose(contentType);
+        MessageDigest digest = sha256();
+        CountingInputStream plain = new CountingInputStream(new DigestInputStream(content, digest));
+        try {
+            // digest and count see the plain bytes, the cipher the compressed ones
+            try (InputStream compressed = compression.compress(plain, choice);
+                 OutputStream file = new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE)) {
+                envelopeCipher.encrypt(compressed, file, choice.codec().id());
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        byte[] hash = digest.digest();
+        return new StagedContent(tmp, HexFormat.of().formatHex(hash), plain.count,
+                Base64.getEncoder().encodeToString(hash), choice.codec(), Files.size(tmp), System.nanoTime() - started);
+    }
+
+    /**
+     * Moves a staged body in place (or drops it when the content is already
+     * stored) and runs register, the transaction that saves the referencing
+     * row and calls retain(), with the body as stored: an existing file keeps
+     * its own codec. If register fails the body is collected again.
+     */
+    public <T> T publish(StagedContent staged, Function<StagedContent, T> register) {
+        boolean registered = false;
+        publishLock.readLock().lock();
+        try {
+            Path target = path(staged.key());
+            StagedContent stored = staged;
+            if (!Files.exists(target)) {
+                Files.createDirectories(target.getParent());
+                Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+            } else {
+                stored = staged.storedAs(codecOf(target), Files.size(target));
+            }
+            T result = register.apply(stored);
+            registered = true;
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store document body " + staged.key(), e);
+        } finally {
+            publishLock.readLock().unlock();
+            discard(staged);
+            if (!registered) {
+                collect(staged.key());
+            }
+        }
+    }
+
+    public void discard(StagedContent staged) {
+        try {
+            Files.deleteIfExists(staged.file());
+        } catch (IOException e) {
+            log.warn("Cannot delete staged document body {}", staged.file(), e);
+        }
+    }
+
+    /** One more row refers to the body. Call inside the transaction saving that row. */
+    public void retain(StagedContent stored) {
+        blobRepository.addReference(stored.key(), stored.size(), stored.codec().name(), stored.storedSize(), Instant.now());
+    }
+
+    /** One row less refers to the body. Call inside the transaction deleting that row. */
+    public void release(String storageKey) {
+        blobRepository.removeReference(storageKey, Instant.now());
+    }
+
+    /** Decrypting stream over a stored body. */
+    public InputStream open(String storageKey) throws IOException {
+        return open(storageKey, 0);
+    }
+
+    /**
+     * Decrypting stream starting at a plain-text offset. An uncompressed
+     * envelope body starts at the chunk holding the offset. For HRD1, CTR encrypts block n with the
+     * IV + n counter, so the stream seeks to the block holding the offset
+     * instead of decrypting everything before it.
+     */
+    public InputStream open(String storageKey, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(path(storageKey), StandardOpenOption.READ);
+        try {
+            byte[] magic = readMagic(channel, storageKey);
+            if (DocumentEnvelopeCipher.isEnvelope(magic)) {
+                DocumentEnvelopeCipher.Header header = envelopeCipher.readHeader(channel, magic);
+                ContentCodec codec = ContentCodec.of(header.encoding());
+                if (codec == ContentCodec.NONE) {
+                    return envelopeCipher.decrypt(channel, header, offset);
+                }
+                InputStream in = compression.decompress(envelopeCipher.decrypt(channel, header, 0), codec);
+                try {
+                    in.skipNBytes(offset);
+                } catch (IOException | RuntimeException e) {
+                    in.close();
+                    throw e;
+                }
+                return in;
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).put(magic);
+            int read;
+            do {
+                read = channel.read(header);
+            } while (read != -1 && header.hasRemaining());
+            byte[] bytes = header.array();
+            if (header.hasRemaining() || !Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Not a document body: " + storageKey);
+            }
+            long block = offset / AES_BLOCK;
+            channel.position(HEADER_LENGTH + block * AES_BLOCK);
+            byte[] counter = counterAt(Arrays.copyOfRange(bytes, MAGIC.length, HEADER_LENGTH), block);
+            InputStream in = new DecryptingInputStream(
+                    Channels.newInputStream(channel), cipher(Cipher.DECRYPT_MODE, counter));
+            in.skipNBytes(offset % AES_BLOCK);
+            return in;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Brings a body to the current format: an HRD1 body is decrypted and
+     * written again as an envelope (its hash checked against the key), an
+     * envelope under an older master key gets its data key rewrapped. The new file
+     * replaces the old one atomically, unless the body was collected
+     * meanwhile. Returns false when there was nothing to do.
+     */
+    public boolean reencrypt(String storageKey) throws IOException {
+        Path target = path(storageKey);
+        Path staging = root.resolve(STAGING);
+        Files.createDirectories(staging);
+        Path tmp = Files.createTempFile(staging, "reencrypt-", ".tmp");
+        boolean converted = false;
+        try {
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ)) {
+                byte[] magic = readMagic(channel, storageKey);
+                if (DocumentEnvelopeCipher.isEnvelope(magic)) {
+                    DocumentEnvelopeCipher.Header header = envelopeCipher.readHeader(channel, magic);
+                    if (!envelopeCipher.needsRewrap(header)) {
+                        return false;
+                    }
+                    try (OutputStream out = Files.newOutputStream(tmp)) {
+                        envelopeCipher.rewrap(channel, header, out);
+                    }
+                } else {
+                    MessageDigest digest = sha256();
+                    try (InputStream plain = new DigestInputStream(open(storageKey), digest);
+                         OutputStream out = new BufferedOutputStream(Files.newOutputStream(tmp), BUFFER_SIZE)) {
+                        envelopeCipher.encrypt(plain, out, ContentCodec.NONE.id());
+                    }
+                    // 32-character keys are random, not content hashes
+                    if (storageKey.length() == 64 && !HexFormat.of().formatHex(digest.digest()).equals(storageKey)) {
+                        throw new IOException("Content of document body " + storageKey + " does not match its key");
+                    }
+                    converted = true;
+                }
+            }
+            publishLock.writeLock().lock();
+            try {
+                if (!Files.exists(target)) {
+                    return false;
+                }
+                long storedSize = Files.size(tmp);
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                if (converted) {
+                    blobRepository.updateStorage(storageKey, ContentCodec.NONE.name(), storedSize);
+                }
+                return true;
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Deletes the body if nothing refers to it any more: its count is zero, or
+     * it has no blob row at all (bodies from before content addressing).
+     */
+    public void collect(String storageKey) {
+        publishLock.writeLock().lock();
+        try {
+            if (blobRepository.deleteIfUnreferenced(storageKey) > 0 || !blobRepository.existsById(storageKey)) {
+                Files.deleteIfExists(path(storageKey));
+            }
+        } catch (IOException e) {
+            log.warn("Cannot delete document body {}", storageKey, e);
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (event.type() == ChangeType.DELETED && event.storageKey() != null) {
+            collect(event.storageKey());
+        }
+    }
+
+    /**
+     * Removes what deletion after commit missed: released blobs older than
+     * hr.documents.gc-grace, files without a blob row, stale staging files.
+     */
+    @Scheduled(cron = "${hr.documents.gc-cron:0 45 3 * * *}", zone = "UTC")
+    public void sweep() {
+        Instant cutoff = Instant.now().minus(gcGrace);
+        List<String> released;
+        int collected = 0;
+        do {
+            released = blobRepository.findReleasedBefore(cutoff, PageRequest.of(0, 500));
+            released.forEach(this::collect);
+            collected += released.size();
+        } while (released.size() == 500);
+
+        int orphans = 0;
+        if (Files.isDirectory(root)) {
+            try (DirectoryStream<Path> shards = Files.newDirectoryStream(root)) {
+                for (Path shard : shards) {
+                    if (Files.isDirectory(shard)) {
+                        orphans += sweepDirectory(shard, cutoff, !shard.getFileName().toString().equals(STAGING));
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot scan document store {}", root, e);
+            }
+        }
+        if (collected > 0 || orphans > 0) {
+            log.info("Document store sweep: {} released bodies, {} orphan files removed", collected, orphans);
+        }
+    }
+
+    // old files of one shard (or of the staging area) that no blob row claims
+    private int sweepDirectory(Path directory, Instant cutoff, boolean shard) throws IOException {
+        Map<String, Path> candidates = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    candidates.put(file.getFileName().toString(), file);
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+        publishLock.writeLock().lock();
+        try {
+            if (shard) {
+                // 32-character keys are pre-migration bodies, still referenced by their document row
+                candidates.keySet().removeIf(name -> name.length() != 64);
+                blobRepository.findExistingIds(candidates.keySet()).forEach(candidates::remove);
+            }
+            for (Path file : candidates.values()) {
+                Files.deleteIfExists(file);
+            }
+            return candidates.size();
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+    }
+
+    /** Decrypts content stored inline in hr_documents before the store (AES/ECB with the same key). */
+    public byte[] decryptLegacy(byte[] encryptedContent) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES");
+            cipher.init(Cipher.DECRYPT_MODE, key);
+            return cipher.doFinal(encryptedContent);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot decrypt inline document content", e);
+        }
+    }
+
+    // codec of a stored body, from its header
+    private ContentCodec codecOf(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            byte[] magic = readMagic(channel, file.getFileName().toString());
+            return DocumentEnvelopeCipher.isEnvelope(magic)
+                    ? ContentCodec.of(envelopeCipher.readHeader(channel, magic).encoding())
+                    : ContentCodec.NONE;
+        }
+    }
+
+    private static byte[] readMagic(FileChannel channel, String storageKey) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+        int read;
+        do {
+            read = channel.read(magic);
+        } while (read != -1 && magic.hasRemaining());
+        if (magic.hasRemaining()) {
+            throw new IOException("Not a document body: " + storageKey);
+        }
+        return magic.array();
+    }
+
+    private Path path(String storageKey) {
+        if (!storageKey.matches("[0-9a-f]{32}|[0-9a-f]{64}")) {
+            throw new IllegalArgumentException("Invalid storage key");
+        }
+        return root.resolve(storageKey.substring(0, 2)).resolve(storageKey);
+    }
+
+    private Cipher cipher(int mode, byte[] iv) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+            cipher.init(mode, key, new IvParameterSpec(iv));
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // IV + block as a 128-bit big-endian addition, as the CTR mode increments it
+    static byte[] counterAt(byte[] iv, long block) {
+        byte[] counter = iv.clone();
+        long carry = block;
+        for (int i = counter.length - 1; i >= 0 && carry != 0; i--) {
+            long sum = (counter[i] & 0xff) + (carry & 0xff);
+            counter[i] = (byte) sum;
+            carry = (carry >>> 8) + (sum >>> 8);
+        }
+        return counter;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Decrypts in place as the caller reads, one cipher update per read
+     * (CipherInputStream would go through a 512-byte internal buffer).
+     */
+    private static final class DecryptingInputStream extends FilterInputStream {
+        private final Cipher cipher;
+
+        DecryptingInputStream(InputStream in, Cipher cipher) {
+            super(in);
+            this.cipher = cipher;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = in.read(b, off, len);
+            if (read > 0) {
+                try {
+                    cipher.update(b, off, read, b, off);
+                } catch (ShortBufferException e) {
+                    throw new IOException(e);
+                }
+            }
+            return read;
+        }
+
+        // skipped bytes must still go through the cipher to keep the counter in step
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, BUFFER_SIZE)];
+            long remaining = n;
+            while (remaining > 0) {
+                int read = read(buffer, 0, (int) Math.min(remaining, buffer.length));
+                if (read == -1) {
+                    break;
+                }
+                remaining -= read;
+            }
+            return n - remaining;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package tn.sesame.rh_management_backend.Services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envelope encryption of document bodies in fixed-size AES-GCM chunks ("HRD3").
+ *
+ * Every body gets its own random AES-256 data key, stored in the header
+ * wrapped (AES key wrap) by a master key from hr.documents.master-keys. The
+ * plain text is cut into chunks of hr.documents.chunk-size bytes, each sealed
+ * with GCM under the nonce prefix || chunk index and with the index, a
+ * last-chunk flag and the content encoding as associated data, so chunks cannot be reordered, dropped
+ * or truncated unnoticed. Chunk n starts at a fixed offset: a reader can
+ * start at any chunk.
+ *
+ * Chunks are encrypted and decrypted on a pool of platform threads, one
+ * cipher instance per thread, with at most two chunks per thread in flight.
+ * The caller's thread only reads and writes, in order.
+ *
+ * Layout: "HRD3" | master key id (1) | content encoding (1) | chunk size (4)
+ * | wrapped key length (2) | wrapped key | nonce prefix (8) | chunks
+ * (ciphertext + 16-byte tag each). The content encoding is opaque here, the
+ * store records its ContentCodec in it. "HRD2" bodies, without the encoding
+ * byte (and without it in the associated data), are still read.
+ */
+@Component
+public class DocumentEnvelopeCipher {
+
+    static final byte[] MAGIC = "HRD3".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] MAGIC_V2 = "HRD2".getBytes(StandardCharsets.US_ASCII);
+    private static final int TAG_LENGTH = 16;
+    private static final int NONCE_PREFIX_LENGTH = 8;
+
+    /** Parsed file header. length is the offset of the first chunk. */
+    public record Header(int version, int keyId, int encoding, int chunkSize, byte[] wrappedKey, byte[] noncePrefix) {
+        public int length() {
+            return MAGIC.length + 1 + (version == 2 ? 0 : 1) + 4 + 2 + wrappedKey.length + NONCE_PREFIX_LENGTH;
+        }
+
+        Header rewrapped(int newKeyId, byte[] newWrappedKey) {
+            return new Header(version, newKeyId, encoding, chunkSize, newWrappedKey, noncePrefix);
+        }
+
+        void write(OutputStream out) throws IOException {
+            DataOutputStream data = new DataOutputStream(out);
+            data.write(version == 2 ? MAGIC_V2 : MAGIC);
+            data.writeByte(keyId);
+            if (version != 2) {
+                data.writeByte(encoding);
+            }
+            data.writeInt(chunkSize);
+            data.writeShort(wrappedKey.length);
+            data.write(wrappedKey);
+            data.write(noncePrefix);
+            data.flush();
+        }
+
+        // the magic has already been consumed
+        static Header read(InputStream in, int version) throws IOException {
+            DataInputStream data = new DataInputStream(in);
+            int keyId = data.readUnsignedByte();
+            int encoding = version == 2 ? 0 : data.readUnsignedByte();
+            int chunkSize = data.readInt();
+            byte[] wrappedKey = new byte[data.readUnsignedShort()];
+            data.readFully(wrappedKey);
+            byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+            data.readFully(noncePrefix);
+            if (chunkSize <= 0) {
+                throw new IOException("Invalid chunk size in document body header");
+            }
+            return new Header(version, keyId, encoding, chunkSize, wrappedKey, noncePrefix);
+        }
+    }
+
+    private final Map<Integer, SecretKey> masterKeys = new HashMap<>();
+    private final int activeKeyId;
+    private final int chunkSize;
+    private final int window;
+    private final ExecutorService workers;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Cipher> ciphers = ThreadLocal.withInitial(() -> {
+        try {
+            return Cipher.getInstance("AES/GCM/NoPadding");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    public DocumentEnvelopeCipher(@Value("${hr.documents.master-keys}") String masterKeys,
+                                  @Value("${hr.documents.active-master-key:1}") int activeKeyId,
+                                  @Value("${hr.documents.chunk-size:262144}") int chunkSize,
+                                  @Value("${hr.documents.crypto-threads:0}") int threads) {
+        // "id:base64 key,id:base64 key", previous keys stay listed until re-encryption has run
+        for (String entry : masterKeys.split(",")) {
+            String[] parts = entry.trim().split(":", 2);
+            int id = Integer.parseInt(parts[0].trim());
+            if (id < 0 || id > 255) {
+                throw new IllegalArgumentException("Master key ids must be between 0 and 255");
+            }
+            this.masterKeys.put(id, new SecretKeySpec(Base64.getDecoder().decode(parts[1].trim()), "AES"));
+        }
+        if (!this.masterKeys.containsKey(activeKeyId)) {
+            throw new IllegalArgumentException("hr.documents.active-master-key " + activeKeyId + " is not in hr.documents.master-keys");
+        }
+        this.activeKeyId = activeKeyId;
+        this.chunkSize = chunkSize;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.window = 2 * poolSize;
+        AtomicInteger count = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "document-crypto-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int activeKeyId() {
+        return activeKeyId;
+    }
+
+    /**
+     * Writer: encrypts plain into out (header first) and returns the number of
+     * bytes read from plain. plain is read sequentially on the calling thread;
+     * encoding (0-255) is recorded in the header.
+     */
+    public long encrypt(InputStream plain, OutputStream out, int encoding) throws IOException {
+        SecretKey dataKey = newDataKey();
+        byte[] noncePrefix = new byte[NONCE_PREFIX_LENGTH];
+        random.nextBytes(noncePrefix);
+        Header header = new Header(3, activeKeyId, encoding, chunkSize, wrap(dataKey, activeKeyId), noncePrefix);
+        header.write(out);
+
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        long size = 0;
+        try {
+            byte[] chunk = plain.readNBytes(chunkSize);
+            for (long index = 0; ; index++) {
+                // a full chunk is the last one only if nothing follows it
+                byte[] next = chunk.length == chunkSize ? plain.readNBytes(chunkSize) : null;
+                boolean last = next == null || next.length == 0;
+                byte[] input = chunk;
+                long chunkIndex = index;
+                inFlight.add(workers.submit(() -> seal(dataKey, header, chunkIndex, last, input)));
+                size += chunk.length;
+                while (inFlight.size() >= window) {
+                    out.write(await(inFlight.poll()));
+                }
+                if (last) {
+                    break;
+                }
+                chunk = next;
+            }
+            while (!inFlight.isEmpty()) {
+                out.write(await(inFlight.poll()));
+            }
+            return size;
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    /** True for the magic of an envelope body (either version). */
+    public static boolean isEnvelope(byte[] magic) {
+        return Arrays.equals(magic, MAGIC) || Arrays.equals(magic, MAGIC_V2);
+    }
+
+    /** Reads the header of a body whose magic (see isEnvelope) has just been read from channel. */
+    public Header readHeader(FileChannel channel, byte[] magic) throws IOException {
+        return Header.read(Channels.newInputStream(channel), Arrays.equals(magic, MAGIC_V2) ? 2 : 3);
+    }
+
+    /**
+     * Reader: plain text from offset on. The channel is positioned after the
+     * header; it is owned (and closed) by the returned stream.
+     */
+    public InputStream decrypt(FileChannel channel, Header header, long offset) throws IOException {
+        SecretKey dataKey = unwrap(header);
+        return new ChunkReader(channel, header, dataKey, offset);
+    }
+
+    /** True if the body was written with another master key than the active one. */
+    public boolean needsRewrap(Header header) {
+        return header.keyId() != activeKeyId;
+    }
+
+    /**
+     * Master key rotation: writes the same chunks under a header whose data
+     * key is wrapped by the active master key. Nothing is re-encrypted.
+     */
+    public void rewrap(FileChannel channel, Header header, OutputStream out) throws IOException {
+        SecretKey dataKey = unwrap(header);
+        header.rewrapped(activeKeyId, wrap(dataKey, activeKeyId)).write(out);
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = header.length();
+        while (position < channel.size()) {
+            position += channel.transferTo(position, channel.size() - position, target);
+        }
+    }
+
+    private byte[] seal(SecretKey dataKey, Header header, long index, boolean last, byte[] chunk) throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.ENCRYPT_MODE, dataKey, new GCMParameterSpec(TAG_LENGTH * 8, nonce(header.noncePrefix(), index)));
+        cipher.updateAAD(associatedData(header, index, last));
+        return cipher.doFinal(chunk);
+    }
+
+    private byte[] open(SecretKey dataKey, Header header, long index, boolean last, byte[] sealed) throws GeneralSecurityException {
+        Cipher cipher = ciphers.get();
+        cipher.init(Cipher.DECRYPT_MODE, dataKey, new GCMParameterSpec(TAG_LENGTH * 8, nonce(header.noncePrefix(), index)));
+        cipher.updateAAD(associatedData(header, index, last));
+        return cipher.doFinal(sealed);
+    }
+
+    private static byte[] nonce(byte[] prefix, long index) {
+        return ByteBuffer.allocate(NONCE_PREFIX_LENGTH + 4).put(prefix).putInt((int) index).array();
+    }
+
+    private static byte[] associatedData(Header header, long index, boolean last) {
+        ByteBuffer data = ByteBuffer.allocate(header.version() == 2 ? 9 : 10).putLong(index).put((byte) (last ? 1 : 0));
+        if (header.version() != 2) {
+            data.put((byte) header.encoding());
+        }
+        return data.array();
+    }
+
+    private SecretKey newDataKey() {
+        try {
+            KeyGenerator generator = KeyGenerator.getInstance("AES");
+            generator.init(256, random);
+            return generator.generateKey();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] wrap(SecretKey dataKey, int keyId) {
+        try {
+            Cipher cipher = Cipher.getInstance("AESWrap");
+            cipher.init(Cipher.WRAP_MODE, masterKeys.get(keyId));
+            return cipher.wrap(dataKey);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot wrap document key", e);
+        }
+    }
+
+    private SecretKey unwrap(Header header) throws IOException {
+        SecretKey masterKey = masterKeys.get(header.keyId());
+        if (masterKey == null) {
+            throw new IOException("Document body is encrypted with unknown master key " + header.keyId());
+        }
+        try {
+            Cipher cipher = Cipher.getInstance("AESWrap");
+            cipher.init(Cipher.UNWRAP_MODE, masterKey);
+            return (SecretKey) cipher.unwrap(header.wrappedKey(), "AES", Cipher.SECRET_KEY);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("Cannot unwrap document key", e);
+        }
+    }
+
+    private static byte[] await(Future<byte[]> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while processing a document chunk", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Document chunk failed authentication or encryption", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Reads sealed chunks in order and keeps up to window of them decrypting
+     * ahead of the consumer.
+     */
+    private final class ChunkReader extends InputStream {
+        private final FileChannel channel;
+        private final Header header;
+        private final SecretKey dataKey;
+        private final long dataStart;
+        private final long chunkCount;
+        private final Deque<Future<byte[]>> ahead = new ArrayDeque<>();
+        private long nextChunk;
+        private byte[] current = new byte[0];
+        private int position;
+
+        ChunkReader(FileChannel channel, Header header, SecretKey dataKey, long offset) throws IOException {
+            this.channel = channel;
+            this.header = header;
+            this.dataKey = dataKey;
+            this.dataStart = header.length();
+            long sealedChunk = header.chunkSize() + TAG_LENGTH;
+            long sealedLength = channel.size() - dataStart;
+            if (sealedLength < TAG_LENGTH || sealedLength % sealedChunk != 0 && sealedLength % sealedChunk < TAG_LENGTH) {
+                throw new IOException("Truncated document body");
+            }
+            this.chunkCount = (sealedLength + sealedChunk - 1) / sealedChunk;
+            this.nextChunk = offset / header.chunkSize();
+            fill();
+            skipInChunk((int) (offset % header.chunkSize()));
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (position == current.length) {
+                if (ahead.isEmpty()) {
+                    return -1;
+                }
+                current = await(ahead.poll());
+                position = 0;
+                fill();
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ahead.forEach(future -> future.cancel(true));
+            ahead.clear();
+            channel.close();
+        }
+
+        private void skipInChunk(int skip) throws IOException {
+            if (skip > 0 && !ahead.isEmpty()) {
+                current = await(ahead.poll());
+                position = Math.min(skip, current.length);
+                fill();
+            }
+        }
+
+        private void fill() throws IOException {
+            while (ahead.size() < window && nextChunk < chunkCount) {
+                long index = nextChunk++;
+                long start = dataStart + index * (header.chunkSize() + TAG_LENGTH);
+                ByteBuffer sealed = ByteBuffer.allocate((int) Math.min(header.chunkSize() + TAG_LENGTH, channel.size() - start));
+                while (sealed.hasRemaining()) {
+                    if (channel.read(sealed, start + sealed.position()) == -1) {
+                        throw new IOException("Truncated document body");
+                    }
+                }
+                boolean last = index == chunkCount - 1;
+                ahead.add(workers.submit(() -> open(dataKey, header, index, last, sealed.array())));
+            }
+        }
+    }
+}
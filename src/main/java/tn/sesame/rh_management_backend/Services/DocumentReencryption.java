@@ -0,0 +1,98 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.Repositories.DocumentBlobRepository;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Converts stored bodies to the current encryption: HRD1 (AES/CTR under the
+ * static key) to HRD2 envelopes, and HRD2 envelopes wrapped by a retired
+ * master key to the active one (only the header changes).
+ *
+ * Runs on demand (admin endpoint, in the background, see runStatus()) or on
+ * hr.documents.reencryption-cron, off by default, hr.documents.migration-batch-size
+ * bodies per page with a pause in between. Bodies that fail are logged and left as they are, a later run
+ * retries them. Inline and 32-character bodies are left to
+ * DocumentContentMigration, which writes them as HRD2 already.
+ */
+@Slf4j
+@Service
+public class DocumentReencryption {
+
+    private static final String REENCRYPTED = "reencrypted";
+    private static final String SKIPPED = "skipped";
+    private static final String FAILED = "failed";
+
+    private final DocumentBlobRepository blobRepository;
+    private final DocumentContentStore contentStore;
+    private final int batchSize;
+    private final long batchPauseMs;
+
+    private final BackgroundJob job = new BackgroundJob("re-encryption",
+            "A re-encryption is already in progress", REENCRYPTED, SKIPPED, FAILED);
+
+    public DocumentReencryption(DocumentBlobRepository blobRepository,
+                                DocumentContentStore contentStore,
+                                @Value("${hr.documents.migration-batch-size:100}") int batchSize,
+                                @Value("${hr.documents.migration-pause-ms:100}") long batchPauseMs) {
+        this.blobRepository = blobRepository;
+        this.contentStore = contentStore;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runNow() {
+        return job.start(this::run);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runStatus() {
+        return job.status();
+    }
+
+    @Scheduled(cron = "${hr.documents.reencryption-cron:-}", zone = "UTC")
+    public void scheduledRun() {
+        try {
+            job.run(this::run);
+        } catch (tn.sesame.rh_management_backend.exceptions.ConflictException e) {
+            log.info("Skipping scheduled re-encryption: {}", e.getMessage());
+        }
+    }
+
+    private void run() {
+        try {
+            String after = "";
+            List<String> keys;
+            do {
+                keys = blobRepository.findIdsAfter(after, PageRequest.of(0, batchSize));
+                for (String key : keys) {
+                    try {
+                        job.increment(contentStore.reencrypt(key) ? REENCRYPTED : SKIPPED);
+                    } catch (IOException | RuntimeException e) {
+                        job.increment(FAILED);
+                        log.warn("Cannot re-encrypt document body {}", key, e);
+                    }
+                    after = key;
+                }
+                if (keys.size() == batchSize) {
+                    Thread.sleep(batchPauseMs);
+                }
+            } while (keys.size() == batchSize);
+
+            log.info("Document re-encryption: {} re-encrypted, {} skipped, {} failed",
+                    job.get(REENCRYPTED), job.get(SKIPPED), job.get(FAILED));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Re-encryption interrupted");
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Events.DocumentChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index from document tag to the documents carrying it.
+ *
+ * Every indexed document gets an ordinal; each tag keeps a CompressedBitmap
+ * of ordinals, and so do the access dimensions (non-confidential documents,
+ * documents per owner). A query is a handful of bitmap operations: the
+ * caller's visible set, AND every "all" tag, AND the union of the "any" tags,
+ * AND NOT every "none" tag. Facet counts are the intersection of the result
+ * with each tag, so they only count documents the caller may see.
+ *
+ * Tags are matched case-insensitively. The index follows uploads and deletes
+ * (DocumentChangedEvent) and documents archived with their owner
+ * (removeOwners); freed ordinals are reclaimed by compaction. The server is
+ * already serving while the startup rebuild reads the database, so changes
+ * arriving meanwhile are buffered and replayed on top of what it read.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DocumentTagIndex {
+
+    private final HRDocumentRepository documentRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> tagIds = new HashMap<>();
+    private final List<String> tagNames = new ArrayList<>();
+    private final List<CompressedBitmap> tagBitmaps = new ArrayList<>();
+    private final Map<UUID, Integer> ordinalById = new HashMap<>();
+    private final Map<UUID, CompressedBitmap> byOwner = new HashMap<>();
+    private CompressedBitmap live = new CompressedBitmap();
+    private CompressedBitmap nonConfidential = new CompressedBitmap();
+
+    // Per-ordinal columns, indexed by ordinal
+    private UUID[] ids = new UUID[1024];
+    private UUID[] owners = new UUID[1024];
+    private DocumentAccessLevel[] levels = new DocumentAccessLevel[1024];
+    private int[] tagStart = new int[1025];
+    // tag ids of ordinal n at tagPool[tagStart[n] .. tagStart[n + 1]), appended in ordinal order
+    private int[] tagPool = new int[4096];
+    private int size;
+    private int deleted;
+    // changes applied while rebuild() reads, null when no rebuild runs; replaying one is idempotent
+    private List<Runnable> pendingChanges;
+
+    /**
+     * Who is asking: everything (HR, admin), or the documents of ownerId
+     * (null if the caller has no employee record) plus, for managers, every
+     * non-confidential one. Mirrors HRDocumentService.canAccessDocument.
+     */
+    public record Access(boolean everything, boolean nonConfidential, UUID ownerId) {
+        public static final Access EVERYTHING = new Access(true, true, null);
+    }
+
+    /** Matching documents (total, the first ids in index order) and tag counts over all of them. */
+    public record Result(int total, List<UUID> documentIds, Map<String, Integer> facets) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // a change committed before this point is in the rows read below or buffered (event not handled yet)
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<HRDocumentRepository.TagIndexRow> documents;
+        Map<UUID, List<String>> tags = new HashMap<>();
+        try {
+            documents = documentRepository.findTagIndexRows();
+            for (HRDocumentRepository.TagRow row : documentRepository.findTagRows()) {
+                tags.computeIfAbsent(row.getId(), id -> new ArrayList<>()).add(row.getTag());
+            }
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        int replayed;
+        int tagCount;
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (HRDocumentRepository.TagIndexRow row : documents) {
+                add(row.getId(), row.getLevel(), row.getOwnerId(), tags.getOrDefault(row.getId(), List.of()));
+            }
+            replayed = pendingChanges.size();
+            pendingChanges.forEach(Runnable::run);
+            pendingChanges = null;
+            compactIfNeeded();
+            tagCount = tagNames.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Document tag index built with {} documents and {} tags ({} changes replayed)",
+                documents.size(), tagCount, replayed);
+    }
+
+    @TransactionalEventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            remove(event.documentId());
+        } else {
+            upsert(event.documentId(), event.level(), event.ownerId(), event.tags());
+        }
+    }
+
+    public void upsert(UUID id, DocumentAccessLevel level, UUID ownerId, Collection<String> tags) {
+        List<String> copy = List.copyOf(normalize(tags));
+        apply(() -> {
+            unindex(id);
+            add(id, level, ownerId, copy);
+        });
+    }
+
+    public void remove(UUID id) {
+        apply(() -> unindex(id));
+    }
+
+    /** Drops every document of these owners (archived employees, whose documents are bulk-deleted). */
+    public void removeOwners(Collection<UUID> ownerIds) {
+        List<UUID> copy = List.copyOf(ownerIds);
+        apply(() -> {
+            for (UUID ownerId : copy) {
+                CompressedBitmap owned = byOwner.get(ownerId);
+                if (owned != null) {
+                    for (int ordinal : owned.first(Integer.MAX_VALUE)) {
+                        unindex(ids[ordinal]);
+                    }
+                }
+            }
+        });
+    }
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tag query.
+     *
+     * @param all        tags every match carries (AND)
+     * @param any        if not empty, a match carries at least one of them (OR)
+     * @param none       tags no match carries (NOT)
+     * @param access     what the caller may see, applied before counting
+     * @param limit      number of document ids returned
+     * @param facetLimit number of facets returned, largest counts first
+     */
+    public Result query(Collection<String> all, Collection<String> any, Collection<String> none,
+                        Access access, int limit, int facetLimit) {
+        lock.readLock().lock();
+        try {
+            // most selective first, so the intermediate results stay small
+            List<CompressedBitmap> required = new ArrayList<>();
+            for (String tag : normalize(all)) {
+                Integer tagId = tagIds.get(tag);
+                if (tagId == null) {
+                    return new Result(0, List.of(), Map.of());
+                }
+                required.add(tagBitmaps.get(tagId));
+            }
+            required.sort(Comparator.comparingInt(CompressedBitmap::cardinality));
+            CompressedBitmap result = required.isEmpty() ? visible(access) : required.get(0);
+            for (CompressedBitmap bitmap : required.subList(Math.min(1, required.size()), required.size())) {
+                result = result.and(bitmap);
+            }
+            if (!required.isEmpty()) {
+                result = result.and(visible(access));
+            }
+            Set<String> anyTags = normalize(any);
+            if (!anyTags.isEmpty()) {
+                CompressedBitmap union = new CompressedBitmap();
+                for (String tag : anyTags) {
+                    Integer tagId = tagIds.get(tag);
+                    if (tagId != null) {
+                        union = union.or(tagBitmaps.get(tagId));
+                    }
+                }
+                result = result.and(union);
+            }
+            for (String tag : normalize(none)) {
+                Integer tagId = tagIds.get(tag);
+                if (tagId != null) {
+                    result = result.andNot(tagBitmaps.get(tagId));
+                }
+            }
+
+            List<UUID> documentIds = new ArrayList<>();
+            for (int ordinal : result.first(limit)) {
+                documentIds.add(ids[ordinal]);
+            }
+            return new Result(result.cardinality(), documentIds, facets(result, facetLimit));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- internals (read lock held)
+
+    private CompressedBitmap visible(Access access) {
+        if (access.everything()) {
+            return live;
+        }
+        CompressedBitmap owned = access.ownerId() != null ? byOwner.get(access.ownerId()) : null;
+        if (access.nonConfidential()) {
+            return owned != null ? nonConfidential.or(owned) : nonConfidential;
+        }
+        return owned != null ? owned : new CompressedBitmap();
+    }
+
+    /**
+     * Counts the tags of each match (a sequential pass over tagPool), or, when
+     * that is more work, intersects the result with every tag bitmap.
+     */
+    private Map<String, Integer> facets(CompressedBitmap result, int facetLimit) {
+        int[] counts = new int[tagNames.size()];
+        long perDocument = (long) result.cardinality() * tagStart[size] / Math.max(size, 1);
+        long perTag = (long) counts.length * result.groups() * 1024;
+        if (perDocument <= perTag) {
+            int[] start = tagStart;
+            int[] pool = tagPool;
+            result.forEach(ordinal -> {
+                for (int i = start[ordinal]; i < start[ordinal + 1]; i++) {
+                    counts[pool[i]]++;
+                }
+            });
+        } else {
+            for (int tagId = 0; tagId < counts.length; tagId++) {
+                counts[tagId] = result.andCardinality(tagBitmaps.get(tagId));
+            }
+        }
+        Integer[] order = new Integer[counts.length];
+        int nonZero = 0;
+        for (int tagId = 0; tagId < counts.length; tagId++) {
+            if (counts[tagId] > 0) {
+                order[nonZero++] = tagId;
+            }
+        }
+        Arrays.sort(order, 0, nonZero, (a, b) -> counts[b] != counts[a]
+                ? Integer.compare(counts[b], counts[a]) : tagNames.get(a).compareTo(tagNames.get(b)));
+        Map<String, Integer> facets = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(nonZero, facetLimit); i++) {
+            facets.put(tagNames.get(order[i]), counts[order[i]]);
+        }
+        return facets;
+    }
+
+    // ---------------------------------------------------------------- internals (write lock held)
+
+    private void add(UUID id, DocumentAccessLevel level, UUID ownerId, Collection<String> tags) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            owners = Arrays.copyOf(owners, capacity);
+            levels = Arrays.copyOf(levels, capacity);
+            tagStart = Arrays.copyOf(tagStart, capacity + 1);
+        }
+        int ordinal = size++;
+        Set<String> normalized = normalize(tags);
+        int next = tagStart[ordinal];
+        if (next + normalized.size() > tagPool.length) {
+            tagPool = Arrays.copyOf(tagPool, Math.max(tagPool.length * 2, next + normalized.size()));
+        }
+        for (String tag : normalized) {
+            int tagId = tagIds.computeIfAbsent(tag, t -> {
+                tagNames.add(t);
+                tagBitmaps.add(new CompressedBitmap());
+                return tagNames.size() - 1;
+            });
+            tagBitmaps.get(tagId).add(ordinal);
+            tagPool[next++] = tagId;
+        }
+        tagStart[ordinal + 1] = next;
+        ids[ordinal] = id;
+        owners[ordinal] = ownerId;
+        levels[ordinal] = level;
+        ordinalById.put(id, ordinal);
+        live.add(ordinal);
+        if (level != DocumentAccessLevel.CONFIDENTIAL) {
+            nonConfidential.add(ordinal);
+        }
+        if (ownerId != null) {
+            byOwner.computeIfAbsent(ownerId, o -> new CompressedBitmap()).add(ordinal);
+        }
+    }
+
+    private void unindex(UUID id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        for (int i = tagStart[ordinal]; i < tagStart[ordinal + 1]; i++) {
+            tagBitmaps.get(tagPool[i]).remove(ordinal);
+        }
+        live.remove(ordinal);
+        nonConfidential.remove(ordinal);
+        UUID ownerId = owners[ordinal];
+        if (ownerId != null) {
+            CompressedBitmap owned = byOwner.get(ownerId);
+            if (owned != null && owned.remove(ordinal) && owned.isEmpty()) {
+                byOwner.remove(ownerId);
+            }
+        }
+        // the ordinal and its tagPool entries stay unused until compaction
+        ids[ordinal] = null;
+        deleted++;
+    }
+
+    // renumbers the live documents and drops tags nobody carries any more
+    private void compactIfNeeded() {
+        if (deleted < 1024 || deleted * 4 < size) {
+            return;
+        }
+        UUID[] oldIds = ids;
+        UUID[] oldOwners = owners;
+        DocumentAccessLevel[] oldLevels = levels;
+        int[] oldStart = tagStart;
+        int[] oldPool = tagPool;
+        List<String> oldNames = new ArrayList<>(tagNames);
+        int oldSize = size;
+        clear();
+        for (int ordinal = 0; ordinal < oldSize; ordinal++) {
+            if (oldIds[ordinal] != null) {
+                List<String> tags = new ArrayList<>();
+                for (int i = oldStart[ordinal]; i < oldStart[ordinal + 1]; i++) {
+                    tags.add(oldNames.get(oldPool[i]));
+                }
+                add(oldIds[ordinal], oldLevels[ordinal], oldOwners[ordinal], tags);
+            }
+        }
+    }
+
+    private void clear() {
+        tagIds.clear();
+        tagNames.clear();
+        tagBitmaps.clear();
+        ordinalById.clear();
+        byOwner.clear();
+        live = new CompressedBitmap();
+        nonConfidential = new CompressedBitmap();
+        ids = new UUID[1024];
+        owners = new UUID[1024];
+        levels = new DocumentAccessLevel[1024];
+        tagStart = new int[1025];
+        tagPool = new int[4096];
+        size = 0;
+        deleted = 0;
+    }
+
+    private static Set<String> normalize(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.isBlank()) {
+                normalized.add(tag.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,361 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.Entities.DocumentUploadSession;
+import tn.sesame.rh_management_backend.Repositories.DocumentUploadSessionRepository;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+import tn.sesame.rh_management_backend.dto.HRDocumentDTO;
+import tn.sesame.rh_management_backend.dto.UploadSessionDto;
+import tn.sesame.rh_management_backend.dto.UploadSessionRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Resumable document uploads.
+ *
+ * A session fixes the document metadata and cuts the body into chunks of
+ * chunkSize bytes. Chunks are PUT in any order, in parallel, and may be sent
+ * again: each one is written to a temporary file and moved to
+ * <staging-dir>/<session>/<n>.part once complete, so the set of received
+ * chunks is simply the set of .part files. Commit reads the parts in order as
+ * one stream through the regular streaming upload (checksum + encryption into
+ * the DocumentContentStore) and removes the session.
+ *
+ * Sessions without a new chunk for hr.uploads.session-ttl are deleted by a
+ * scheduled cleanup. Staging is local: the chunks of a session must reach the
+ * same instance.
+ */
+@Slf4j
+@Service
+public class DocumentUploadService {
+
+    private static final String PART = ".part";
+
+    private final DocumentUploadSessionRepository sessionRepository;
+    private final EmployeeRepository employeeRepository;
+    private final HRDocumentRepository documentRepository;
+    private final HRDocumentService documentService;
+    private final Path stagingDir;
+    private final int defaultChunkSize;
+    private final int maxChunkSize;
+    private final long maxSize;
+    private final Duration sessionTtl;
+
+    // sessions being assembled, chunks are refused meanwhile
+    private final Set<UUID> committing = ConcurrentHashMap.newKeySet();
+
+    public DocumentUploadService(DocumentUploadSessionRepository sessionRepository,
+                                 EmployeeRepository employeeRepository,
+                                 HRDocumentRepository documentRepository,
+                                 HRDocumentService documentService,
+                                 @Value("${hr.uploads.staging-dir:data/uploads}") Path stagingDir,
+                                 @Value("${hr.uploads.chunk-size:5242880}") int defaultChunkSize,
+                                 @Value("${hr.uploads.max-chunk-size:67108864}") int maxChunkSize,
+                                 @Value("${hr.uploads.max-size:2147483648}") long maxSize,
+                                 @Value("${hr.uploads.session-ttl:24h}") Duration sessionTtl) {
+        this.sessionRepository = sessionRepository;
+        this.employeeRepository = employeeRepository;
+        this.documentRepository = documentRepository;
+        this.documentService = documentService;
+        this.stagingDir = stagingDir;
+        this.defaultChunkSize = defaultChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.maxSize = maxSize;
+        this.sessionTtl = sessionTtl;
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public UploadSessionDto createSession(UploadSessionRequest request) throws IOException {
+        if (request.totalSize() > maxSize) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Document exceeds the maximum size of " + maxSize + " bytes");
+        }
+        int chunkSize = request.chunkSize() != null ? request.chunkSize() : defaultChunkSize;
+        if (chunkSize > maxChunkSize) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Chunk size cannot exceed " + maxChunkSize + " bytes");
+        }
+        long chunkCount = (request.totalSize() + chunkSize - 1) / chunkSize;
+        if (chunkCount > 100_000) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Chunk size too small for this document");
+        }
+        // same checks as the commit will make, before anything is sent
+        if (!employeeRepository.existsById(request.employeeId())) {
+            throw new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found");
+        }
+        if (documentRepository.existsByDocumentName(request.documentName())) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("A document named '" + request.documentName() + "' already exists");
+        }
+
+        DocumentUploadSession session = sessionRepository.save(DocumentUploadSession.builder()
+                .documentName(request.documentName())
+                .contentType(request.contentType())
+                .level(request.level())
+                .employeeId(request.employeeId())
+                .tags(request.tags() != null ? String.join(",", request.tags()) : null)
+                .totalSize(request.totalSize())
+                .chunkSize(chunkSize)
+                .chunkCount((int) chunkCount)
+                .createdBy(currentUser().getName())
+                .createdAt(Instant.now())
+                .build());
+        Files.createDirectories(directory(session.id()));
+        return toDto(session);
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public UploadSessionDto getSession(UUID id) throws IOException {
+        return toDto(ownedSession(id));
+    }
+
+    /**
+     * Stores chunk n. The body must have the exact chunk length (the last one
+     * holds the remainder); a chunk sent again replaces the previous copy.
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public void putChunk(UUID id, int index, long contentLength, InputStream content) throws IOException {
+        DocumentUploadSession session = ownedSession(id);
+        if (index < 0 || index >= session.chunkCount()) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Chunk number must be between 0 and " + (session.chunkCount() - 1));
+        }
+        if (committing.contains(id)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Upload is being committed");
+        }
+        long expected = chunkLength(session, index);
+        if (contentLength >= 0 && contentLength != expected) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Chunk " + index + " must be " + expected + " bytes");
+        }
+
+        Path directory = directory(id);
+        if (!Files.isDirectory(directory)) {
+            throw new tn.sesame.rh_management_backend.exceptions.NotFoundException("Upload session not found");
+        }
+        Path tmp = Files.createTempFile(directory, index + "-", ".tmp");
+        try {
+            long written = 0;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                byte[] buffer = new byte[DocumentContentStore.BUFFER_SIZE];
+                int read;
+                // reads at most one byte past the expected length to detect an oversized chunk
+                while (written <= expected
+                        && (read = content.read(buffer, 0, (int) Math.min(buffer.length, expected + 1 - written))) != -1) {
+                    out.write(buffer, 0, read);
+                    written += read;
+                }
+            }
+            if (written != expected) {
+                throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Chunk " + index + " must be " + expected + " bytes");
+            }
+            Files.move(tmp, directory.resolve(index + PART), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Assembles the chunks into the document, then drops the session. */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public HRDocumentDTO commit(UUID id) throws IOException {
+        DocumentUploadSession session = ownedSession(id);
+        if (!committing.add(id)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Upload is already being committed");
+        }
+        try {
+            Path directory = directory(id);
+            List<Integer> missing = missingChunks(session, receivedChunks(directory));
+            if (!missing.isEmpty()) {
+                throw new tn.sesame.rh_management_backend.exceptions.ConflictException(missing.size() + " chunk(s) missing, first is " + missing.get(0));
+            }
+
+            Set<String> tags = session.tags() == null || session.tags().isEmpty()
+                    ? Set.of() : new HashSet<>(Arrays.asList(session.tags().split(",")));
+            HRDocumentDTO document;
+            try (InputStream content = assembled(directory, session.chunkCount())) {
+                document = documentService.uploadDocument(session.documentName(), session.contentType(),
+                        session.level(), session.employeeId(), tags, content);
+            }
+            delete(session);
+            return document;
+        } finally {
+            committing.remove(id);
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public void abort(UUID id) {
+        delete(ownedSession(id));
+    }
+
+    @Scheduled(fixedDelayString = "${hr.uploads.cleanup-ms:900000}")
+    public void removeAbandonedSessions() {
+        Instant now = Instant.now();
+        Set<UUID> known = new HashSet<>();
+        for (DocumentUploadSession session : sessionRepository.findAll()) {
+            known.add(session.id());
+            if (!committing.contains(session.id()) && expiresAt(session).isBefore(now)) {
+                log.info("Removing abandoned upload session {} ({})", session.id(), session.documentName());
+                delete(session);
+            }
+        }
+        // directories left behind without a session row
+        if (Files.isDirectory(stagingDir)) {
+            try (DirectoryStream<Path> directories = Files.newDirectoryStream(stagingDir)) {
+                for (Path directory : directories) {
+                    UUID id = parseId(directory.getFileName().toString());
+                    if (id != null && !known.contains(id)
+                            && Files.getLastModifiedTime(directory).toInstant().plus(sessionTtl).isBefore(now)) {
+                        deleteDirectory(directory);
+                    }
+                }
+            } catch (IOException e) {
+                log.warn("Cannot scan upload staging directory {}", stagingDir, e);
+            }
+        }
+    }
+
+    private DocumentUploadSession ownedSession(UUID id) {
+        DocumentUploadSession session = sessionRepository.findById(id)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Upload session not found"));
+        Authentication auth = currentUser();
+        boolean admin = auth.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+        if (!admin && !session.createdBy().equals(auth.getName())) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return session;
+    }
+
+    private void delete(DocumentUploadSession session) {
+        sessionRepository.delete(session);
+        deleteDirectory(directory(session.id()));
+    }
+
+    private void deleteDirectory(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Cannot delete upload staging directory {}", directory, e);
+        }
+    }
+
+    // the parts in order, each file opened only when the previous one is consumed
+    private static InputStream assembled(Path directory, int chunkCount) {
+        Enumeration<InputStream> parts = new Enumeration<>() {
+            int next;
+
+            @Override
+            public boolean hasMoreElements() {
+                return next < chunkCount;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                try {
+                    return Files.newInputStream(directory.resolve(next++ + PART));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        return new SequenceInputStream(parts);
+    }
+
+    private UploadSessionDto toDto(DocumentUploadSession session) throws IOException {
+        Path directory = directory(session.id());
+        SortedSet<Integer> received = receivedChunks(directory);
+        long receivedBytes = 0;
+        for (int index : received) {
+            receivedBytes += chunkLength(session, index);
+        }
+        return new UploadSessionDto(session.id(), session.documentName(), session.totalSize(), session.chunkSize(),
+                session.chunkCount(), List.copyOf(received), missingChunks(session, received), receivedBytes,
+                expiresAt(session));
+    }
+
+    private SortedSet<Integer> receivedChunks(Path directory) throws IOException {
+        SortedSet<Integer> received = new TreeSet<>();
+        if (!Files.isDirectory(directory)) {
+            return received;
+        }
+        try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory, "*" + PART)) {
+            for (Path part : parts) {
+                String name = part.getFileName().toString();
+                received.add(Integer.parseInt(name.substring(0, name.length() - PART.length())));
+            }
+        }
+        return received;
+    }
+
+    private static List<Integer> missingChunks(DocumentUploadSession session, Set<Integer> received) {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.chunkCount(); i++) {
+            if (!received.contains(i)) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+
+    // last activity is the newest chunk (or the creation when there is none)
+    private Instant expiresAt(DocumentUploadSession session) {
+        Instant lastActivity = session.createdAt();
+        Path directory = directory(session.id());
+        if (Files.isDirectory(directory)) {
+            try (DirectoryStream<Path> parts = Files.newDirectoryStream(directory)) {
+                for (Path part : parts) {
+                    FileTime modified = Files.getLastModifiedTime(part);
+                    if (modified.toInstant().isAfter(lastActivity)) {
+                        lastActivity = modified.toInstant();
+                    }
+                }
+            } catch (IOException e) {
+                log.debug("Cannot read upload staging directory {}", directory, e);
+            }
+        }
+        return lastActivity.plus(sessionTtl);
+    }
+
+    private static long chunkLength(DocumentUploadSession session, int index) {
+        long start = (long) index * session.chunkSize();
+        return Math.min(session.chunkSize(), session.totalSize() - start);
+    }
+
+    private Path directory(UUID id) {
+        return stagingDir.resolve(id.toString());
+    }
+
+    private static UUID parseId(String name) {
+        try {
+            return UUID.fromString(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static Authentication currentUser() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
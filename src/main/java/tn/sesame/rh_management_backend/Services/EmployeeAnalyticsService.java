@@ -0,0 +1,23 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationRequest;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationResponse;
+
+/**
+ * Ad-hoc HR aggregations answered from the in-memory column store,
+ * without loading Employee entities.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeAnalyticsService {
+
+    private final EmployeeColumnStore columnStore;
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public EmployeeAggregationResponse aggregate(EmployeeAggregationRequest request) {
+        return columnStore.aggregate(request);
+    }
+}
@@ -0,0 +1,157 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.ArchivedEmployee;
+import tn.sesame.rh_management_backend.Repositories.ArchivedEmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.ArchivedHRDocumentRepository;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.dto.ArchivedDocumentDto;
+import tn.sesame.rh_management_backend.dto.ArchivedEmployeeDto;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Archive tier for departed employees.
+ *
+ * Offboarded employees whose departure is older than hr.archive.retention-days
+ * are moved to archived_employees / archived_hr_documents by a nightly job,
+ * hr.archive.batch-size employees per transaction with a pause between batches
+ * so the job never holds long locks on the hot tables. A manual run (admin
+ * endpoint) is started in the background, its progress is read with runStatus().
+ */
+@Slf4j
+@Service
+public class EmployeeArchiveService {
+
+    private static final String ARCHIVED = "archivedEmployees";
+
+    private final EmployeeRepository employeeRepository;
+    private final ArchivedEmployeeRepository archivedEmployeeRepository;
+    private final ArchivedHRDocumentRepository archivedDocumentRepository;
+    private final ArchiveBatchWriter batchWriter;
+    private final DocumentTagIndex tagIndex;
+    private final int retentionDays;
+    private final int batchSize;
+    private final long batchPauseMs;
+    private final int maxBatches;
+
+    private final BackgroundJob job = new BackgroundJob("employee-archive", "An archive run is already in progress", ARCHIVED);
+
+    public EmployeeArchiveService(EmployeeRepository employeeRepository,
+                                  ArchivedEmployeeRepository archivedEmployeeRepository,
+                                  ArchivedHRDocumentRepository archivedDocumentRepository,
+                                  ArchiveBatchWriter batchWriter,
+                                  DocumentTagIndex tagIndex,
+                                  @Value("${hr.archive.retention-days:365}") int retentionDays,
+                                  @Value("${hr.archive.batch-size:200}") int batchSize,
+                                  @Value("${hr.archive.batch-pause-ms:200}") long batchPauseMs,
+                                  @Value("${hr.archive.max-batches-per-run:500}") int maxBatches) {
+        this.employeeRepository = employeeRepository;
+        this.archivedEmployeeRepository = archivedEmployeeRepository;
+        this.archivedDocumentRepository = archivedDocumentRepository;
+        this.batchWriter = batchWriter;
+        this.tagIndex = tagIndex;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.batchPauseMs = batchPauseMs;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(cron = "${hr.archive.cron:0 30 2 * * *}", zone = "UTC")
+    public void scheduledRun() {
+        try {
+            job.run(this::archiveDepartedEmployees);
+        } catch (tn.sesame.rh_management_backend.exceptions.ConflictException e) {
+            log.info("Skipping scheduled archive run: {}", e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runNow() {
+        return job.start(this::archiveDepartedEmployees);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public JobStatusDto runStatus() {
+        return job.status();
+    }
+
+    private void archiveDepartedEmployees() {
+        try {
+            LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+            for (int batch = 0; batch < maxBatches; batch++) {
+                // archived rows leave the table, so the first page is always the next batch
+                List<UUID> ids = employeeRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                job.add(ARCHIVED, batchWriter.archive(ids));
+                // the batch deleted their documents in bulk, without document events
+                tagIndex.removeOwners(ids);
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(batchPauseMs);
+            }
+            if (job.get(ARCHIVED) > 0) {
+                log.info("Archived {} employees departed before {}", job.get(ARCHIVED), cutoff);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public Page<ArchivedEmployeeDto> search(String lastName, int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by("lastName", "firstName"));
+        Page<ArchivedEmployee> employees = lastName == null || lastName.isBlank()
+                ? archivedEmployeeRepository.findAll(pageable)
+                : archivedEmployeeRepository.findByLastNameContainingIgnoreCase(lastName.trim(), pageable);
+        return employees.map(e -> toDto(e, null));
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public ArchivedEmployeeDto getArchivedEmployee(UUID id) {
+        ArchivedEmployee employee = archivedEmployeeRepository.findById(id)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Archived employee not found"));
+        return toDto(employee, documentsOf(id));
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public ArchivedEmployeeDto getArchivedEmployeeByNumber(String employeeNumber) {
+        ArchivedEmployee employee = archivedEmployeeRepository.findByEmployeeNumber(employeeNumber)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Archived employee not found"));
+        return toDto(employee, documentsOf(employee.id()));
+    }
+
+    private List<ArchivedDocumentDto> documentsOf(UUID employeeId) {
+        return archivedDocumentRepository.findMetadataByEmployeeId(employeeId).stream()
+                .map(d -> new ArchivedDocumentDto(d.getId(), d.getDocumentName(), d.getContentType(),
+                        d.getFileSize(), d.getLevel(),
+                        d.getTags() == null || d.getTags().isEmpty() ? List.of() : Arrays.asList(d.getTags().split(",")),
+                        d.getUploadedAt(), d.getCheckSum(), d.getArchivedAt()))
+                .toList();
+    }
+
+    private static ArchivedEmployeeDto toDto(ArchivedEmployee e, List<ArchivedDocumentDto> documents) {
+        return new ArchivedEmployeeDto(e.id(), e.employeeNumber(), e.firstName(), e.lastName(),
+                e.department(), e.jobTitle(), e.contract(), e.salary(), e.hireDate(), e.departedAt(),
+                e.managerId(), e.userEmail(), e.archivedAt(), documents);
+    }
+}
@@ -0,0 +1,378 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Enumerations.AggregationDimension;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationRequest;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar, in-memory copy of the employee attributes used by analytics.
+ *
+ * Rows are stored column by column in primitive arrays:
+ * enum ordinals as bytes (-1 for null), salary as unscaled cents in a long
+ * (NO_SALARY for null), hire date as epoch day plus a precomputed hire year.
+ * Rows are kept dense: a deleted row is replaced by the last row.
+ *
+ * Aggregations split the rows in chunks scanned in parallel on the common
+ * fork/join pool; each chunk fills dense per-group accumulators that are
+ * merged at the end.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeColumnStore {
+
+    static final long NO_SALARY = Long.MIN_VALUE;
+    static final int MIN_YEAR = 1950;
+    static final int MAX_YEAR = 2100;
+
+    private static final int PARALLEL_THRESHOLD = 65_536;
+    private static final int NO_HIRE_DATE = Integer.MIN_VALUE;
+
+    private static final EmployeeDepartment[] DEPARTMENTS = EmployeeDepartment.values();
+    private static final EmployeeJobTitle[] JOB_TITLES = EmployeeJobTitle.values();
+    private static final ContractType[] CONTRACTS = ContractType.values();
+
+    private final EmployeeRepository employeeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, Integer> rowById = new HashMap<>();
+
+    private UUID[] ids = new UUID[1024];
+    private byte[] departments = new byte[1024];
+    private byte[] jobTitles = new byte[1024];
+    private byte[] contracts = new byte[1024];
+    private long[] salaryCents = new long[1024];
+    private int[] hireEpochDays = new int[1024];
+    private short[] hireYears = new short[1024];
+    private int size;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<EmployeeRepository.ColumnRow> rows = employeeRepository.findColumnRows();
+        lock.writeLock().lock();
+        try {
+            rowById.clear();
+            size = 0;
+            for (EmployeeRepository.ColumnRow row : rows) {
+                put(row.getId(), row.getDepartment(), row.getJobTitle(), row.getContract(),
+                        row.getSalary(), row.getHireDate());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Employee column store built with {} rows", rows.size());
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() == ChangeType.DELETED || event.type() == ChangeType.OFFBOARDED) {
+            remove(event.employeeId());
+            return;
+        }
+        Employee e = event.employee();
+        upsert(e.id(), e.department(), e.jobTitle(), e.contract(), e.salary(), e.hireDate());
+    }
+
+    public void upsert(UUID id, EmployeeDepartment department, EmployeeJobTitle jobTitle,
+                       ContractType contract, BigDecimal salary, LocalDate hireDate) {
+        lock.writeLock().lock();
+        try {
+            put(id, department, jobTitle, contract, salary, hireDate);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowById.remove(id);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                departments[row] = departments[last];
+                jobTitles[row] = jobTitles[last];
+                contracts[row] = contracts[last];
+                salaryCents[row] = salaryCents[last];
+                hireEpochDays[row] = hireEpochDays[last];
+                hireYears[row] = hireYears[last];
+                rowById.put(ids[row], row);
+            }
+            ids[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public EmployeeAggregationResponse aggregate(EmployeeAggregationRequest request) {
+        long start = System.nanoTime();
+        List<AggregationDimension> groupBy = request.groupBy() != null ? request.groupBy() : List.of();
+        if (new HashSet<>(groupBy).size() != groupBy.size()) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("groupBy contains duplicate dimensions");
+        }
+
+        Query query = new Query(
+                groupBy.toArray(new AggregationDimension[0]),
+                mask(request.departments()),
+                mask(request.jobTitles()),
+                mask(request.contracts()),
+                request.hiredFrom() != null ? (int) request.hiredFrom().toEpochDay() : Integer.MIN_VALUE,
+                request.hiredTo() != null ? (int) request.hiredTo().toEpochDay() : Integer.MAX_VALUE
+        );
+
+        lock.readLock().lock();
+        try {
+            int rows = size;
+            Partial result;
+            if (rows < PARALLEL_THRESHOLD) {
+                result = scan(query, 0, rows);
+            } else {
+                int chunks = Runtime.getRuntime().availableProcessors() * 4;
+                int chunkSize = (rows + chunks - 1) / chunks;
+                result = IntStream.range(0, chunks)
+                        .parallel()
+                        .mapToObj(c -> scan(query, c * chunkSize, Math.min(rows, (c + 1) * chunkSize)))
+                        .reduce(Partial::merge)
+                        .orElseGet(() -> new Partial(query.groupCount()));
+            }
+            return toResponse(query, result, rows, (System.nanoTime() - start) / 1_000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- scanning
+
+    private Partial scan(Query q, int from, int to) {
+        Partial p = new Partial(q.groupCount());
+        if (from >= to) {
+            return p;
+        }
+        for (int row = from; row < to; row++) {
+            int dept = departments[row];
+            int job = jobTitles[row];
+            int contract = contracts[row];
+            int hired = hireEpochDays[row];
+            if (!matches(q.departmentMask, dept) || !matches(q.jobTitleMask, job)
+                    || !matches(q.contractMask, contract)
+                    || (hired == NO_HIRE_DATE ? (q.hiredFrom != Integer.MIN_VALUE || q.hiredTo != Integer.MAX_VALUE)
+                    : hired < q.hiredFrom || hired > q.hiredTo)) {
+                continue;
+            }
+
+            int group = 0;
+            boolean groupable = true;
+            for (AggregationDimension dimension : q.groupBy) {
+                int value = switch (dimension) {
+                    case DEPARTMENT -> dept;
+                    case JOB_TITLE -> job;
+                    case CONTRACT -> contract;
+                    case HIRE_YEAR -> hireYears[row] - MIN_YEAR;
+                };
+                if (value < 0) {
+                    groupable = false;
+                    break;
+                }
+                group = group * cardinality(dimension) + value;
+            }
+            if (!groupable) {
+                continue;
+            }
+
+            p.count[group]++;
+            long cents = salaryCents[row];
+            if (cents != NO_SALARY) {
+                p.salaried[group]++;
+                p.sum[group] += cents;
+                if (cents < p.min[group]) {
+                    p.min[group] = cents;
+                }
+                if (cents > p.max[group]) {
+                    p.max[group] = cents;
+                }
+            }
+        }
+        return p;
+    }
+
+    private static boolean matches(int mask, int ordinal) {
+        return mask == 0 || (ordinal >= 0 && (mask >>> ordinal & 1) != 0);
+    }
+
+    private static int mask(Set<? extends Enum<?>> values) {
+        int mask = 0;
+        if (values != null) {
+            for (Enum<?> value : values) {
+                mask |= 1 << value.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static int cardinality(AggregationDimension dimension) {
+        return switch (dimension) {
+            case DEPARTMENT -> DEPARTMENTS.length;
+            case JOB_TITLE -> JOB_TITLES.length;
+            case CONTRACT -> CONTRACTS.length;
+            case HIRE_YEAR -> MAX_YEAR - MIN_YEAR + 1;
+        };
+    }
+
+    private EmployeeAggregationResponse toResponse(Query q, Partial p, int scanned, long tookMicros) {
+        List<EmployeeAggregationResponse.Group> groups = new ArrayList<>();
+        long matched = 0;
+        for (int group = 0; group < p.count.length; group++) {
+            if (p.count[group] == 0) {
+                continue;
+            }
+            matched += p.count[group];
+
+            Map<AggregationDimension, String> key = new EnumMap<>(AggregationDimension.class);
+            int rest = group;
+            for (int i = q.groupBy.length - 1; i >= 0; i--) {
+                AggregationDimension dimension = q.groupBy[i];
+                int value = rest % cardinality(dimension);
+                rest /= cardinality(dimension);
+                key.put(dimension, switch (dimension) {
+                    case DEPARTMENT -> DEPARTMENTS[value].name();
+                    case JOB_TITLE -> JOB_TITLES[value].name();
+                    case CONTRACT -> CONTRACTS[value].name();
+                    case HIRE_YEAR -> String.valueOf(value + MIN_YEAR);
+                });
+            }
+
+            boolean hasSalary = p.salaried[group] > 0;
+            groups.add(new EmployeeAggregationResponse.Group(
+                    key,
+                    p.count[group],
+                    BigDecimal.valueOf(p.sum[group], 2),
+                    hasSalary ? BigDecimal.valueOf(p.sum[group], 2)
+                            .divide(BigDecimal.valueOf(p.salaried[group]), 2, RoundingMode.HALF_UP) : null,
+                    hasSalary ? BigDecimal.valueOf(p.min[group], 2) : null,
+                    hasSalary ? BigDecimal.valueOf(p.max[group], 2) : null
+            ));
+        }
+        return new EmployeeAggregationResponse(scanned, matched, tookMicros, groups);
+    }
+
+    // ---------------------------------------------------------------- writes (write lock held)
+
+    private void put(UUID id, EmployeeDepartment department, EmployeeJobTitle jobTitle,
+                     ContractType contract, BigDecimal salary, LocalDate hireDate) {
+        Integer existing = rowById.get(id);
+        int row;
+        if (existing != null) {
+            row = existing;
+        } else {
+            if (size == ids.length) {
+                grow();
+            }
+            row = size++;
+            rowById.put(id, row);
+        }
+        ids[row] = id;
+        departments[row] = (byte) (department != null ? department.ordinal() : -1);
+        jobTitles[row] = (byte) (jobTitle != null ? jobTitle.ordinal() : -1);
+        contracts[row] = (byte) (contract != null ? contract.ordinal() : -1);
+        salaryCents[row] = salary != null
+                ? salary.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact()
+                : NO_SALARY;
+        if (hireDate != null) {
+            hireEpochDays[row] = (int) hireDate.toEpochDay();
+            int year = hireDate.getYear();
+            hireYears[row] = (short) (year >= MIN_YEAR && year <= MAX_YEAR ? year : MIN_YEAR - 1);
+        } else {
+            hireEpochDays[row] = NO_HIRE_DATE;
+            hireYears[row] = (short) (MIN_YEAR - 1);
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        departments = Arrays.copyOf(departments, capacity);
+        jobTitles = Arrays.copyOf(jobTitles, capacity);
+        contracts = Arrays.copyOf(contracts, capacity);
+        salaryCents = Arrays.copyOf(salaryCents, capacity);
+        hireEpochDays = Arrays.copyOf(hireEpochDays, capacity);
+        hireYears = Arrays.copyOf(hireYears, capacity);
+    }
+
+    // ---------------------------------------------------------------- helpers
+
+    private record Query(
+            AggregationDimension[] groupBy,
+            int departmentMask,
+            int jobTitleMask,
+            int contractMask,
+            int hiredFrom,
+            int hiredTo
+    ) {
+        int groupCount() {
+            int groups = 1;
+            for (AggregationDimension dimension : groupBy) {
+                groups *= cardinality(dimension);
+            }
+            return groups;
+        }
+    }
+
+    /** Dense per-group accumulators for one chunk of rows. */
+    private static final class Partial {
+        final long[] count;
+        final long[] salaried;
+        final long[] sum;
+        final long[] min;
+        final long[] max;
+
+        Partial(int groups) {
+            count = new long[groups];
+            salaried = new long[groups];
+            sum = new long[groups];
+            min = new long[groups];
+            max = new long[groups];
+            Arrays.fill(min, Long.MAX_VALUE);
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        Partial merge(Partial other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                salaried[g] += other.salaried[g];
+                sum[g] += other.sum[g];
+                min[g] = Math.min(min[g], other.min[g]);
+                max[g] = Math.max(max[g], other.max[g]);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package tn.sesame.rh_management_backend.Services;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precomputed company directory (GET /api/employees).
+ *
+ * The active employees are serialized once, as SparseFieldQuery maps with
+ * every EMPLOYEE_FIELDS field (the ?fields= layout, user.version included; not
+ * the EmployeeDto layout), to a plain and a gzip file; the controller streams
+ * the file matching the client's Accept-Encoding without touching the
+ * database or Jackson. The rows come from a single joined projection, so
+ * building does not lazy-load managers or users.
+ *
+ * Writes through EmployeeService trigger a rebuild after hr.directory.debounce-ms
+ * (bursts collapse into one rebuild). User-level fields shown in the directory
+ * (last login, lock) are refreshed at least every hr.directory.max-age-ms.
+ *
+ * hr.directory.snapshot-dir belongs to one instance: the first build of a
+ * process deletes the files left by earlier runs, whose generation numbers
+ * would otherwise be reused. The files hold every salary and email: the
+ * directory and the files are owner-only (rwx------ / rw-------) where the
+ * file system supports POSIX permissions.
+ */
+@Slf4j
+@Component
+public class EmployeeDirectorySnapshot {
+
+    /** Files of the current snapshot. etag is the strong tag of the plain variant. */
+    public record Snapshot(Path json, long jsonLength, Path gzip, long gzipLength, String etag) {
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    // previous snapshots kept on disk: requests may still be streaming them
+    private static final int KEPT_SNAPSHOTS = 2;
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    private static final Set<PosixFilePermission> OWNER_DIRECTORY = PosixFilePermissions.fromString("rwx------");
+    private static final Set<PosixFilePermission> OWNER_FILE = PosixFilePermissions.fromString("rw-------");
+
+    private final SparseFieldQuery fieldQuery;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final long debounceMs;
+
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("directory-snapshot").factory());
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private final AtomicLong generation = new AtomicLong();
+    private final Deque<Snapshot> previous = new ArrayDeque<>();
+    private volatile Snapshot current;
+
+    public EmployeeDirectorySnapshot(SparseFieldQuery fieldQuery,
+                                     ObjectMapper objectMapper,
+                                     @Value("${hr.directory.snapshot-dir:data/directory}") Path directory,
+                                     @Value("${hr.directory.debounce-ms:2000}") long debounceMs) {
+        this.fieldQuery = fieldQuery;
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.debounceMs = debounceMs;
+    }
+
+    /** The current snapshot, built synchronously if none exists yet. */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : rebuild();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        requestRebuild();
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        requestRebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${hr.directory.max-age-ms:300000}", initialDelayString = "${hr.directory.max-age-ms:300000}")
+    public void refresh() {
+        requestRebuild();
+    }
+
+    public void requestRebuild() {
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                // reset first: a write during the build schedules the next one
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Employee directory snapshot rebuild failed", e);
+                }
+            }, debounceMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized Snapshot rebuild() {
+        long started = System.nanoTime();
+        Map<String, SparseFieldQuery.Column> columns = EmployeeService.EMPLOYEE_FIELDS.columns();
+        List<Map<String, Object>> employees = fieldQuery.select(EmployeeService.EMPLOYEE_FIELDS,
+                new LinkedHashSet<>(columns.keySet()), "e.status = :status", Map.of("status", EmploymentStatus.ACTIVE));
+
+        try {
+            createDirectory();
+            if (current == null) {
+                deleteStaleFiles();
+            }
+            long n = generation.incrementAndGet();
+            Path json = directory.resolve("directory-" + n + ".json");
+            Path gzip = directory.resolve("directory-" + n + ".json.gz");
+            Path jsonTmp = directory.resolve(json.getFileName() + ".tmp");
+            Path gzipTmp = directory.resolve(gzip.getFileName() + ".tmp");
+
+            createOwnerOnly(jsonTmp);
+            createOwnerOnly(gzipTmp);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream plain = new DigestOutputStream(Files.newOutputStream(jsonTmp), digest);
+                 OutputStream compressed = new GZIPOutputStream(Files.newOutputStream(gzipTmp), 64 * 1024);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(new TeeOutputStream(plain, compressed))) {
+                objectMapper.writeValue(generator, employees);
+            }
+            Files.move(jsonTmp, json, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(gzipTmp, gzip, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            String etag = "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+            Snapshot snapshot = new Snapshot(json, Files.size(json), gzip, Files.size(gzip), etag);
+            Snapshot replaced = current;
+            current = snapshot;
+            if (replaced != null) {
+                previous.addLast(replaced);
+            }
+            while (previous.size() > KEPT_SNAPSHOTS) {
+                Snapshot expired = previous.removeFirst();
+                Files.deleteIfExists(expired.json());
+                Files.deleteIfExists(expired.gzip());
+            }
+            log.debug("Employee directory snapshot {}: {} employees, {} bytes ({} gzip) in {} ms", n, employees.size(),
+                    snapshot.jsonLength(), snapshot.gzipLength(), (System.nanoTime() - started) / 1_000_000);
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write the employee directory snapshot", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // an existing directory (earlier version, other umask) is restricted as well
+    private void createDirectory() throws IOException {
+        if (!POSIX) {
+            Files.createDirectories(directory);
+            return;
+        }
+        Files.createDirectories(directory, PosixFilePermissions.asFileAttribute(OWNER_DIRECTORY));
+        Files.setPosixFilePermissions(directory, OWNER_DIRECTORY);
+    }
+
+    // empty file with owner-only permissions, then written (and truncated) through newOutputStream
+    private static void createOwnerOnly(Path file) throws IOException {
+        Files.deleteIfExists(file);
+        FileAttribute<?>[] attributes = POSIX
+                ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(OWNER_FILE)}
+                : new FileAttribute<?>[0];
+        Files.createFile(file, attributes);
+    }
+
+    // files of an earlier process (including half-written .tmp files), never served again
+    private void deleteStaleFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "directory-*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /** Writes every byte to both streams (plain and gzip files in one serialization pass). */
+    private static final class TeeOutputStream extends OutputStream {
+        private final OutputStream first;
+        private final OutputStream second;
+
+        TeeOutputStream(OutputStream first, OutputStream second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            first.write(b);
+            second.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            first.write(b, off, len);
+            second.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            first.flush();
+            second.flush();
+        }
+
+        // the underlying streams are closed by their own try-with-resources
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
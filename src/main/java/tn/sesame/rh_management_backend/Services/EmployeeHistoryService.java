@@ -0,0 +1,237 @@
+package tn.sesame.rh_management_backend.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Entities.EmployeeHistoryEvent;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.EmployeeHistoryEventRepository;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.dto.EmployeeHistoryEventDto;
+import tn.sesame.rh_management_backend.dto.EmployeeStateDto;
+import tn.sesame.rh_management_backend.dto.SalaryChangeDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Append-only employee history (employee_events).
+ *
+ * Each EmployeeChangedEvent becomes one row inserted in the writing transaction.
+ * The per-employee sequence lives on the employee row and is taken with an
+ * in-place increment: its row lock serializes concurrent writers of the same
+ * employee, and it leaves the entity (version, change log) untouched, whatever
+ * the order of the EmployeeChangedEvent listeners.
+ *
+ * Cost per change: CREATED is the insert alone (sequence 1 travels in the
+ * employee INSERT). Updates and offboarding add one statement, the
+ * UPDATE ... RETURNING that takes the sequence, next to the event insert;
+ * bumping it in the entity's own UPDATE instead would depend on the listener
+ * order and, with another listener flushing first, cost a second UPDATE and version.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeHistoryService {
+
+    /** Every n-th event of an employee stores the full state. */
+    static final int SNAPSHOT_INTERVAL = 16;
+
+    private static final TypeReference<Map<String, String>> FIELDS = new TypeReference<>() {
+    };
+
+    private final EmployeeHistoryEventRepository historyRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Employee employee = event.employee();
+        EmployeeChangedEvent.Snapshot previous = event.previous();
+        boolean leaving = event.type() == ChangeType.DELETED || event.type() == ChangeType.OFFBOARDED;
+        EmployeeChangedEvent.Snapshot current = leaving ? null : EmployeeChangedEvent.Snapshot.of(employee);
+
+        Map<String, String> changes = !leaving && previous != null ? diff(toFields(previous), toFields(current)) : null;
+        if (changes != null && changes.isEmpty()) {
+            return;
+        }
+
+        // CREATED is always sequence 1, already set by EmployeeService so the INSERT carries it
+        int sequence = 1;
+        if (event.type() != ChangeType.CREATED) {
+            sequence = employeeRepository.nextHistorySequence(event.employeeId());
+        }
+
+        Map<String, String> payload;
+        boolean snapshot = false;
+        if (leaving) {
+            payload = Map.of();
+        } else {
+            // employees created before the history existed start with a snapshot as well
+            snapshot = changes == null || sequence == 1 || sequence % SNAPSHOT_INTERVAL == 0;
+            payload = snapshot ? toFields(current) : changes;
+        }
+
+        boolean salaryChanged = event.type() == ChangeType.UPDATED && previous != null
+                && !sameAmount(previous.salary(), current.salary());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EmployeeHistoryEvent historyEvent = EmployeeHistoryEvent.builder()
+                .employeeId(event.employeeId())
+                .sequence(sequence)
+                .type(event.type())
+                .snapshot(snapshot)
+                .occurredAt(Instant.now())
+                .changedBy(authentication != null ? authentication.getName() : null)
+                .department(current != null ? current.department() : previous != null ? previous.department() : null)
+                .salary(salaryChanged ? current.salary() : null)
+                .previousSalary(salaryChanged ? previous.salary() : null)
+                .payload(write(payload))
+                .build();
+        try {
+            historyRepository.saveAndFlush(historyEvent);
+        } catch (DataIntegrityViolationException e) {
+            // (employee_id, sequence) taken: only possible if the sequence was changed outside this service
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Employee history changed concurrently, retry the request");
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<EmployeeHistoryEventDto> getHistory(UUID employeeId) {
+        return historyRepository.findByEmployeeIdOrderBySequence(employeeId).stream()
+                .map(e -> new EmployeeHistoryEventDto(e.sequence(), e.type(), e.snapshot(), e.occurredAt(),
+                        e.changedBy(), read(e.payload())))
+                .toList();
+    }
+
+    /**
+     * Rebuilds the state at the end of the given (UTC) day from the latest
+     * snapshot before that point plus the events that follow it.
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EmployeeStateDto getStateAt(UUID employeeId, LocalDate date) {
+        Instant cutoff = date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        EmployeeHistoryEvent base = historyRepository
+                .findFirstByEmployeeIdAndSnapshotTrueAndOccurredAtLessThanOrderBySequenceDesc(employeeId, cutoff)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("No history for this employee at " + date));
+
+        Map<String, String> state = new HashMap<>(read(base.payload()));
+        int sequence = base.sequence();
+        boolean deleted = false;
+        for (EmployeeHistoryEvent event : historyRepository
+                .findByEmployeeIdAndSequenceGreaterThanAndOccurredAtLessThanOrderBySequence(employeeId, sequence, cutoff)) {
+            if (event.type() == ChangeType.DELETED || event.type() == ChangeType.OFFBOARDED) {
+                deleted = true;
+            } else {
+                state.putAll(read(event.payload()));
+            }
+            sequence = event.sequence();
+        }
+
+        return new EmployeeStateDto(
+                employeeId,
+                date,
+                sequence,
+                deleted,
+                state.get("firstName"),
+                state.get("lastName"),
+                parse(state.get("department"), EmployeeDepartment::valueOf),
+                parse(state.get("jobTitle"), EmployeeJobTitle::valueOf),
+                parse(state.get("hireDate"), LocalDate::parse),
+                parse(state.get("contract"), ContractType::valueOf),
+                parse(state.get("salary"), BigDecimal::new),
+                parse(state.get("managerId"), UUID::fromString)
+        );
+    }
+
+    /**
+     * Salary changes in a department, by default over the previous calendar year.
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<SalaryChangeDto> getSalaryChanges(EmployeeDepartment department, LocalDate from, LocalDate to) {
+        LocalDate lastYear = LocalDate.now(ZoneOffset.UTC).minusYears(1).withDayOfYear(1);
+        LocalDate start = from != null ? from : lastYear;
+        LocalDate end = to != null ? to : lastYear.plusYears(1).minusDays(1);
+        return historyRepository.findSalaryChanges(department,
+                        start.atStartOfDay(ZoneOffset.UTC).toInstant(),
+                        end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()).stream()
+                .map(e -> new SalaryChangeDto(e.employeeId(), e.occurredAt(), e.changedBy(),
+                        e.previousSalary(), e.salary()))
+                .toList();
+    }
+
+    // ---------------------------------------------------------------- encoding
+
+    private static Map<String, String> toFields(EmployeeChangedEvent.Snapshot state) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("firstName", state.firstName());
+        fields.put("lastName", state.lastName());
+        fields.put("department", state.department() != null ? state.department().name() : null);
+        fields.put("jobTitle", state.jobTitle() != null ? state.jobTitle().name() : null);
+        fields.put("hireDate", state.hireDate() != null ? state.hireDate().toString() : null);
+        fields.put("contract", state.contract() != null ? state.contract().name() : null);
+        fields.put("salary", state.salary() != null
+                ? state.salary().setScale(2, RoundingMode.HALF_UP).toPlainString() : null);
+        fields.put("managerId", state.managerId() != null ? state.managerId().toString() : null);
+        return fields;
+    }
+
+    private static Map<String, String> diff(Map<String, String> before, Map<String, String> after) {
+        Map<String, String> changes = new LinkedHashMap<>();
+        after.forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) {
+                changes.put(field, value);
+            }
+        });
+        return changes;
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        return value != null ? parser.apply(value) : null;
+    }
+
+    private String write(Map<String, String> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize employee event", e);
+        }
+    }
+
+    private Map<String, String> read(String payload) {
+        if (payload == null || payload.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(payload, FIELDS);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted employee event payload", e);
+        }
+    }
+}
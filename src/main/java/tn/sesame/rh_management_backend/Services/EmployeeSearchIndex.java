@@ -0,0 +1,383 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * In-memory, typo-tolerant search index over employee names and emails.
+ *
+ * Every indexed employee gets an ordinal. Each token is split into padded
+ * trigrams ("$jo", "joh", "ohn", "hn$") and each trigram keeps a posting list
+ * of ordinals in a primitive int array. A query counts trigram hits per ordinal,
+ * keeps the best candidates and re-scores them with exact / prefix / edit-distance
+ * matching on whole tokens.
+ *
+ * Updates are incremental: a changed employee is tombstoned and appended again,
+ * and the index compacts itself once too many tombstones accumulate.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EmployeeSearchIndex {
+
+    private static final int MAX_CANDIDATES = 2000;
+    private static final double MIN_SCORE = 0.35;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> ordinalById = new HashMap<>();
+
+    // Per-ordinal columns, indexed by ordinal
+    private UUID[] ids = new UUID[1024];
+    private String[][] tokens = new String[1024][];
+    private String[] ownerEmails = new String[1024];
+    private boolean[] live = new boolean[1024];
+    private int size;
+    private int deleted;
+
+    // Scratch counters reused across queries on the same thread
+    private final ThreadLocal<int[]> scratch = ThreadLocal.withInitial(() -> new int[0]);
+
+    public record Hit(UUID employeeId, double score) {
+    }
+
+    public record Result(List<Hit> hits, int total) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        List<EmployeeRepository.SearchRow> rows = employeeRepository.findSearchRows();
+        lock.writeLock().lock();
+        try {
+            clear();
+            for (EmployeeRepository.SearchRow row : rows) {
+                add(row.getId(), row.getFirstName(), row.getLastName(), row.getEmail());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Employee search index built with {} entries", rows.size());
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() == ChangeType.DELETED || event.type() == ChangeType.OFFBOARDED) {
+            remove(event.employeeId());
+            return;
+        }
+        Employee employee = event.employee();
+        String email = employee.user() != null ? employee.user().getEmail() : null;
+        upsert(employee.id(), employee.firstName(), employee.lastName(), email);
+    }
+
+    public void upsert(UUID id, String firstName, String lastName, String email) {
+        lock.writeLock().lock();
+        try {
+            tombstone(id);
+            add(id, firstName, lastName, email);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(UUID id) {
+        lock.writeLock().lock();
+        try {
+            tombstone(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search.
+     *
+     * @param query     free text, may contain partial or misspelled names or an email
+     * @param canAccess filter on the owner email of each hit (null when the employee has no user)
+     * @param page      zero based page number
+     * @param pageSize  number of hits per page
+     */
+    public Result search(String query, Predicate<String> canAccess, int page, int pageSize) {
+        String[] queryTokens = tokenize(query);
+        if (queryTokens.length == 0) {
+            return new Result(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        try {
+            int[] counts = scratch.get();
+            if (counts.length < size) {
+                counts = new int[Math.max(size, 1024) * 2];
+                scratch.set(counts);
+            }
+
+            // 1. trigram hit counting
+            int[] touched = new int[64];
+            int touchedCount = 0;
+            for (String token : queryTokens) {
+                if (token.length() < 2) {
+                    // single letters only take part in scoring (prefix of a longer token)
+                    continue;
+                }
+                for (long gram : trigrams(token)) {
+                    Postings list = postings.get(gram);
+                    if (list == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < list.size; i++) {
+                        int ordinal = list.ordinals[i];
+                        if (!live[ordinal]) {
+                            continue;
+                        }
+                        if (counts[ordinal]++ == 0) {
+                            if (touchedCount == touched.length) {
+                                touched = Arrays.copyOf(touched, touchedCount * 2);
+                            }
+                            touched[touchedCount++] = ordinal;
+                        }
+                    }
+                }
+            }
+
+            // 2. keep the best candidates by raw trigram count
+            int[] candidates = Arrays.copyOf(touched, touchedCount);
+            if (touchedCount > MAX_CANDIDATES) {
+                final int[] c = counts;
+                candidates = Arrays.stream(candidates).boxed()
+                        .sorted((a, b) -> Integer.compare(c[b], c[a]))
+                        .limit(MAX_CANDIDATES)
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+            }
+            for (int i = 0; i < touchedCount; i++) {
+                counts[touched[i]] = 0;
+            }
+
+            // 3. precise scoring with access filtering
+            List<Hit> hits = new ArrayList<>();
+            for (int ordinal : candidates) {
+                double score = score(queryTokens, tokens[ordinal]);
+                if (score >= MIN_SCORE && canAccess.test(ownerEmails[ordinal])) {
+                    hits.add(new Hit(ids[ordinal], score));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed());
+
+            int from = Math.min(page * pageSize, hits.size());
+            int to = Math.min(from + pageSize, hits.size());
+            return new Result(List.copyOf(hits.subList(from, to)), hits.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---------------------------------------------------------------- internals (write lock held)
+
+    private void add(UUID id, String firstName, String lastName, String email) {
+        append(id, tokenize(join(firstName, lastName, email)), email);
+    }
+
+    private void append(UUID id, String[] docTokens, String email) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+            ownerEmails = Arrays.copyOf(ownerEmails, capacity);
+            live = Arrays.copyOf(live, capacity);
+        }
+        int ordinal = size++;
+        ids[ordinal] = id;
+        tokens[ordinal] = docTokens;
+        ownerEmails[ordinal] = email;
+        live[ordinal] = true;
+        ordinalById.put(id, ordinal);
+
+        Set<Long> seen = new HashSet<>();
+        for (String token : docTokens) {
+            for (long gram : trigrams(token)) {
+                if (seen.add(gram)) {
+                    postings.computeIfAbsent(gram, g -> new Postings()).add(ordinal);
+                }
+            }
+        }
+    }
+
+    private void tombstone(UUID id) {
+        Integer ordinal = ordinalById.remove(id);
+        if (ordinal != null && live[ordinal]) {
+            live[ordinal] = false;
+            deleted++;
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (deleted < 1024 || deleted * 4 < size) {
+            return;
+        }
+        UUID[] oldIds = ids;
+        String[][] oldTokens = tokens;
+        String[] oldEmails = ownerEmails;
+        boolean[] oldLive = live;
+        int oldSize = size;
+        clear();
+        for (int i = 0; i < oldSize; i++) {
+            if (oldLive[i]) {
+                append(oldIds[i], oldTokens[i], oldEmails[i]);
+            }
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        ordinalById.clear();
+        ids = new UUID[1024];
+        tokens = new String[1024][];
+        ownerEmails = new String[1024];
+        live = new boolean[1024];
+        size = 0;
+        deleted = 0;
+    }
+
+    // ---------------------------------------------------------------- scoring
+
+    private static double score(String[] queryTokens, String[] docTokens) {
+        double total = 0;
+        for (String q : queryTokens) {
+            double best = 0;
+            for (String d : docTokens) {
+                best = Math.max(best, tokenScore(q, d));
+                if (best == 1.0) {
+                    break;
+                }
+            }
+            total += best;
+        }
+        return total / queryTokens.length;
+    }
+
+    private static double tokenScore(String query, String token) {
+        if (token.equals(query)) {
+            return 1.0;
+        }
+        if (token.startsWith(query)) {
+            // prefer prefixes covering more of the token
+            return 0.8 + 0.15 * query.length() / token.length();
+        }
+        int maxEdits = query.length() <= 4 ? 1 : 2;
+        // compare against the token and against a same-length prefix of it (typo inside a prefix)
+        int distance = boundedDistance(query, token, maxEdits);
+        if (token.length() > query.length()) {
+            distance = Math.min(distance,
+                    boundedDistance(query, token.substring(0, query.length()), maxEdits));
+        }
+        if (distance <= maxEdits) {
+            return 0.75 - 0.15 * distance;
+        }
+        return 0;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transposition),
+     * returning maxEdits + 1 as soon as the distance is known to exceed maxEdits.
+     */
+    static int boundedDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return maxEdits + 1;
+        }
+        int[] prevPrev = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            prev[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(prev[j] + 1, current[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, prevPrev[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return maxEdits + 1;
+            }
+            int[] tmp = prevPrev;
+            prevPrev = prev;
+            prev = current;
+            current = tmp;
+        }
+        return prev[b.length()];
+    }
+
+    // ---------------------------------------------------------------- text helpers
+
+    private static String join(String... parts) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : parts) {
+            if (part != null) {
+                sb.append(part).append(' ');
+            }
+        }
+        return sb.toString();
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        // emails are split on '@' and '.' so "jane.doe@acme.com" matches "jane" or "doe"
+        return Arrays.stream(normalized.split("[^a-z0-9]+"))
+                .filter(t -> !t.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    private static long[] trigrams(String token) {
+        String padded = "$" + token + "$";
+        long[] grams = new long[padded.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) padded.charAt(i) << 32)
+                    | ((long) padded.charAt(i + 1) << 16)
+                    | padded.charAt(i + 2);
+        }
+        return grams;
+    }
+
+    /** Growable posting list of ordinals, in insertion (ascending) order. */
+    private static final class Postings {
+        int[] ordinals = new int[4];
+        int size;
+
+        void add(int ordinal) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+            }
+            ordinals[size++] = ordinal;
+        }
+    }
+}
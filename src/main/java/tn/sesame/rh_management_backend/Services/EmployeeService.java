@@ -1,30 +1,88 @@
 package tn.sesame.rh_management_backend.Services;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import tn.sesame.rh_management_backend.Entities.Employee;
 import tn.sesame.rh_management_backend.Entities.User;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
 import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
 import tn.sesame.rh_management_backend.Repositories.UserRepository;
+import tn.sesame.rh_management_backend.Services.SparseFieldQuery.Column;
 import tn.sesame.rh_management_backend.dto.EmployeeCreateRequest;
 import tn.sesame.rh_management_backend.dto.EmployeeDto;
+import tn.sesame.rh_management_backend.dto.EntityVersions;
+import tn.sesame.rh_management_backend.dto.EmployeeSearchHit;
+import tn.sesame.rh_management_backend.dto.EmployeeSearchResponse;
 import tn.sesame.rh_management_backend.dto.EmployeeUpdateRequest;
+import tn.sesame.rh_management_backend.dto.TeamMemberDto;
 import tn.sesame.rh_management_backend.dto.UserDto;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static java.util.Map.entry;
+
 @Service
 @RequiredArgsConstructor
 public class EmployeeService {
+
+    private static final String OWNER_EMAIL = "ownerEmail";
+    private static final String USER_JOIN = "left join e.user u";
+
+    // Fields selectable with ?fields=, named after the EmployeeDto properties
+    static final SparseFieldQuery.Resource EMPLOYEE_FIELDS = new SparseFieldQuery.Resource("Employee", "e",
+            SparseFieldQuery.columns(
+                    entry("id", Column.of("e.id")),
+                    entry("employeeNumber", Column.of("e.employeeNumber")),
+                    entry("firstName", Column.of("e.firstName")),
+                    entry("lastName", Column.of("e.lastName")),
+                    entry("department", Column.of("e.department")),
+                    entry("hireDate", Column.of("e.hireDate")),
+                    entry("salary", Column.of("e.salary")),
+                    entry("jobTitle", Column.of("e.jobTitle")),
+                    entry("contract", Column.of("e.contract")),
+                    entry("status", Column.of("e.status")),
+                    entry("departedAt", Column.of("e.departedAt")),
+                    entry("managerId", Column.of("e.manager.id")),
+                    entry("managerName", Column.joined("concat(m.firstName, ' ', m.lastName)", "left join e.manager m")),
+                    entry("user.id", Column.joined("u.id", USER_JOIN)),
+                    entry("user.email", Column.joined("u.email", USER_JOIN)),
+                    entry("user.role", Column.joined("u.role", USER_JOIN)),
+                    entry("user.mfaEnabled", Column.joined("u.mfaEnabled", USER_JOIN)),
+                    entry("user.emailVerified", Column.joined("u.emailVerified", USER_JOIN)),
+                    entry("user.locked", Column.joined("u.accountLocked", USER_JOIN)),
+                    entry("user.lastLoginAt", Column.joined("u.lastLoginAt", USER_JOIN)),
+                    entry("user.createdAt", Column.joined("u.createdAt", USER_JOIN)),
+                    entry("user.version", Column.joined("u.version", USER_JOIN)),
+                    entry("version", Column.of("e.version"))),
+            Map.of(OWNER_EMAIL, Column.joined("u.email", USER_JOIN)));
+
     private final EmployeeRepository employeeRepository;
     private final UserRepository userRepository;
+    private final EmployeeSearchIndex searchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SparseFieldQuery fieldQuery;
+    private final EmployeeDirectorySnapshot directorySnapshot;
+
+    private final SingleFlight<UUID, LoadedEmployee> employeeLoads = new SingleFlight<>();
+
+    // shared between coalesced callers: the DTO plus what the access check needs
+    private record LoadedEmployee(EmployeeDto dto, String ownerEmail) {
+    }
 
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
     @Transactional
@@ -59,30 +117,113 @@ public class EmployeeService {
                 .contract(request.contract())
                 .salary(request.salary())
                 .manager(manager)
+                .status(EmploymentStatus.ACTIVE)
+                .historySequence(1) // the CREATED history event
                 .build();
 
         employee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.id(), ChangeType.CREATED, employee));
         return convertToDTO(employee);
     }
 
+    /**
+     * The active-employee directory as precomputed files (same JSON as
+     * getAllEmployees), rebuilt in the background after writes.
+     */
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public EmployeeDirectorySnapshot.Snapshot getDirectorySnapshot() {
+        return directorySnapshot.current();
+    }
+
     @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
     public List<EmployeeDto> getAllEmployees() {
-        return employeeRepository.findAll().stream()
+        return employeeRepository.findByStatus(EmploymentStatus.ACTIVE).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sparse variant of getAllEmployees: only the requested fields are selected.
+     */
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllEmployees(String fields) {
+        return fieldQuery.select(EMPLOYEE_FIELDS, fieldQuery.parse(EMPLOYEE_FIELDS, fields),
+                "e.status = :status", Map.of("status", EmploymentStatus.ACTIVE));
+    }
+
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getEmployeeById(UUID id, String fields) {
+        return getEmployeeFields("e.id = :id", Map.of("id", id), fields);
+    }
+
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
+    public Map<String, Object> getEmployeeByNumber(String employeeNumber, String fields) {
+        return getEmployeeFields("e.employeeNumber = :employeeNumber", Map.of("employeeNumber", employeeNumber), fields);
+    }
+
+    /**
+     * Keyset page of every employee (any status) ordered by id, for bulk sync.
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployeePageAfter(UUID after, int limit) {
+        return fieldQuery.selectPage(EMPLOYEE_FIELDS, EMPLOYEE_FIELDS.columns().keySet(),
+                "e.id > :after", Map.of("after", after), "e.id", limit);
+    }
+
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployeesByDepartment(String department, String fields) {
+        return fieldQuery.select(EMPLOYEE_FIELDS, fieldQuery.parse(EMPLOYEE_FIELDS, fields),
+                "e.department = :department and e.status = :status",
+                Map.of("department", parseDepartment(department), "status", EmploymentStatus.ACTIVE));
+    }
+
+    /**
+     * Concurrent reads of the same employee share one query (see SingleFlight);
+     * access is checked per caller on the shared result. Not transactional on
+     * purpose: waiting callers must not hold a connection, the single fetch-join
+     * query runs in the repository's own read-only transaction.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     public EmployeeDto getEmployeeById(UUID id) {
-        Employee employee = employeeRepository.findById(id)
-                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+        LoadedEmployee loaded = employeeLoads.load(id, () -> {
+            Employee employee = employeeRepository.findDetailedById(id)
+                    .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+            return new LoadedEmployee(convertToDTO(employee), employee.user() != null ? employee.user().getEmail() : null);
+        });
 
         // Check if user can view this employee
-        checkEmployeeAccess(employee);
+        if (!canAccessEmployee(loaded.ownerEmail(), SecurityContextHolder.getContext().getAuthentication())) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return loaded.dto();
+    }
 
-        return convertToDTO(employee);
+    // a committed write must not be answered by a read that started before it
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        employeeLoads.forget(event.employeeId());
+    }
+
+    /**
+     * Current versions of the employee and the rows its DTO embeds, for
+     * If-None-Match checks. Reads versions and owner only, with the same access
+     * rule as getEmployeeById.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EntityVersions getEmployeeVersions(UUID id) {
+        EmployeeRepository.VersionRow row = employeeRepository.findVersionById(id)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+        if (!canAccessEmployee(row.getOwnerEmail(), SecurityContextHolder.getContext().getAuthentication())) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return EntityVersions.of(row.getVersion(), row.getUserVersion(), row.getManagerVersion());
     }
 
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
@@ -97,19 +238,45 @@ public class EmployeeService {
         return convertToDTO(employee);
     }
 
+    /** Employee record of the current user. */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EmployeeDto getMyEmployee() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Employee employee = employeeRepository.findDetailedByUserEmail(authentication.getName())
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("No employee record for this account"));
+        return convertToDTO(employee);
+    }
+
+    /**
+     * Colleagues of the current user (same manager), their direct reports and
+     * their manager, with directory fields only.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<TeamMemberDto> getMyTeam() {
+        return employeeRepository.findTeamOf(SecurityContextHolder.getContext().getAuthentication().getName());
+    }
+
     @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
     public List<EmployeeDto> getEmployeesByDepartment(String department) {
-        return employeeRepository.findByDepartment(department).stream()
+        return employeeRepository.findByDepartmentAndStatus(parseDepartment(department), EmploymentStatus.ACTIVE).stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
 
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
     @Transactional
-    public EmployeeDto updateEmployee(UUID id, EmployeeUpdateRequest request) {
+    public EmployeeDto updateEmployee(UUID id, EmployeeUpdateRequest request, Long expectedVersion) {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+        checkVersion(employee, expectedVersion);
+        // offboarded employees have left the index, column store and statistics: an UPDATED event would re-add them
+        if (employee.status() != EmploymentStatus.ACTIVE) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Offboarded employees cannot be updated");
+        }
+        EmployeeChangedEvent.Snapshot previous = EmployeeChangedEvent.Snapshot.of(employee);
 
         if (request.getFirstName() != null) {
             employee.firstName(request.getFirstName());
@@ -139,32 +306,104 @@ public class EmployeeService {
         }
 
         employee = employeeRepository.save(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.id(), ChangeType.UPDATED, employee, previous));
+        // flush after the listeners so the returned version (ETag) is the committed one
+        employeeRepository.flush();
         return convertToDTO(employee);
     }
 
+    /**
+     * Offboards the employee (soft delete). The row stays in the employees table,
+     * out of every active query, until EmployeeArchiveService moves it to the
+     * archive tables after the retention period.
+     */
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
-    public void deleteEmployee(UUID id) {
+    public void deleteEmployee(UUID id, Long expectedVersion) {
         Employee employee = employeeRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
-        employeeRepository.delete(employee);
+        checkVersion(employee, expectedVersion);
+        if (employee.status() == EmploymentStatus.OFFBOARDED) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Employee is already offboarded");
+        }
+        employee.status(EmploymentStatus.OFFBOARDED).departedAt(LocalDate.now());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(employee.id(), ChangeType.OFFBOARDED, employee,
+                EmployeeChangedEvent.Snapshot.of(employee)));
+    }
+
+    /**
+     * Typo-tolerant search on first name, last name and email.
+     * Hits are ranked by the in-memory search index and filtered with the same
+     * rules as checkEmployeeAccess, so regular employees only ever find themselves.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EmployeeSearchResponse searchEmployees(String query, int page, int size) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("page must be >= 0 and size between 1 and 100");
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        EmployeeSearchIndex.Result result = searchIndex.search(query,
+                ownerEmail -> canAccessEmployee(ownerEmail, authentication), page, size);
+
+        List<UUID> ids = result.hits().stream().map(EmployeeSearchIndex.Hit::employeeId).toList();
+        // rows come back unordered: the hits below keep the index ranking
+        Map<UUID, Employee> employees = employeeRepository.findDetailedByIdIn(ids).stream()
+                .collect(Collectors.toMap(Employee::id, Function.identity()));
+
+        List<EmployeeSearchHit> hits = result.hits().stream()
+                .filter(hit -> employees.containsKey(hit.employeeId()))
+                .map(hit -> new EmployeeSearchHit(convertToDTO(employees.get(hit.employeeId())), hit.score()))
+                .toList();
+        return new EmployeeSearchResponse(query, page, size, result.total(), hits);
+    }
+
+    private Map<String, Object> getEmployeeFields(String where, Map<String, Object> parameters, String fields) {
+        Set<String> selected = fieldQuery.parse(EMPLOYEE_FIELDS, fields);
+        selected.add(OWNER_EMAIL);
+        Map<String, Object> employee = fieldQuery.select(EMPLOYEE_FIELDS, selected, where, parameters).stream()
+                .findFirst()
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+        if (!canAccessEmployee((String) employee.get(OWNER_EMAIL), SecurityContextHolder.getContext().getAuthentication())) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return SparseFieldQuery.strip(employee, Set.of(OWNER_EMAIL));
+    }
+
+    private static EmployeeDepartment parseDepartment(String department) {
+        try {
+            return EmployeeDepartment.valueOf(department.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Unknown department: " + department);
+        }
+    }
+
+    // If-Match: the client must have seen the current version (null means no precondition)
+    private void checkVersion(Employee employee, Long expectedVersion) {
+        if (expectedVersion != null && employee.version() != expectedVersion) {
+            throw new tn.sesame.rh_management_backend.exceptions.PreconditionFailedException("Employee has been modified since version " + expectedVersion);
+        }
     }
 
     private void checkEmployeeAccess(Employee employee) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        String currentUserEmail = authentication.getName();
+        String ownerEmail = employee.user() != null ? employee.user().getEmail() : null;
+        if (!canAccessEmployee(ownerEmail, authentication)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+    }
 
+    // also used by LiveUpdateService to filter pushed employee updates
+    static boolean canAccessEmployee(String ownerEmail, Authentication authentication) {
         // Admins and HR Managers can access all employees
         if (authentication.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") ||
                               a.getAuthority().equals("ROLE_HR_MANAGER"))) {
-            return;
+            return true;
         }
 
         // Regular employees can only access their own data
-        if (employee.user() != null && !employee.user().getEmail().equals(currentUserEmail)) {
-            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
-        }
+        return ownerEmail == null || ownerEmail.equals(authentication.getName());
     }
 
     private EmployeeDto convertToDTO(Employee employee) {
@@ -177,11 +416,14 @@ public class EmployeeService {
                 .jobTitle(employee.jobTitle())
                 .hireDate(employee.hireDate())
                 .contract(employee.contract())
-                .salary(employee.salary());
+                .salary(employee.salary())
+                .status(employee.status())
+                .departedAt(employee.departedAt());
 
         if (employee.manager() != null) {
             builder.managerId(employee.manager().id())
-                   .managerName(employee.manager().firstName() + " " + employee.manager().lastName());
+                   .managerName(employee.manager().firstName() + " " + employee.manager().lastName())
+                   .managerVersion(employee.manager().version());
         }
 
         if (employee.user() != null) {
@@ -193,10 +435,11 @@ public class EmployeeService {
                     employee.user().isEmailVerified(),
                     employee.user().isAccountLocked(),
                     employee.user().getLastLoginAt(),
-                    employee.user().getCreatedAt()
+                    employee.user().getCreatedAt(),
+                    employee.user().getVersion()
             ));
         }
 
-        return builder.build();
+        return builder.version(employee.version()).build();
     }
 }
@@ -0,0 +1,256 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.EmployeeStatistic;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.EmployeeStatisticRepository;
+import tn.sesame.rh_management_backend.dto.EmployeeStatisticsDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Maintains the employee_statistics counters.
+ *
+ * Counters are adjusted synchronously from EmployeeChangedEvent, i.e. inside the
+ * transaction of the employee write, with relative UPDATE statements. Min/max
+ * can not be decremented, so when the removed salary was the min or max of its
+ * cell the range is recomputed with an aggregate on that cell only, served by
+ * the (department, job_title, contract, salary) index of employees.
+ *
+ * A scheduled reconciliation recounts everything and repairs drifted cells.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmployeeStatisticsService {
+
+    private final EmployeeStatisticRepository statisticRepository;
+    private final EmployeeRepository employeeRepository;
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() != ChangeType.CREATED) {
+            remove(event.previous());
+        }
+        if (event.type() == ChangeType.CREATED || event.type() == ChangeType.UPDATED) {
+            add(EmployeeChangedEvent.Snapshot.of(event.employee()));
+        }
+    }
+
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EmployeeStatisticsDto getStatistics() {
+        // At most |departments| x |job titles| x |contracts| rows, independent of the employee count
+        List<EmployeeStatistic> cells = statisticRepository.findAll();
+
+        Accumulator total = new Accumulator();
+        Map<EmployeeDepartment, Accumulator> byDepartment = new EnumMap<>(EmployeeDepartment.class);
+        Map<EmployeeJobTitle, Accumulator> byJobTitle = new EnumMap<>(EmployeeJobTitle.class);
+        Map<ContractType, Accumulator> byContract = new EnumMap<>(ContractType.class);
+        Instant updatedAt = null;
+
+        for (EmployeeStatistic cell : cells) {
+            total.add(cell);
+            byDepartment.computeIfAbsent(cell.department(), k -> new Accumulator()).add(cell);
+            byJobTitle.computeIfAbsent(cell.jobTitle(), k -> new Accumulator()).add(cell);
+            byContract.computeIfAbsent(cell.contract(), k -> new Accumulator()).add(cell);
+            if (cell.updatedAt() != null && (updatedAt == null || cell.updatedAt().isAfter(updatedAt))) {
+                updatedAt = cell.updatedAt();
+            }
+        }
+
+        return new EmployeeStatisticsDto(
+                total.toCounter(),
+                toCounters(byDepartment, () -> new EnumMap<>(EmployeeDepartment.class)),
+                toCounters(byJobTitle, () -> new EnumMap<>(EmployeeJobTitle.class)),
+                toCounters(byContract, () -> new EnumMap<>(ContractType.class)),
+                updatedAt
+        );
+    }
+
+    // Seeds missing cells and catches up with writes made while the application was down
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileOnStartup() {
+        reconcile();
+    }
+
+    /**
+     * Recounts every cell from the employee table and repairs drift.
+     *
+     * @return number of cells that had drifted
+     */
+    @Scheduled(fixedDelayString = "${hr.statistics.reconcile-interval-ms:3600000}",
+            initialDelayString = "${hr.statistics.reconcile-interval-ms:3600000}")
+    @Transactional
+    public int reconcile() {
+        Map<String, EmployeeStatistic> stored = new HashMap<>();
+        for (EmployeeStatistic cell : statisticRepository.findAllForUpdate()) {
+            stored.put(key(cell.department(), cell.jobTitle(), cell.contract()), cell);
+        }
+
+        Map<String, EmployeeRepository.StatisticRow> counted = new HashMap<>();
+        for (EmployeeRepository.StatisticRow row : employeeRepository.countByDepartmentJobTitleAndContract()) {
+            if (row.getDepartment() != null && row.getJobTitle() != null && row.getContract() != null) {
+                counted.put(key(row.getDepartment(), row.getJobTitle(), row.getContract()), row);
+            }
+        }
+
+        int drifted = 0;
+        Instant now = Instant.now();
+        for (EmployeeDepartment department : EmployeeDepartment.values()) {
+            for (EmployeeJobTitle jobTitle : EmployeeJobTitle.values()) {
+                for (ContractType contract : ContractType.values()) {
+                    String key = key(department, jobTitle, contract);
+                    EmployeeRepository.StatisticRow row = counted.get(key);
+                    EmployeeStatistic cell = stored.get(key);
+                    if (cell == null) {
+                        cell = EmployeeStatistic.builder()
+                                .department(department)
+                                .jobTitle(jobTitle)
+                                .contract(contract)
+                                .salarySum(BigDecimal.ZERO)
+                                .build();
+                    } else if (matches(cell, row)) {
+                        continue;
+                    } else {
+                        drifted++;
+                        log.warn("Employee statistics drift on {}: stored count={} sum={}, recount count={} sum={}",
+                                key, cell.headcount(), cell.salarySum(),
+                                row != null ? row.getHeadcount() : 0, row != null ? row.getSalarySum() : BigDecimal.ZERO);
+                    }
+                    cell.headcount(row != null ? row.getHeadcount() : 0)
+                            .salarySum(row != null ? row.getSalarySum() : BigDecimal.ZERO)
+                            .minSalary(row != null ? row.getMinSalary() : null)
+                            .maxSalary(row != null ? row.getMaxSalary() : null)
+                            .updatedAt(now);
+                    statisticRepository.save(cell);
+                }
+            }
+        }
+
+        if (drifted > 0) {
+            log.warn("Employee statistics reconciliation repaired {} drifted cells", drifted);
+        } else {
+            log.debug("Employee statistics reconciliation found no drift");
+        }
+        return drifted;
+    }
+
+    private void add(EmployeeChangedEvent.Snapshot state) {
+        if (!isComplete(state)) {
+            return;
+        }
+        BigDecimal salary = state.salary() != null ? state.salary() : BigDecimal.ZERO;
+        if (statisticRepository.adjust(state.department(), state.jobTitle(), state.contract(),
+                1, salary, Instant.now()) == 0) {
+            // Cell not seeded yet (first write before the startup reconciliation)
+            statisticRepository.saveAndFlush(EmployeeStatistic.builder()
+                    .department(state.department())
+                    .jobTitle(state.jobTitle())
+                    .contract(state.contract())
+                    .headcount(1)
+                    .salarySum(salary)
+                    .updatedAt(Instant.now())
+                    .build());
+        }
+        if (state.salary() != null) {
+            statisticRepository.widenRange(state.department(), state.jobTitle(), state.contract(), state.salary());
+        }
+    }
+
+    private void remove(EmployeeChangedEvent.Snapshot state) {
+        if (!isComplete(state)) {
+            return;
+        }
+        BigDecimal salary = state.salary() != null ? state.salary() : BigDecimal.ZERO;
+        statisticRepository.adjust(state.department(), state.jobTitle(), state.contract(),
+                -1, salary.negate(), Instant.now());
+        if (state.salary() == null) {
+            return;
+        }
+        // read after adjust(), which holds the cell's row lock until commit
+        EmployeeRepository.SalaryRange stored =
+                statisticRepository.findRange(state.department(), state.jobTitle(), state.contract());
+        if (stored != null && (sameAmount(state.salary(), stored.getMinSalary())
+                || sameAmount(state.salary(), stored.getMaxSalary()))) {
+            // The employee row is already changed/removed in this transaction (auto flush before the query)
+            EmployeeRepository.SalaryRange range =
+                    employeeRepository.findSalaryRange(state.department(), state.jobTitle(), state.contract());
+            statisticRepository.setRange(state.department(), state.jobTitle(), state.contract(),
+                    range != null ? range.getMinSalary() : null,
+                    range != null ? range.getMaxSalary() : null);
+        }
+    }
+
+    private static boolean isComplete(EmployeeChangedEvent.Snapshot state) {
+        return state != null && state.department() != null && state.jobTitle() != null && state.contract() != null;
+    }
+
+    private static boolean matches(EmployeeStatistic cell, EmployeeRepository.StatisticRow row) {
+        if (row == null) {
+            return cell.headcount() == 0 && cell.salarySum().signum() == 0;
+        }
+        return cell.headcount() == row.getHeadcount()
+                && cell.salarySum().compareTo(row.getSalarySum()) == 0
+                && sameAmount(cell.minSalary(), row.getMinSalary())
+                && sameAmount(cell.maxSalary(), row.getMaxSalary());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
+    }
+
+    private static String key(EmployeeDepartment department, EmployeeJobTitle jobTitle, ContractType contract) {
+        return department + "/" + jobTitle + "/" + contract;
+    }
+
+    private static <K> Map<K, EmployeeStatisticsDto.Counter> toCounters(
+            Map<K, Accumulator> accumulators, Supplier<Map<K, EmployeeStatisticsDto.Counter>> factory) {
+        Map<K, EmployeeStatisticsDto.Counter> counters = factory.get();
+        accumulators.forEach((k, acc) -> counters.put(k, acc.toCounter()));
+        return counters;
+    }
+
+    private static final class Accumulator {
+        long headcount;
+        BigDecimal salarySum = BigDecimal.ZERO;
+        BigDecimal min;
+        BigDecimal max;
+
+        void add(EmployeeStatistic cell) {
+            headcount += cell.headcount();
+            salarySum = salarySum.add(cell.salarySum());
+            if (cell.minSalary() != null && (min == null || cell.minSalary().compareTo(min) < 0)) {
+                min = cell.minSalary();
+            }
+            if (cell.maxSalary() != null && (max == null || cell.maxSalary().compareTo(max) > 0)) {
+                max = cell.maxSalary();
+            }
+        }
+
+        EmployeeStatisticsDto.Counter toCounter() {
+            BigDecimal average = headcount == 0 ? BigDecimal.ZERO
+                    : salarySum.divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP);
+            return new EmployeeStatisticsDto.Counter(headcount, salarySum, average, min, max);
+        }
+    }
+}
@@ -1,116 +1,358 @@
 package tn.sesame.rh_management_backend.Services;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import tn.sesame.rh_management_backend.Entities.Employee;
+import org.springframework.transaction.event.TransactionalEventListener;
 import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
 import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Events.DocumentChangedEvent;
 import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
 import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+import tn.sesame.rh_management_backend.Services.SparseFieldQuery.Column;
+import tn.sesame.rh_management_backend.dto.DocumentStorageReportDto;
+import tn.sesame.rh_management_backend.dto.DocumentTagSearchResponse;
+import tn.sesame.rh_management_backend.dto.EntityVersions;
 import tn.sesame.rh_management_backend.dto.HRDocumentDTO;
 import tn.sesame.rh_management_backend.dto.HRDocumentUploadRequest;
 
-import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
-import javax.crypto.spec.SecretKeySpec;
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
-import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static java.util.Map.entry;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class HRDocumentService {
 
+    private static final String ACCESS_LEVEL = "accessLevel";
+    private static final String OWNER_EMAIL = "ownerEmail";
+    private static final Set<String> ACCESS_FIELDS = Set.of(ACCESS_LEVEL, OWNER_EMAIL);
+    private static final int MAX_TAG_SEARCH_LIMIT = 500;
+
+    // Fields selectable with ?fields=, named after the HRDocumentDTO properties (never the content)
+    static final SparseFieldQuery.Resource DOCUMENT_FIELDS = new SparseFieldQuery.Resource("HRDocument", "d",
+            SparseFieldQuery.columns(
+                    entry("id", Column.of("d.id")),
+                    entry("documentName", Column.of("d.documentName")),
+                    entry("contentType", Column.of("d.contentType")),
+                    entry("fileSize", Column.of("d.fileSize")),
+                    entry("compression", Column.of("d.compression")),
+                    entry("level", Column.of("d.level")),
+                    entry("employeeId", Column.of("d.employee.id")),
+                    entry("employeeName", Column.joined("concat(e.firstName, ' ', e.lastName)", "left join d.employee e")),
+                    entry("tags", Column.collection("t", "join d.tags t")),
+                    entry("uploadedAt", Column.of("d.uploadedAt")),
+                    entry("checkSum", Column.of("d.checkSum")),
+                    entry("version", Column.of("d.version"))),
+            Map.of(ACCESS_LEVEL, Column.of("d.level"),
+                    OWNER_EMAIL, Column.joined("ou.email", "left join d.employee oe left join oe.user ou")));
+
     private final HRDocumentRepository documentRepository;
     private final EmployeeRepository employeeRepository;
-    
-    // In production, use a proper key management system
-    private static final String ENCRYPTION_KEY = "MySecretKey12345"; // 16 chars for AES-128
+    private final SparseFieldQuery fieldQuery;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentContentStore contentStore;
+    private final HRDocumentWriter documentWriter;
+    private final DocumentTagIndex tagIndex;
+
+    private final SingleFlight<UUID, LoadedDocument> documentLoads = new SingleFlight<>();
+
+    /** What a download needs to know before reading the body. */
+    public record DocumentContent(UUID id, String documentName, String contentType, long size, long version,
+                                  String storageKey) {
+    }
+
+    // shared between coalesced callers: the DTO plus what the access check needs.
+    // The DTO is mutable, so it is never returned as is: every caller gets its own copy
+    private record LoadedDocument(HRDocumentDTO dto, DocumentAccessLevel level, String ownerEmail) {
+    }
 
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
-    @Transactional
     public HRDocumentDTO uploadDocument(HRDocumentUploadRequest request) throws Exception {
-        Employee employee = employeeRepository.findById(request.getEmployeeId())
-                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
-
-        // Encrypt content
-        byte[] encryptedContent = encryptContent(request.getContent());
-
-        // Calculate checksum
-        String checksum = calculateChecksum(request.getContent());
-
-        HRDocument document = HRDocument.builder()
-                .documentName(request.getDocumentName())
-                .contentType(request.getContentType())
-                .encrypedContent(encryptedContent)
-                .fileSize(request.getContent().length)
-                .level(request.getLevel())
-                .employee(employee)
-                .tags(request.getTags())
+        return uploadDocument(request.getDocumentName(), request.getContentType(), request.getLevel(),
+                request.getEmployeeId(), request.getTags(), new ByteArrayInputStream(request.getContent()));
+    }
+
+    /**
+     * Streaming upload: the body is checksummed and encrypted on its way to the
+     * DocumentContentStore in one pass, with fixed-size buffers. Not
+     * transactional, the metadata is saved by HRDocumentWriter once the body is
+     * stored (and the body removed again if that fails).
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public HRDocumentDTO uploadDocument(String documentName, String contentType, DocumentAccessLevel level,
+                                        UUID employeeId, Set<String> tags, InputStream content) throws IOException {
+        // fail before reading the body
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found");
+        }
+        if (documentRepository.existsByDocumentName(documentName)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("A document named '" + documentName + "' already exists");
+        }
+
+        DocumentContentStore.StagedContent staged = contentStore.stage(content, contentType);
+        HRDocument pending = HRDocument.builder()
+                .documentName(documentName)
+                .contentType(contentType)
+                .storageKey(staged.key())
+                .fileSize(staged.size())
+                .level(level)
+                .tags(tags != null ? new HashSet<>(tags) : new HashSet<>())
                 .uploadedAt(Instant.now())
-                .checkSum(checksum)
+                .checkSum(staged.checkSum())
                 .build();
+        HRDocument document;
+        try {
+            document = contentStore.publish(staged, stored -> documentWriter.create(pending, employeeId, stored));
+        } catch (DataIntegrityViolationException e) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("A document named '" + documentName + "' already exists");
+        }
 
-        document = documentRepository.save(document);
+        log.info("Uploaded document {} ({} bytes, {} stored as {}) at {} MB/s", document.id(), staged.size(),
+                staged.storedSize(), staged.codec(), String.format("%.1f", staged.megabytesPerSecond()));
         return convertToDTO(document);
     }
 
+    /**
+     * Metadata of the documents the caller may see. The access rule is part of
+     * the query (see accessFilter), the content column is never selected and
+     * tags are read with one extra query for the whole list.
+     */
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
     public List<HRDocumentDTO> getAllDocuments() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        List<HRDocument> documents;
+        AccessFilter filter = accessFilter(SecurityContextHolder.getContext().getAuthentication());
+        if (filter == AccessFilter.NOTHING) {
+            return List.of();
+        }
+        return fieldQuery.selectPage(DOCUMENT_FIELDS, DOCUMENT_FIELDS.columns().keySet(),
+                        filter.where(), filter.parameters(), null, 0).stream()
+                .map(HRDocumentService::toDto)
+                .collect(Collectors.toList());
+    }
 
-        if (hasRole(auth, "ROLE_ADMIN") || hasRole(auth, "ROLE_HR_MANAGER")) {
-            documents = documentRepository.findAll();
-        } else {
-            // Filter documents based on user's access level
-            documents = documentRepository.findAll().stream()
-                    .filter(doc -> canAccessDocument(doc, auth))
-                    .collect(Collectors.toList());
+    /**
+     * Sparse variant of getAllDocuments: only the requested fields are
+     * selected, the content is never read.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllDocuments(String fields) {
+        Set<String> selected = fieldQuery.parse(DOCUMENT_FIELDS, fields);
+        AccessFilter filter = accessFilter(SecurityContextHolder.getContext().getAuthentication());
+        if (filter == AccessFilter.NOTHING) {
+            return List.of();
         }
+        return fieldQuery.select(DOCUMENT_FIELDS, selected, filter.where(), filter.parameters());
+    }
 
-        return documents.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDocumentById(UUID id, String fields) {
+        Set<String> selected = fieldQuery.parse(DOCUMENT_FIELDS, fields);
+        selected.addAll(ACCESS_FIELDS);
+        Map<String, Object> document = fieldQuery.select(DOCUMENT_FIELDS, selected, "d.id = :id", Map.of("id", id)).stream()
+                .findFirst()
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (!canAccessDocument((DocumentAccessLevel) document.get(ACCESS_LEVEL), (String) document.get(OWNER_EMAIL), auth)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return SparseFieldQuery.strip(document, ACCESS_FIELDS);
     }
 
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDocumentsByEmployee(UUID employeeId, String fields) {
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found");
+        }
+        AccessFilter filter = accessFilter(SecurityContextHolder.getContext().getAuthentication())
+                .and("d.employee.id = :employeeId", "employeeId", employeeId);
+        return fieldQuery.select(DOCUMENT_FIELDS, fieldQuery.parse(DOCUMENT_FIELDS, fields),
+                filter.where(), filter.parameters());
+    }
+
+    /** Metadata of the documents owned by the current user (no content, one query plus tags). */
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
+    public List<Map<String, Object>> getMyDocuments() {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        return fieldQuery.select(DOCUMENT_FIELDS, DOCUMENT_FIELDS.columns().keySet(),
+                "d.employee.user.email = :email", Map.of("email", email));
+    }
+
+    /**
+     * Keyset page of document metadata ordered by id, for bulk sync.
+     * HR and admins see every level, so no row filtering is needed.
+     */
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getDocumentPageAfter(UUID after, int limit) {
+        return fieldQuery.selectPage(DOCUMENT_FIELDS, DOCUMENT_FIELDS.columns().keySet(),
+                "d.id > :after", Map.of("after", after), "d.id", limit);
+    }
+
+    /**
+     * Concurrent reads of the same document share one query (see SingleFlight),
+     * the access rule is applied per caller afterwards. Not transactional so
+     * that waiting callers hold no connection: findDetailedById fetches
+     * everything the DTO reads (owner, owner's user, tags), so it does not rely
+     * on open-in-view for lazy loading.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     public HRDocumentDTO getDocumentById(UUID id) {
-        HRDocument document = documentRepository.findById(id)
-                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+        LoadedDocument loaded = documentLoads.load(id, () -> {
+            HRDocument document = documentRepository.findDetailedById(id)
+                    .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+            HRDocumentDTO dto = convertToDTO(document);
+            // detached, immutable tags: the DTO outlives the leader's persistence context
+            dto.setTags(document.tags() != null ? Set.copyOf(document.tags()) : Set.of());
+            String ownerEmail = document.employee() != null && document.employee().user() != null
+                    ? document.employee().user().getEmail() : null;
+            return new LoadedDocument(dto, document.level(), ownerEmail);
+        });
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (!canAccessDocument(document, auth)) {
+        if (!canAccessDocument(loaded.level(), loaded.ownerEmail(), auth)) {
             throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
         }
 
-        return convertToDTO(document);
+        return loaded.dto().toBuilder().build();
+    }
+
+    @TransactionalEventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        documentLoads.forget(event.documentId());
+    }
+
+    /**
+     * Current versions of the document and its owner, for If-None-Match checks.
+     * Reads versions and the access-check columns only, never the content.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public EntityVersions getDocumentVersions(UUID id) {
+        HRDocumentRepository.VersionRow row = documentRepository.findVersionById(id)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (!canAccessDocument(row.getLevel(), row.getOwnerEmail(), auth)) {
+            throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+        }
+        return EntityVersions.of(row.getVersion(), row.getEmployeeVersion());
     }
 
+    /**
+     * Metadata of a download, read with one query that leaves the content out.
+     * Hand it to openContent() to read the body.
+     */
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     @Transactional(readOnly = true)
-    public byte[] downloadDocument(UUID id) throws Exception {
-        HRDocument document = documentRepository.findById(id)
+    public DocumentContent getDocumentContent(UUID id) {
+        HRDocumentRepository.ContentRow row = documentRepository.findContentById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
 
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        if (!canAccessDocument(document, auth)) {
+        if (!canAccessDocument(row.getLevel(), row.getOwnerEmail(), auth)) {
             throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
         }
+        return new DocumentContent(id, row.getDocumentName(), row.getContentType(), row.getFileSize(),
+                row.getVersion(), row.getStorageKey());
+    }
+
+    /**
+     * Decrypted body from offset on. Stored bodies are decrypted (and
+     * inflated) as they are read; documents stored inline before the content store are decrypted in
+     * memory as before.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public InputStream openContent(DocumentContent content, long offset) throws Exception {
+        if (content.storageKey() != null) {
+            return contentStore.open(content.storageKey(), offset);
+        }
+        HRDocument document = documentRepository.findById(content.id())
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+        InputStream in = new ByteArrayInputStream(contentStore.decryptLegacy(document.encrypedContent()));
+        in.skipNBytes(offset);
+        return in;
+    }
+
+    /**
+     * Documents by tag (see DocumentTagIndex): the query and the facet counts
+     * run on the in-memory index with the caller's access rule applied, only
+     * the metadata of the returned page is read from the database.
+     */
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    @Transactional(readOnly = true)
+    public DocumentTagSearchResponse searchByTags(Set<String> all, Set<String> any, Set<String> none,
+                                                  int limit, int facetLimit) {
+        if (limit < 0 || limit > MAX_TAG_SEARCH_LIMIT || facetLimit < 0 || facetLimit > MAX_TAG_SEARCH_LIMIT) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("limit and facets must be between 0 and " + MAX_TAG_SEARCH_LIMIT);
+        }
+        if (all.isEmpty() && any.isEmpty() && none.isEmpty()) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("At least one of all, any or none is required");
+        }
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        DocumentTagIndex.Access access = hasRole(auth, "ROLE_ADMIN") || hasRole(auth, "ROLE_HR_MANAGER")
+                ? DocumentTagIndex.Access.EVERYTHING
+                : new DocumentTagIndex.Access(false, hasRole(auth, "ROLE_MANAGER"),
+                        employeeRepository.findIdByUserEmail(auth.getName()).orElse(null));
+        DocumentTagIndex.Result result = tagIndex.query(all, any, none, access, limit, facetLimit);
+        if (result.documentIds().isEmpty()) {
+            return new DocumentTagSearchResponse(result.total(), List.of(), result.facets());
+        }
 
-        // Decrypt and return content
-        return decryptContent(document.encrypedContent());
+        Map<UUID, HRDocumentDTO> byId = new HashMap<>();
+        fieldQuery.selectPage(DOCUMENT_FIELDS, DOCUMENT_FIELDS.columns().keySet(),
+                        "d.id in :ids", Map.of("ids", result.documentIds()), null, 0)
+                .forEach(row -> byId.put((UUID) row.get("id"), toDto(row)));
+        // index order; a document deleted since the query is left out
+        List<HRDocumentDTO> documents = result.documentIds().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new DocumentTagSearchResponse(result.total(), documents, result.facets());
+    }
+
+    /**
+     * Compression savings per content type and codec, largest original size
+     * first. Bodies stored before compression are left out.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @Transactional(readOnly = true)
+    public List<DocumentStorageReportDto> getStorageReport() {
+        return documentRepository.summarizeStorage().stream()
+                .map(row -> new DocumentStorageReportDto(row.getContentType(), row.getCompression(),
+                        row.getDocuments(), row.getOriginalBytes(), row.getStoredBytes(), row.getUniqueStoredBytes(),
+                        row.getOriginalBytes() - row.getUniqueStoredBytes(),
+                        row.getOriginalBytes() == 0 ? 0
+                                : 100.0 * (row.getOriginalBytes() - row.getUniqueStoredBytes()) / row.getOriginalBytes()))
+                .sorted(Comparator.comparingLong(DocumentStorageReportDto::originalBytes).reversed())
+                .toList();
     }
 
     /**
@@ -126,23 +368,89 @@ public class HRDocumentService {
     //by default, readOnly = false which means for writing operations.
     @Transactional(readOnly = true)
     public List<HRDocumentDTO> getDocumentsByEmployee(UUID employeeId) {
-        Employee employee = employeeRepository.findById(employeeId)
-                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
-
-        return documentRepository.findByEmployee(employee).stream()
-                .map(this::convertToDTO)
+        if (!employeeRepository.existsById(employeeId)) {
+            throw new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found");
+        }
+        AccessFilter filter = accessFilter(SecurityContextHolder.getContext().getAuthentication())
+                .and("d.employee.id = :employeeId", "employeeId", employeeId);
+        return fieldQuery.selectPage(DOCUMENT_FIELDS, DOCUMENT_FIELDS.columns().keySet(),
+                        filter.where(), filter.parameters(), null, 0).stream()
+                .map(HRDocumentService::toDto)
                 .collect(Collectors.toList());
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
-    public void deleteDocument(UUID id) {
+    public void deleteDocument(UUID id, Long expectedVersion) {
         HRDocument document = documentRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Document not found"));
+        if (expectedVersion != null && document.version() != expectedVersion) {
+            throw new tn.sesame.rh_management_backend.exceptions.PreconditionFailedException("Document has been modified since version " + expectedVersion);
+        }
         documentRepository.delete(document);
+        if (document.storageKey() != null) {
+            contentStore.release(document.storageKey());
+        }
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document, ChangeType.DELETED));
+    }
+
+    /**
+     * canAccessDocument as a JPQL predicate on d. The owner is matched on the
+     * owner_id column (the caller's employee id is looked up once), so an
+     * employee's listing is an index lookup rather than a scan.
+     */
+    private AccessFilter accessFilter(Authentication auth) {
+        if (hasRole(auth, "ROLE_ADMIN") || hasRole(auth, "ROLE_HR_MANAGER")) {
+            return AccessFilter.EVERYTHING;
+        }
+        UUID ownerId = employeeRepository.findIdByUserEmail(auth.getName()).orElse(null);
+        if (hasRole(auth, "ROLE_MANAGER")) {
+            Map<String, Object> parameters = new HashMap<>();
+            parameters.put("confidential", DocumentAccessLevel.CONFIDENTIAL);
+            if (ownerId == null) {
+                return new AccessFilter("(d.level is null or d.level <> :confidential)", parameters);
+            }
+            parameters.put("ownerId", ownerId);
+            return new AccessFilter("(d.level is null or d.level <> :confidential or d.employee.id = :ownerId)", parameters);
+        }
+        return ownerId == null ? AccessFilter.NOTHING
+                : new AccessFilter("d.employee.id = :ownerId", Map.of("ownerId", ownerId));
+    }
+
+    // where == null: no restriction
+    private record AccessFilter(String where, Map<String, Object> parameters) {
+        static final AccessFilter EVERYTHING = new AccessFilter(null, Map.of());
+        static final AccessFilter NOTHING = new AccessFilter("1 = 0", Map.of());
+
+        AccessFilter and(String predicate, String name, Object value) {
+            Map<String, Object> combined = new HashMap<>(parameters);
+            combined.put(name, value);
+            return new AccessFilter(where == null ? predicate : where + " and " + predicate, combined);
+        }
     }
 
-    private boolean canAccessDocument(HRDocument document, Authentication auth) {
+    // row of DOCUMENT_FIELDS read with selectPage (raw values)
+    @SuppressWarnings("unchecked")
+    private static HRDocumentDTO toDto(Map<String, Object> row) {
+        List<String> tags = (List<String>) row.get("tags");
+        return HRDocumentDTO.builder()
+                .id((UUID) row.get("id"))
+                .documentName((String) row.get("documentName"))
+                .contentType((String) row.get("contentType"))
+                .fileSize((Long) row.get("fileSize"))
+                .compression((ContentCodec) row.get("compression"))
+                .level((DocumentAccessLevel) row.get("level"))
+                .employeeId((UUID) row.get("employeeId"))
+                .employeeName((String) row.get("employeeName"))
+                .tags(tags != null ? new HashSet<>(tags) : Set.of())
+                .uploadedAt((Instant) row.get("uploadedAt"))
+                .checkSum((String) row.get("checkSum"))
+                .version((Long) row.get("version"))
+                .build();
+    }
+
+    // also used by LiveUpdateService to filter pushed document updates
+    static boolean canAccessDocument(DocumentAccessLevel level, String ownerEmail, Authentication auth) {
         String userEmail = auth.getName();
 
         // Admin and HR Manager can access all documents
@@ -151,59 +459,40 @@ public class HRDocumentService {
         }
 
         // Check if user is the document owner
-        if (document.employee() != null && 
-            document.employee().user() != null && 
-            document.employee().user().getEmail().equals(userEmail)) {
+        if (ownerEmail != null && ownerEmail.equals(userEmail)) {
             return true;
         }
 
         // Managers can access their subordinates' documents
-        if (hasRole(auth, "ROLE_MANAGER") && document.level() != DocumentAccessLevel.CONFIDENTIAL) {
+        if (hasRole(auth, "ROLE_MANAGER") && level != DocumentAccessLevel.CONFIDENTIAL) {
             return true;
         }
 
         return false;
     }
 
-    private boolean hasRole(Authentication auth, String role) {
+    private static boolean hasRole(Authentication auth, String role) {
         return auth.getAuthorities().stream()
                 .anyMatch(a -> a.getAuthority().equals(role));
     }
 
-    private byte[] encryptContent(byte[] content) throws Exception {
-        SecretKeySpec key = new SecretKeySpec(ENCRYPTION_KEY.getBytes(StandardCharsets.UTF_8), "AES");
-        Cipher cipher = Cipher.getInstance("AES");
-        cipher.init(Cipher.ENCRYPT_MODE, key);
-        return cipher.doFinal(content);
-    }
-
-    private byte[] decryptContent(byte[] encryptedContent) throws Exception {
-        SecretKeySpec key = new SecretKeySpec(ENCRYPTION_KEY.getBytes(StandardCharsets.UTF_8), "AES");
-        Cipher cipher = Cipher.getInstance("AES");
-        cipher.init(Cipher.DECRYPT_MODE, key);
-        return cipher.doFinal(encryptedContent);
-    }
-
-    private String calculateChecksum(byte[] content) throws Exception {
-        MessageDigest digest = MessageDigest.getInstance("SHA-256");
-        byte[] hash = digest.digest(content);
-        return Base64.getEncoder().encodeToString(hash);
-    }
-
     private HRDocumentDTO convertToDTO(HRDocument document) {
         HRDocumentDTO.HRDocumentDTOBuilder builder = HRDocumentDTO.builder()
                 .id(document.id())
                 .documentName(document.documentName())
                 .contentType(document.contentType())
                 .fileSize(document.fileSize())
+                .compression(document.compression())
                 .level(document.level())
                 .tags(document.tags())
                 .uploadedAt(document.uploadedAt())
-                .checkSum(document.checkSum());
+                .checkSum(document.checkSum())
+                .version(document.version());
 
         if (document.employee() != null) {
             builder.employeeId(document.employee().id())
-                   .employeeName(document.employee().firstName() + " " + document.employee().lastName());
+                   .employeeName(document.employee().firstName() + " " + document.employee().lastName())
+                   .employeeVersion(document.employee().version());
         }
 
         return builder.build();
@@ -0,0 +1,55 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Entities.HRDocument;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Events.DocumentChangedEvent;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+
+import java.util.UUID;
+
+/**
+ * Saves the metadata of an uploaded document once its body is in the
+ * DocumentContentStore, together with the body's reference. Kept apart from
+ * the upload so that no transaction (and no connection) is held while the
+ * body is streamed.
+ */
+@Component
+@RequiredArgsConstructor
+public class HRDocumentWriter {
+
+    private final HRDocumentRepository documentRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentContentStore contentStore;
+
+    @Transactional
+    public HRDocument create(HRDocument document, UUID employeeId, DocumentContentStore.StagedContent stored) {
+        Employee employee = employeeRepository.findById(employeeId)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Employee not found"));
+        document.employee(employee);
+        document.compression(stored.codec());
+        document = documentRepository.saveAndFlush(document);
+        contentStore.retain(stored);
+        eventPublisher.publishEvent(DocumentChangedEvent.of(document, ChangeType.CREATED));
+        return document;
+    }
+
+    /**
+     * Points a document at its body in the store (content migration). The
+     * version guard skips documents changed or deleted since they were read.
+     */
+    @Transactional
+    public boolean moveContent(UUID id, long version, DocumentContentStore.StagedContent stored) {
+        if (documentRepository.moveContent(id, version, stored.key(), stored.codec()) == 0) {
+            return false;
+        }
+        contentStore.retain(stored);
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+package tn.sesame.rh_management_backend.Services;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.sesame.rh_management_backend.dto.LiveUpdateDto;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In-process publish/subscribe broker behind the SSE endpoint.
+ *
+ * A subscriber is an SseEmitter (async servlet request, no thread while idle)
+ * plus a small queue. Publishing only enqueues; a virtual thread is started to
+ * write to the connection when the queue goes from empty to non-empty and ends
+ * once it is drained, so idle subscribers hold no thread at all and a slow
+ * connection only blocks its own virtual thread. A subscriber whose queue
+ * exceeds hr.live.buffer-size is disconnected (slow consumer), the client is
+ * expected to reconnect and reload.
+ */
+@Slf4j
+@Component
+public class LiveUpdateBroker {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+
+    private final Map<String, Set<Subscriber>> topics = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LiveUpdateBroker(@Value("${hr.live.buffer-size:64}") int bufferSize,
+                            @Value("${hr.live.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${hr.live.timeout-ms:1800000}") long timeoutMs) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public SseEmitter subscribe(Authentication authentication, Set<String> subscribedTopics) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Too many live subscriptions, retry later");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, authentication, Set.copyOf(subscribedTopics));
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        subscribers.add(subscriber);
+        // add inside compute: close() removes empty topic sets concurrently
+        subscribedTopics.forEach(topic -> topics.compute(topic, (k, set) -> {
+            Set<Subscriber> topicSubscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+            topicSubscribers.add(subscriber);
+            return topicSubscribers;
+        }));
+        // first write commits the response headers
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    /**
+     * Fans an update out to the subscribers of any of the topics that pass the
+     * access check. Each subscriber receives it at most once.
+     */
+    public void publish(LiveUpdateDto update, Collection<String> updateTopics, Predicate<Authentication> canSee) {
+        Set<Subscriber> targets = new HashSet<>();
+        for (String topic : updateTopics) {
+            Set<Subscriber> topicSubscribers = topics.get(topic);
+            if (topicSubscribers != null) {
+                targets.addAll(topicSubscribers);
+            }
+        }
+        for (Subscriber subscriber : targets) {
+            if (canSee.test(subscriber.authentication)) {
+                subscriber.offer(update);
+            }
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // keeps proxies from closing idle connections and detects dead ones
+    @Scheduled(fixedRateString = "${hr.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.pending.get() == 0) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        final SseEmitter emitter;
+        final Authentication authentication;
+        final Set<String> topics;
+        final ConcurrentLinkedQueue<Object> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger pending = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Authentication authentication, Set<String> topics) {
+            this.emitter = emitter;
+            this.authentication = authentication;
+            this.topics = topics;
+        }
+
+        void offer(Object message) {
+            if (closed.get()) {
+                return;
+            }
+            if (pending.incrementAndGet() > bufferSize) {
+                log.debug("Dropping slow live subscriber {}", authentication.getName());
+                emitter.complete();
+                close();
+                return;
+            }
+            queue.add(message);
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void drain() {
+            do {
+                Object message;
+                while ((message = queue.poll()) != null) {
+                    try {
+                        if (message == HEARTBEAT) {
+                            emitter.send(SseEmitter.event().comment("keep-alive"));
+                        } else {
+                            LiveUpdateDto update = (LiveUpdateDto) message;
+                            emitter.send(SseEmitter.event()
+                                    .name(update.resource().name().toLowerCase())
+                                    .data(update, MediaType.APPLICATION_JSON));
+                        }
+                    } catch (IOException | IllegalStateException e) {
+                        // connection gone or emitter already completed
+                        close();
+                        return;
+                    }
+                    pending.decrementAndGet();
+                }
+                draining.set(false);
+                // a message may have been queued between the last poll and the reset
+            } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                for (String topic : topics) {
+                    LiveUpdateBroker.this.topics.computeIfPresent(topic, (k, set) -> {
+                        set.remove(this);
+                        return set.isEmpty() ? null : set;
+                    });
+                }
+                queue.clear();
+            }
+        }
+    }
+}
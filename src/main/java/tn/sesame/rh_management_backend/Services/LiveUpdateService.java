@@ -0,0 +1,110 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.sesame.rh_management_backend.Entities.Employee;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Events.DocumentChangedEvent;
+import tn.sesame.rh_management_backend.Events.EmployeeChangedEvent;
+import tn.sesame.rh_management_backend.dto.LiveUpdateDto;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Live updates over SSE.
+ *
+ * Topics: employee:{id} (changes of one employee), department:{DEPARTMENT}
+ * (changes of any employee in it, before or after the change) and owner:{employeeId}
+ * (documents uploaded for or deleted from an employee). Updates are published
+ * after commit and filtered per subscriber with the same rules as the read
+ * endpoints (EmployeeService.canAccessEmployee, HRDocumentService.canAccessDocument).
+ */
+@Service
+@RequiredArgsConstructor
+public class LiveUpdateService {
+
+    static final int MAX_TOPICS = 50;
+
+    private final LiveUpdateBroker broker;
+
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public SseEmitter subscribe(List<UUID> employees, List<String> departments, List<UUID> owners) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Set<String> topics = new LinkedHashSet<>();
+        employees.forEach(id -> topics.add(employeeTopic(id)));
+        owners.forEach(id -> topics.add(ownerTopic(id)));
+        if (!departments.isEmpty()) {
+            // same roles as GET /api/employees/department/{department}
+            boolean allowed = authentication.getAuthorities().stream()
+                    .anyMatch(a -> a.getAuthority().equals("ROLE_MANAGER")
+                            || a.getAuthority().equals("ROLE_HR_MANAGER")
+                            || a.getAuthority().equals("ROLE_ADMIN"));
+            if (!allowed) {
+                throw new tn.sesame.rh_management_backend.exceptions.ForbiddenException("Access denied");
+            }
+            departments.forEach(department -> topics.add(departmentTopic(parseDepartment(department))));
+        }
+        if (topics.isEmpty() || topics.size() > MAX_TOPICS) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Subscribe to between 1 and " + MAX_TOPICS + " topics");
+        }
+        return broker.subscribe(authentication, topics);
+    }
+
+    @TransactionalEventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Employee employee = event.employee();
+        Set<String> topics = new LinkedHashSet<>();
+        topics.add(employeeTopic(event.employeeId()));
+        if (employee.department() != null) {
+            topics.add(departmentTopic(employee.department()));
+        }
+        if (event.previous() != null && event.previous().department() != null) {
+            topics.add(departmentTopic(event.previous().department()));
+        }
+        String ownerEmail = employee.user() != null ? employee.user().getEmail() : null;
+        broker.publish(new LiveUpdateDto(ChangeResource.EMPLOYEE, event.employeeId(), event.type(),
+                        employee.department(), null, employee.version(), Instant.now()),
+                topics, authentication -> EmployeeService.canAccessEmployee(ownerEmail, authentication));
+    }
+
+    @TransactionalEventListener
+    public void onDocumentChanged(DocumentChangedEvent event) {
+        if (event.ownerId() == null) {
+            return;
+        }
+        broker.publish(new LiveUpdateDto(ChangeResource.DOCUMENT, event.documentId(), event.type(),
+                        null, event.ownerId(), event.version(), Instant.now()),
+                List.of(ownerTopic(event.ownerId())),
+                authentication -> HRDocumentService.canAccessDocument(event.level(), event.ownerEmail(), authentication));
+    }
+
+    private static String employeeTopic(UUID id) {
+        return "employee:" + id;
+    }
+
+    private static String departmentTopic(EmployeeDepartment department) {
+        return "department:" + department.name();
+    }
+
+    private static String ownerTopic(UUID id) {
+        return "owner:" + id;
+    }
+
+    private static EmployeeDepartment parseDepartment(String department) {
+        try {
+            return EmployeeDepartment.valueOf(department.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Unknown department: " + department);
+        }
+    }
+}
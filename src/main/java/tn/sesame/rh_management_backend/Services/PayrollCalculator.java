@@ -0,0 +1,76 @@
+package tn.sesame.rh_management_backend.Services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Entities.Payslip;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.UUID;
+
+/**
+ * Computes one payslip from the employee's monthly base salary.
+ *
+ * - PART_TIME contracts are paid hr.payroll.part-time-factor of the base salary.
+ * - Employees hired during the month are prorated by calendar days.
+ * - CONTRACTORs are invoiced gross: no employee contributions are withheld.
+ */
+@Component
+public class PayrollCalculator {
+
+    private final BigDecimal partTimeFactor;
+    private final BigDecimal contributionRate;
+
+    public PayrollCalculator(@Value("${hr.payroll.part-time-factor:0.5}") BigDecimal partTimeFactor,
+                             @Value("${hr.payroll.contribution-rate:0.0918}") BigDecimal contributionRate) {
+        this.partTimeFactor = partTimeFactor;
+        this.contributionRate = contributionRate;
+    }
+
+    /**
+     * @return the payslip, or null when the employee is not payable for this period
+     * (no salary, or hired after the end of the month)
+     */
+    public Payslip compute(EmployeeRepository.PayrollRow employee, YearMonth period, UUID runId, Instant now) {
+        BigDecimal salary = employee.getSalary();
+        LocalDate periodStart = period.atDay(1);
+        LocalDate periodEnd = period.atEndOfMonth();
+        if (salary == null || (employee.getHireDate() != null && employee.getHireDate().isAfter(periodEnd))) {
+            return null;
+        }
+
+        BigDecimal factor = BigDecimal.ONE;
+        if (employee.getContract() == ContractType.PART_TIME) {
+            factor = factor.multiply(partTimeFactor);
+        }
+        if (employee.getHireDate() != null && employee.getHireDate().isAfter(periodStart)) {
+            int daysInMonth = period.lengthOfMonth();
+            int daysWorked = daysInMonth - employee.getHireDate().getDayOfMonth() + 1;
+            factor = factor.multiply(BigDecimal.valueOf(daysWorked))
+                    .divide(BigDecimal.valueOf(daysInMonth), 6, RoundingMode.HALF_UP);
+        }
+
+        BigDecimal gross = salary.multiply(factor).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal contributions = employee.getContract() == ContractType.CONTRACTOR
+                ? BigDecimal.ZERO.setScale(2)
+                : gross.multiply(contributionRate).setScale(2, RoundingMode.HALF_UP);
+
+        return Payslip.builder()
+                .runId(runId)
+                .employeeId(employee.getId())
+                .period(period.toString())
+                .contract(employee.getContract())
+                .baseSalary(salary)
+                .payFactor(factor.setScale(6, RoundingMode.HALF_UP))
+                .grossAmount(gross)
+                .contributions(contributions)
+                .netAmount(gross.subtract(contributions))
+                .createdAt(now)
+                .build();
+    }
+}
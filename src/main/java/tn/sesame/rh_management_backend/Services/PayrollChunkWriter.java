@@ -0,0 +1,40 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import tn.sesame.rh_management_backend.Entities.PayrollPartition;
+import tn.sesame.rh_management_backend.Entities.Payslip;
+import tn.sesame.rh_management_backend.Repositories.PayrollPartitionRepository;
+import tn.sesame.rh_management_backend.Repositories.PayrollRunRepository;
+import tn.sesame.rh_management_backend.Repositories.PayslipRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Commits one payroll chunk: payslips (batched inserts, see hibernate.jdbc.batch_size)
+ * and the partition cursor in a single transaction.
+ */
+@Component
+@RequiredArgsConstructor
+public class PayrollChunkWriter {
+
+    private final PayslipRepository payslipRepository;
+    private final PayrollPartitionRepository partitionRepository;
+    private final PayrollRunRepository runRepository;
+
+    @Transactional
+    public void commit(UUID partitionId, List<Payslip> payslips, UUID cursor, int processed, boolean done) {
+        payslipRepository.saveAll(payslips);
+
+        PayrollPartition partition = partitionRepository.findById(partitionId)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Payroll partition not found"));
+        if (cursor != null) {
+            partition.lastEmployeeId(cursor);
+        }
+        partition.processed(partition.processed() + processed).done(done);
+
+        runRepository.addProgress(partition.runId(), processed, payslips.size());
+    }
+}
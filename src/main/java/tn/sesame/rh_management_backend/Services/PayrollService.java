@@ -0,0 +1,260 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.Entities.PayrollPartition;
+import tn.sesame.rh_management_backend.Entities.PayrollRun;
+import tn.sesame.rh_management_backend.Entities.Payslip;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
+import tn.sesame.rh_management_backend.Enumerations.PayrollRunStatus;
+import tn.sesame.rh_management_backend.Repositories.EmployeeRepository;
+import tn.sesame.rh_management_backend.Repositories.PayrollPartitionRepository;
+import tn.sesame.rh_management_backend.Repositories.PayrollRunRepository;
+import tn.sesame.rh_management_backend.dto.PayrollRunDto;
+import tn.sesame.rh_management_backend.dto.PayrollRunRequest;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Partitioned, restartable payroll engine.
+ *
+ * The employee key space (UUIDs) is split into hr.payroll.partitions ranges on
+ * the leading bits of the id. Each partition runs on its own virtual thread:
+ * it reads keyset chunks of hr.payroll.chunk-size employees, computes the
+ * payslips and commits them together with its cursor (PayrollChunkWriter).
+ * A failed or interrupted run is resumed from each partition's last committed chunk.
+ */
+@Slf4j
+@Service
+public class PayrollService {
+
+    private final PayrollRunRepository runRepository;
+    private final PayrollPartitionRepository partitionRepository;
+    private final EmployeeRepository employeeRepository;
+    private final PayrollCalculator calculator;
+    private final PayrollChunkWriter chunkWriter;
+    private final int partitions;
+    private final int chunkSize;
+
+    private final Map<UUID, ActiveRun> activeRuns = new ConcurrentHashMap<>();
+
+    public PayrollService(PayrollRunRepository runRepository,
+                          PayrollPartitionRepository partitionRepository,
+                          EmployeeRepository employeeRepository,
+                          PayrollCalculator calculator,
+                          PayrollChunkWriter chunkWriter,
+                          @Value("${hr.payroll.partitions:8}") int partitions,
+                          @Value("${hr.payroll.chunk-size:1000}") int chunkSize) {
+        if (partitions < 2 || partitions > 256 || Integer.bitCount(partitions) != 1) {
+            throw new IllegalArgumentException("hr.payroll.partitions must be a power of two between 2 and 256");
+        }
+        this.runRepository = runRepository;
+        this.partitionRepository = partitionRepository;
+        this.employeeRepository = employeeRepository;
+        this.calculator = calculator;
+        this.chunkWriter = chunkWriter;
+        this.partitions = partitions;
+        this.chunkSize = chunkSize;
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public PayrollRunDto startRun(PayrollRunRequest request) {
+        String period = request.period().toString();
+        if (runRepository.findByPeriod(period).isPresent()) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("A payroll run already exists for " + period);
+        }
+
+        PayrollRun run;
+        try {
+            run = runRepository.save(PayrollRun.builder()
+                    .period(period)
+                    .status(PayrollRunStatus.RUNNING)
+                    .totalEmployees(employeeRepository.countByStatus(EmploymentStatus.ACTIVE))
+                    .startedAt(Instant.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent start for the same period won the unique constraint
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("A payroll run already exists for " + period);
+        }
+
+        int bits = Integer.numberOfTrailingZeros(partitions);
+        List<PayrollPartition> slices = new ArrayList<>();
+        UUID lower = new UUID(0L, 0L);
+        for (int i = 0; i < partitions; i++) {
+            // inclusive upper bound: all ones below the partition prefix, e.g. 1fffffff-...-ffffffffffff
+            UUID upper = new UUID(((long) (i + 1) << (64 - bits)) - 1, -1L);
+            slices.add(PayrollPartition.builder()
+                    .runId(run.id())
+                    .partitionIndex(i)
+                    .lastEmployeeId(lower)
+                    .upperBound(upper)
+                    .build());
+            lower = upper;
+        }
+        partitionRepository.saveAll(slices);
+
+        launch(run);
+        return toDto(run);
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public PayrollRunDto resumeRun(UUID runId) {
+        PayrollRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Payroll run not found"));
+        if (run.status() == PayrollRunStatus.COMPLETED) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Payroll run is already completed");
+        }
+        run.status(PayrollRunStatus.RUNNING).lastError(null).finishedAt(null);
+        run = runRepository.save(run);
+        launch(run);
+        return toDto(run);
+    }
+
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public PayrollRunDto getRun(UUID runId) {
+        PayrollRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("Payroll run not found"));
+        return toDto(run);
+    }
+
+    /**
+     * Live progress of the runs executing on this instance (used by the actuator endpoint).
+     */
+    public List<PayrollRunDto> activeRuns() {
+        return activeRuns.keySet().stream()
+                .map(runRepository::findById)
+                .flatMap(Optional::stream)
+                .map(this::toDto)
+                .toList();
+    }
+
+    // ---------------------------------------------------------------- engine
+
+    private void launch(PayrollRun run) {
+        ActiveRun active = new ActiveRun(run.id(), YearMonth.parse(run.period()), run.totalEmployees(),
+                run.processedEmployees(), System.nanoTime());
+        if (activeRuns.putIfAbsent(run.id(), active) != null) {
+            throw new tn.sesame.rh_management_backend.exceptions.ConflictException("Payroll run is already executing");
+        }
+        Thread.ofVirtual().name("payroll-" + run.period()).start(() -> execute(active));
+    }
+
+    private void execute(ActiveRun active) {
+        String error = null;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (PayrollPartition partition : partitionRepository.findByRunIdOrderByPartitionIndex(active.runId)) {
+                if (!partition.done()) {
+                    futures.add(executor.submit(() -> processPartition(active, partition)));
+                }
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    // keep waiting for the other partitions, their progress is committed independently
+                    log.error("Payroll partition of run {} failed", active.runId, e);
+                    error = e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                }
+            }
+        } finally {
+            finish(active, error);
+        }
+    }
+
+    private void processPartition(ActiveRun active, PayrollPartition partition) {
+        UUID cursor = partition.lastEmployeeId();
+        while (true) {
+            List<EmployeeRepository.PayrollRow> rows =
+                    employeeRepository.findPayrollChunk(cursor, partition.upperBound(), PageRequest.of(0, chunkSize));
+
+            Instant now = Instant.now();
+            List<Payslip> payslips = new ArrayList<>(rows.size());
+            for (EmployeeRepository.PayrollRow row : rows) {
+                Payslip payslip = calculator.compute(row, active.period, active.runId, now);
+                if (payslip != null) {
+                    payslips.add(payslip);
+                }
+            }
+
+            boolean last = rows.size() < chunkSize;
+            UUID next = rows.isEmpty() ? cursor : rows.get(rows.size() - 1).getId();
+            chunkWriter.commit(partition.id(), payslips, next, rows.size(), last);
+            active.processed.addAndGet(rows.size());
+
+            if (last) {
+                return;
+            }
+            cursor = next;
+        }
+    }
+
+    private void finish(ActiveRun active, String error) {
+        try {
+            runRepository.findById(active.runId).ifPresent(run -> {
+                run.status(error == null ? PayrollRunStatus.COMPLETED : PayrollRunStatus.FAILED)
+                        .finishedAt(Instant.now())
+                        .lastError(error);
+                runRepository.save(run);
+                log.info("Payroll run {} for {} finished with status {}: {} employees, {} payslips",
+                        run.id(), run.period(), run.status(), run.processedEmployees(), run.payslipCount());
+            });
+        } finally {
+            activeRuns.remove(active.runId);
+        }
+    }
+
+    private PayrollRunDto toDto(PayrollRun run) {
+        Double throughput = null;
+        Long eta = null;
+        ActiveRun active = activeRuns.get(run.id());
+        if (active != null) {
+            double seconds = (System.nanoTime() - active.startedNanos) / 1e9;
+            long done = active.processed.get();
+            throughput = seconds > 0 ? done / seconds : 0.0;
+            long remaining = Math.max(0, active.total - active.processedAtStart - done);
+            eta = throughput > 0 ? (long) Math.ceil(remaining / throughput) : null;
+        }
+        return new PayrollRunDto(
+                run.id(),
+                run.period(),
+                run.status(),
+                run.totalEmployees(),
+                run.processedEmployees(),
+                run.payslipCount(),
+                throughput,
+                eta,
+                run.startedAt(),
+                run.finishedAt(),
+                run.lastError()
+        );
+    }
+
+    private static final class ActiveRun {
+        final UUID runId;
+        final YearMonth period;
+        final long total;
+        final long processedAtStart;
+        final long startedNanos;
+        final AtomicLong processed = new AtomicLong();
+
+        ActiveRun(UUID runId, YearMonth period, long total, long processedAtStart, long startedNanos) {
+            this.runId = runId;
+            this.period = period;
+            this.total = total;
+            this.processedAtStart = processedAtStart;
+            this.startedNanos = startedNanos;
+        }
+    }
+}
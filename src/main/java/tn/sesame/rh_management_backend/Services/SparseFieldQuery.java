@@ -0,0 +1,236 @@
+package tn.sesame.rh_management_backend.Services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Sparse fieldsets (?fields=a,b,c) for read endpoints.
+ *
+ * A resource declares its selectable fields as JPQL expressions, keyed by the
+ * DTO property name. Only the requested fields end up in the SELECT clause,
+ * joins are added only when a requested field needs them, and nothing is
+ * loaded lazily: the rows are built straight from the tuples.
+ *
+ * Dotted names ("user.email") are returned as nested objects; asking for the
+ * prefix alone ("user") selects every field under it. Collection fields (tags)
+ * are read with one extra query for the whole page. The id is always returned.
+ */
+@Component
+@RequiredArgsConstructor
+public class SparseFieldQuery {
+
+    // same format as the @JsonFormat of the DTO timestamps
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+
+    private final EntityManager entityManager;
+
+    /**
+     * One selectable field. join is the JPQL join it needs (or null);
+     * a collection field is read as a list with a separate query.
+     */
+    public record Column(String expression, String join, boolean collection) {
+        public static Column of(String expression) {
+            return new Column(expression, null, false);
+        }
+
+        public static Column joined(String expression, String join) {
+            return new Column(expression, join, false);
+        }
+
+        public static Column collection(String expression, String join) {
+            return new Column(expression, join, true);
+        }
+    }
+
+    /**
+     * Selectable fields of one entity. columns are exposed through fields=,
+     * internal columns are only requested by services (e.g. for access checks).
+     */
+    public record Resource(String entity, String alias, Map<String, Column> columns, Map<String, Column> internal) {
+        Column column(String name) {
+            Column column = columns.get(name);
+            return column != null ? column : internal.get(name);
+        }
+    }
+
+    @SafeVarargs
+    public static Map<String, Column> columns(Map.Entry<String, Column>... entries) {
+        Map<String, Column> columns = new LinkedHashMap<>();
+        for (Map.Entry<String, Column> entry : entries) {
+            columns.put(entry.getKey(), entry.getValue());
+        }
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Parses and validates a fields parameter. Unknown fields are rejected so
+     * a typo does not silently return an empty object.
+     */
+    public Set<String> parse(Resource resource, String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (resource.columns().containsKey(name)) {
+                selected.add(name);
+                continue;
+            }
+            List<String> nested = resource.columns().keySet().stream()
+                    .filter(column -> column.startsWith(name + "."))
+                    .toList();
+            if (nested.isEmpty()) {
+                throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Unknown field '" + name
+                        + "', expected one of " + topLevel(resource));
+            }
+            selected.addAll(nested);
+        }
+        return selected;
+    }
+
+    /**
+     * Runs "select <requested fields> from <entity> <joins> where <where>".
+     * Internal fields are returned as well; the caller removes them with strip().
+     */
+    public List<Map<String, Object>> select(Resource resource, Set<String> fields, String where,
+                                            Map<String, Object> parameters) {
+        return select(resource, fields, where, parameters, null, 0, true);
+    }
+
+    /**
+     * Keyset page for non-JSON consumers: "... where <where> order by <orderBy>"
+     * limited to limit rows (0: no limit). Values are returned as read
+     * (timestamps stay Instants), e.g. to build DTOs.
+     */
+    public List<Map<String, Object>> selectPage(Resource resource, Set<String> fields, String where,
+                                                Map<String, Object> parameters, String orderBy, int limit) {
+        return select(resource, fields, where, parameters, orderBy, limit, false);
+    }
+
+    private List<Map<String, Object>> select(Resource resource, Set<String> fields, String where,
+                                             Map<String, Object> parameters, String orderBy, int limit,
+                                             boolean formatted) {
+        List<String> scalars = new ArrayList<>();
+        List<String> collections = new ArrayList<>();
+        Set<String> joins = new LinkedHashSet<>();
+        for (String field : fields) {
+            Column column = resource.column(field);
+            if (column.collection()) {
+                collections.add(field);
+            } else {
+                scalars.add(field);
+                if (column.join() != null) {
+                    joins.add(column.join());
+                }
+            }
+        }
+
+        StringBuilder jpql = new StringBuilder("select ");
+        for (int i = 0; i < scalars.size(); i++) {
+            if (i > 0) {
+                jpql.append(", ");
+            }
+            jpql.append(resource.column(scalars.get(i)).expression());
+        }
+        jpql.append(" from ").append(resource.entity()).append(' ').append(resource.alias());
+        joins.forEach(join -> jpql.append(' ').append(join));
+        if (where != null) {
+            jpql.append(" where ").append(where);
+        }
+        if (orderBy != null) {
+            jpql.append(" order by ").append(orderBy);
+        }
+
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        parameters.forEach(query::setParameter);
+        if (limit > 0) {
+            query.setMaxResults(limit);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Map<Object, Map<String, Object>> byId = new HashMap<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < scalars.size(); i++) {
+                put(row, scalars.get(i), formatted ? value(tuple.get(i)) : tuple.get(i));
+            }
+            nullEmptyObjects(row);
+            rows.add(row);
+            byId.put(row.get("id"), row);
+        }
+
+        for (String field : collections) {
+            loadCollection(resource, field, byId, formatted);
+        }
+        return rows;
+    }
+
+    /** Removes internal fields once the caller is done with them. */
+    public static Map<String, Object> strip(Map<String, Object> row, Collection<String> internal) {
+        internal.forEach(row::remove);
+        return row;
+    }
+
+    private void loadCollection(Resource resource, String field, Map<Object, Map<String, Object>> rows,
+                                boolean formatted) {
+        rows.values().forEach(row -> row.put(field, new ArrayList<>()));
+        if (rows.isEmpty()) {
+            return;
+        }
+        Column column = resource.column(field);
+        String alias = resource.alias();
+        List<Object[]> values = entityManager.createQuery(
+                        "select " + alias + ".id, " + column.expression() + " from " + resource.entity() + ' ' + alias
+                                + ' ' + column.join() + " where " + alias + ".id in :ids", Object[].class)
+                .setParameter("ids", rows.keySet())
+                .getResultList();
+        for (Object[] value : values) {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) rows.get(value[0]).get(field);
+            list.add(formatted ? value(value[1]) : value[1]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void put(Map<String, Object> row, String path, Object value) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            row.put(path, value);
+            return;
+        }
+        Map<String, Object> nested = (Map<String, Object>) row.computeIfAbsent(path.substring(0, dot),
+                k -> new LinkedHashMap<String, Object>());
+        put(nested, path.substring(dot + 1), value);
+    }
+
+    // a left-joined relation that is absent comes back as an object of nulls
+    @SuppressWarnings("unchecked")
+    private static void nullEmptyObjects(Map<String, Object> row) {
+        row.replaceAll((key, value) -> value instanceof Map<?, ?> nested
+                && nested.values().stream().allMatch(Objects::isNull) ? null : value);
+    }
+
+    private static Object value(Object value) {
+        return value instanceof Instant instant ? TIMESTAMP.format(instant) : value;
+    }
+
+    private static Set<String> topLevel(Resource resource) {
+        Set<String> names = new TreeSet<>();
+        resource.columns().keySet().forEach(name -> {
+            int dot = name.indexOf('.');
+            names.add(dot < 0 ? name : name.substring(0, dot));
+        });
+        return names;
+    }
+}
@@ -6,17 +6,36 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import tn.sesame.rh_management_backend.Entities.User;
 import tn.sesame.rh_management_backend.Repositories.UserRepository;
+import tn.sesame.rh_management_backend.Services.SparseFieldQuery.Column;
 import tn.sesame.rh_management_backend.dto.UserDto;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static java.util.Map.entry;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
 
+    // Fields selectable with ?fields=, named after the UserDto properties
+    static final SparseFieldQuery.Resource USER_FIELDS = new SparseFieldQuery.Resource("User", "u",
+            SparseFieldQuery.columns(
+                    entry("id", Column.of("u.id")),
+                    entry("email", Column.of("u.email")),
+                    entry("role", Column.of("u.role")),
+                    entry("mfaEnabled", Column.of("u.mfaEnabled")),
+                    entry("emailVerified", Column.of("u.emailVerified")),
+                    entry("locked", Column.of("u.accountLocked")),
+                    entry("lastLoginAt", Column.of("u.lastLoginAt")),
+                    entry("createdAt", Column.of("u.createdAt")),
+                    entry("version", Column.of("u.version"))),
+            Map.of());
+
     private final UserRepository userRepository;
+    private final SparseFieldQuery fieldQuery;
 
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
     @Transactional(readOnly = true)
@@ -26,6 +45,26 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sparse variant of getAllUsers: only the requested fields are selected.
+     */
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllUsers(String fields) {
+        return fieldQuery.select(USER_FIELDS, fieldQuery.parse(USER_FIELDS, fields), null, Map.of());
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserById(UUID id, String fields) {
+        return getUserFields("u.id = :id", Map.of("id", id), fields);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getUserByEmail(String email, String fields) {
+        return getUserFields("u.email = :email", Map.of("email", email), fields);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
     @Transactional(readOnly = true)
     public UserDto getUserById(UUID id) {
@@ -34,6 +73,13 @@ public class UserService {
         return convertToDTO(user);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    @Transactional(readOnly = true)
+    public long getUserVersion(UUID id) {
+        return userRepository.findVersionById(id)
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("User not found"));
+    }
+
     @Transactional(readOnly = true)
     public UserDto getUserByEmail(String email) {
         User user = userRepository.findByEmail(email);
@@ -45,34 +91,50 @@ public class UserService {
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
-    public void deleteUser(UUID id) {
+    public void deleteUser(UUID id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("User not found"));
+        checkVersion(user, expectedVersion);
         userRepository.delete(user);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
-    public UserDto lockUser(UUID id) {
+    public UserDto lockUser(UUID id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("User not found"));
+        checkVersion(user, expectedVersion);
         user.setAccountLocked(true);
-        user = userRepository.save(user);
+        user = userRepository.saveAndFlush(user);
         return convertToDTO(user);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
     @Transactional
-    public UserDto unlockUser(UUID id) {
+    public UserDto unlockUser(UUID id, Long expectedVersion) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("User not found"));
+        checkVersion(user, expectedVersion);
         user.setAccountLocked(false);
         user.setFailedLoginAttempts(0);
         user.setLockedUntil(null);
-        user = userRepository.save(user);
+        user = userRepository.saveAndFlush(user);
         return convertToDTO(user);
     }
 
+    private Map<String, Object> getUserFields(String where, Map<String, Object> parameters, String fields) {
+        return fieldQuery.select(USER_FIELDS, fieldQuery.parse(USER_FIELDS, fields), where, parameters).stream()
+                .findFirst()
+                .orElseThrow(() -> new tn.sesame.rh_management_backend.exceptions.NotFoundException("User not found"));
+    }
+
+    // If-Match: the client must have seen the current version (null means no precondition)
+    private void checkVersion(User user, Long expectedVersion) {
+        if (expectedVersion != null && user.getVersion() != expectedVersion) {
+            throw new tn.sesame.rh_management_backend.exceptions.PreconditionFailedException("User has been modified since version " + expectedVersion);
+        }
+    }
+
     private UserDto convertToDTO(User user) {
         return new UserDto(
                 user.getId(),
@@ -82,7 +144,8 @@ public class UserService {
                 user.isEmailVerified(),
                 user.isAccountLocked(),
                 user.getLastLoginAt(),
-                user.getCreatedAt()
+                user.getCreatedAt(),
+                user.getVersion()
         );
     }
 }
@@ -0,0 +1,115 @@
+package tn.sesame.rh_management_backend.Services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import tn.sesame.rh_management_backend.dto.WorkspaceDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * "My workspace": the current user's account, employee record, documents and
+ * team in one call.
+ *
+ * The parts are independent (all keyed by the caller's email), so each runs
+ * on its own virtual thread through the regular service methods, with their
+ * @PreAuthorize rules and their own read-only transaction. Every part gets
+ * hr.workspace.part-timeout-ms; a part that fails or is late is left out and
+ * reported in errors instead of failing the whole page. The fork scope ends
+ * with the call: unfinished parts are cancelled before returning.
+ */
+@Slf4j
+@Service
+public class WorkspaceService {
+
+    private final UserService userService;
+    private final EmployeeService employeeService;
+    private final HRDocumentService documentService;
+    private final long partTimeoutMs;
+
+    public WorkspaceService(UserService userService,
+                            EmployeeService employeeService,
+                            HRDocumentService documentService,
+                            @Value("${hr.workspace.part-timeout-ms:2000}") long partTimeoutMs) {
+        this.userService = userService;
+        this.employeeService = employeeService;
+        this.documentService = documentService;
+        this.partTimeoutMs = partTimeoutMs;
+    }
+
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public WorkspaceDto getWorkspace() {
+        SecurityContext context = SecurityContextHolder.getContext();
+        String email = context.getAuthentication().getName();
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            var user = fork(scope, context, () -> userService.getUserByEmail(email));
+            var employee = fork(scope, context, employeeService::getMyEmployee);
+            var documents = fork(scope, context, documentService::getMyDocuments);
+            var team = fork(scope, context, employeeService::getMyTeam);
+
+            // one deadline for the whole fan-out: parts run in parallel
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partTimeoutMs);
+            Map<String, String> errors = new LinkedHashMap<>();
+            return new WorkspaceDto(
+                    join("user", user, deadline, errors),
+                    join("employee", employee, deadline, errors),
+                    join("documents", documents, deadline, errors),
+                    join("team", team, deadline, errors),
+                    errors);
+        } finally {
+            // not close(): it would wait for parts stuck past their timeout
+            scope.shutdownNow();
+        }
+    }
+
+    private static <T> Future<T> fork(ExecutorService scope, SecurityContext context, Callable<T> part) {
+        return scope.submit(() -> {
+            SecurityContextHolder.setContext(context);
+            try {
+                return part.call();
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private static <T> T join(String name, Future<T> part, long deadline, Map<String, String> errors) {
+        try {
+            return part.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            part.cancel(true);
+            errors.put(name, "timeout");
+        } catch (ExecutionException e) {
+            errors.put(name, reason(e.getCause()));
+            if (!(e.getCause() instanceof RuntimeException)) {
+                log.warn("Workspace part {} failed", name, e.getCause());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            errors.put(name, "interrupted");
+        }
+        return null;
+    }
+
+    private static String reason(Throwable failure) {
+        return switch (failure) {
+            case tn.sesame.rh_management_backend.exceptions.NotFoundException e -> "not found";
+            case tn.sesame.rh_management_backend.exceptions.ForbiddenException e -> "forbidden";
+            case AccessDeniedException e -> "forbidden";
+            default -> "unavailable";
+        };
+    }
+}
@@ -0,0 +1,61 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.EmployeeArchiveService;
+import tn.sesame.rh_management_backend.dto.ArchivedEmployeeDto;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/archive")
+@RequiredArgsConstructor
+public class ArchiveController {
+
+    private final EmployeeArchiveService archiveService;
+
+    @GetMapping("/employees")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Page<ArchivedEmployeeDto>> search(
+            @RequestParam(required = false) String lastName,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        if (page < 0 || size < 1 || size > 100) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("page must be >= 0 and size between 1 and 100");
+        }
+        Page<ArchivedEmployeeDto> employees = archiveService.search(lastName, page, size);
+        return ResponseEntity.ok(employees);
+    }
+
+    @GetMapping("/employees/{id}")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<ArchivedEmployeeDto> getArchivedEmployee(@PathVariable UUID id) {
+        ArchivedEmployeeDto employee = archiveService.getArchivedEmployee(id);
+        return ResponseEntity.ok(employee);
+    }
+
+    @GetMapping("/employees/number/{employeeNumber}")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<ArchivedEmployeeDto> getArchivedEmployeeByNumber(@PathVariable String employeeNumber) {
+        ArchivedEmployeeDto employee = archiveService.getArchivedEmployeeByNumber(employeeNumber);
+        return ResponseEntity.ok(employee);
+    }
+
+    // Starts a run in the background, its progress is at GET /run/status
+    @PostMapping("/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> run() {
+        return ResponseEntity.accepted().body(archiveService.runNow());
+    }
+
+    @GetMapping("/run/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> runStatus() {
+        return ResponseEntity.ok(archiveService.runStatus());
+    }
+}
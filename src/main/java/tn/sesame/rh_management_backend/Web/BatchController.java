@@ -0,0 +1,28 @@
+package tn.sesame.rh_management_backend.Web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.dto.BatchRequest;
+import tn.sesame.rh_management_backend.dto.BatchResponse;
+
+@RestController
+@RequestMapping("/api/batch")
+@RequiredArgsConstructor
+public class BatchController {
+
+    private final BatchDispatcher batchDispatcher;
+
+    // Several GETs in one round trip, run concurrently; each item keeps its own status and authorization
+    @PostMapping
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<BatchResponse> execute(@Valid @RequestBody BatchRequest batch,
+                                                 HttpServletRequest request,
+                                                 HttpServletResponse response) {
+        return ResponseEntity.ok(batchDispatcher.execute(batch, request, response));
+    }
+}
@@ -0,0 +1,226 @@
+package tn.sesame.rh_management_backend.Web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.ServletRequestPathUtils;
+import tn.sesame.rh_management_backend.dto.BatchRequest;
+import tn.sesame.rh_management_backend.dto.BatchRequestItem;
+import tn.sesame.rh_management_backend.dto.BatchResponse;
+import tn.sesame.rh_management_backend.dto.BatchResponseItem;
+import tn.sesame.rh_management_backend.exceptions.ApiError;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the items of POST /api/batch through the DispatcherServlet, each on its
+ * own virtual thread, with the security context of the batch request.
+ *
+ * The batch is authenticated once by the filter chain. Per item, the URL rules
+ * of SecurityConfig are evaluated with the same authentication and the item is
+ * dispatched to its controller, so the controller and service @PreAuthorize
+ * checks, validation and exception handlers apply exactly as for a direct call.
+ * Only GETs are batched; the batch waits for every item before answering.
+ * Items are buffered in memory, so handlers that stream their response
+ * (downloads, byte ranges, the directory snapshot, server-sent events) are
+ * refused with a 400, recognized by their return type.
+ */
+@Slf4j
+@Component
+public class BatchDispatcher {
+
+    // prefixes that cannot be batched: recursion
+    private static final List<String> NOT_BATCHABLE = List.of("/api/batch");
+
+    private final DispatcherServlet dispatcherServlet;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final WebInvocationPrivilegeEvaluator privilegeEvaluator;
+    private final ObjectMapper objectMapper;
+    private final int maxRequests;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public BatchDispatcher(DispatcherServlet dispatcherServlet,
+                           @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                           WebInvocationPrivilegeEvaluator privilegeEvaluator,
+                           ObjectMapper objectMapper,
+                           @Value("${hr.batch.max-requests:20}") int maxRequests) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.handlerMapping = handlerMapping;
+        this.privilegeEvaluator = privilegeEvaluator;
+        this.objectMapper = objectMapper;
+        this.maxRequests = maxRequests;
+    }
+
+    public BatchResponse execute(BatchRequest batch, HttpServletRequest request, HttpServletResponse response) {
+        if (batch.requests().size() > maxRequests) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException(
+                    "A batch can contain at most " + maxRequests + " requests");
+        }
+        SecurityContext context = SecurityContextHolder.getContext();
+
+        List<Future<BatchResponseItem>> futures = new ArrayList<>();
+        for (BatchRequestItem item : batch.requests()) {
+            futures.add(executor.submit(() -> {
+                SecurityContextHolder.setContext(context);
+                try {
+                    return dispatch(item, request, response, context.getAuthentication());
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            }));
+        }
+
+        // waits for every item: the sub-requests read the batch request, which is recycled once we return
+        List<BatchResponseItem> items = new ArrayList<>();
+        boolean interrupted = false;
+        for (int i = 0; i < futures.size(); i++) {
+            BatchRequestItem item = batch.requests().get(i);
+            while (true) {
+                try {
+                    items.add(futures.get(i).get());
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    log.warn("Batch item {} failed", item.path(), e.getCause());
+                    items.add(error(item, HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Unexpected error"));
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return new BatchResponse(items);
+    }
+
+    private BatchResponseItem dispatch(BatchRequestItem item, HttpServletRequest request,
+                                       HttpServletResponse response, Authentication authentication) {
+        String target = item.path().trim();
+        int query = target.indexOf('?');
+        String path = query < 0 ? target : target.substring(0, query);
+        String queryString = query < 0 ? null : target.substring(query + 1);
+
+        // the firewall of the filter chain is bypassed, so only plain /api paths are accepted
+        String lower = path.toLowerCase(Locale.ROOT);
+        if (!path.startsWith("/api/") || lower.contains("..") || lower.contains("//") || lower.contains(";")
+                || lower.contains("\\") || lower.contains("%2e") || lower.contains("%2f") || lower.contains("%5c")) {
+            return error(item, HttpStatus.BAD_REQUEST, "BAD_REQUEST", "Invalid path");
+        }
+        if (NOT_BATCHABLE.stream().anyMatch(prefix -> path.equals(prefix) || path.startsWith(prefix + "/"))) {
+            return error(item, HttpStatus.BAD_REQUEST, "BAD_REQUEST", path + " cannot be batched");
+        }
+        if (!privilegeEvaluator.isAllowed(request.getContextPath(), path, "GET", authentication)) {
+            return error(item, HttpStatus.FORBIDDEN, "FORBIDDEN", "Access denied");
+        }
+
+        BatchSubRequest subRequest = new BatchSubRequest(request, path, queryString, item.headers());
+        if (streams(subRequest)) {
+            return error(item, HttpStatus.BAD_REQUEST, "BAD_REQUEST", path + " streams its response and cannot be batched");
+        }
+        BatchSubResponse subResponse = new BatchSubResponse(response);
+        try {
+            dispatcherServlet.service(subRequest, subResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            log.warn("Batch item {} failed", item.path(), e);
+            return error(item, HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_ERROR", "Unexpected error");
+        }
+        return new BatchResponseItem(item.id(), subResponse.getStatus(), subResponse.headerValues(), body(subResponse));
+    }
+
+    /**
+     * True if the handler the item maps to writes a streamed body: a
+     * StreamingResponseBody, an emitter or a Resource (possibly in a
+     * ResponseEntity), or a void method that writes the servlet response itself.
+     * Unmapped items are left to the dispatch, which answers them as usual.
+     */
+    private boolean streams(BatchSubRequest subRequest) {
+        HandlerExecutionChain chain;
+        ServletRequestPathUtils.parseAndCache(subRequest);
+        try {
+            chain = handlerMapping.getHandler(subRequest);
+        } catch (Exception e) {
+            return false;
+        } finally {
+            ServletRequestPathUtils.clearParsedRequestPath(subRequest);
+        }
+        if (chain == null || !(chain.getHandler() instanceof HandlerMethod method)) {
+            return false;
+        }
+        Class<?> type = method.getReturnType().getParameterType();
+        if (HttpEntity.class.isAssignableFrom(type)) {
+            type = ResolvableType.forMethodParameter(method.getReturnType()).getGeneric(0).resolve(Object.class);
+        }
+        if (StreamingResponseBody.class.isAssignableFrom(type) || ResponseBodyEmitter.class.isAssignableFrom(type)
+                || Resource.class.isAssignableFrom(type)) {
+            return true;
+        }
+        return type == void.class && Arrays.stream(method.getMethodParameters())
+                .anyMatch(parameter -> ServletResponse.class.isAssignableFrom(parameter.getParameterType()));
+    }
+
+    private Object body(BatchSubResponse response) {
+        byte[] bytes = response.body();
+        if (bytes.length == 0) {
+            return null;
+        }
+        String contentType = response.getContentType();
+        MediaType type = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+        if (MediaType.APPLICATION_JSON.isCompatibleWith(type) || type.getSubtype().endsWith("+json")) {
+            try {
+                return objectMapper.readTree(bytes);
+            } catch (IOException e) {
+                // fall through: returned as Base64
+            }
+        } else if ("text".equals(type.getType())) {
+            Charset charset = type.getCharset() != null ? type.getCharset() : StandardCharsets.UTF_8;
+            return new String(bytes, charset);
+        }
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static BatchResponseItem error(BatchRequestItem item, HttpStatus status, String code, String message) {
+        return new BatchResponseItem(item.id(), status.value(),
+                Map.of("Content-Type", MediaType.APPLICATION_JSON_VALUE), new ApiError(code, message, Instant.now()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,60 @@
+package tn.sesame.rh_management_backend.Web;
+
+/**
+ * A single byte range of a Range header (RFC 9110 14.1.2), inclusive bounds.
+ *
+ * Only one range is served: a request for several ranges gets the whole body,
+ * which the RFC allows and which keeps responses out of multipart/byteranges.
+ */
+public record ByteRange(long start, long end) {
+
+    /** Range header that cannot be satisfied for the body (answered with 416). */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public String contentRange(long size) {
+        return "bytes " + start + "-" + end + "/" + size;
+    }
+
+    /**
+     * Parses a Range header against a body of the given size.
+     * Returns null when the whole body is to be sent (no header, other unit,
+     * several ranges or a malformed header, which is ignored per the RFC).
+     */
+    public static ByteRange parse(String range, long size) {
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // suffix range: the last n bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            if (start < 0 || (!last.isEmpty() && Long.parseLong(last) < start)) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, end);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
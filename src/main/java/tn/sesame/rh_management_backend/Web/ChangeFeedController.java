@@ -0,0 +1,26 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.ChangeFeedService;
+import tn.sesame.rh_management_backend.dto.ChangeFeedDto;
+
+@RestController
+@RequestMapping("/api/changes")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedService changeFeedService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<ChangeFeedDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        ChangeFeedDto feed = changeFeedService.getChanges(since, limit);
+        return ResponseEntity.ok(feed);
+    }
+}
@@ -0,0 +1,64 @@
+package tn.sesame.rh_management_backend.Web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.DocumentUploadService;
+import tn.sesame.rh_management_backend.dto.HRDocumentDTO;
+import tn.sesame.rh_management_backend.dto.UploadSessionDto;
+import tn.sesame.rh_management_backend.dto.UploadSessionRequest;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Resumable uploads: POST a session, PUT /chunks/{n} (any order, retries
+ * allowed), GET the session to see what is missing, then POST /commit.
+ */
+@RestController
+@RequestMapping("/api/documents/uploads")
+@RequiredArgsConstructor
+public class DocumentUploadController {
+
+    private final DocumentUploadService uploadService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<UploadSessionDto> createSession(@Valid @RequestBody UploadSessionRequest request) throws IOException {
+        UploadSessionDto session = uploadService.createSession(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<UploadSessionDto> getSession(@PathVariable UUID id) throws IOException {
+        return ResponseEntity.ok(uploadService.getSession(id));
+    }
+
+    @PutMapping(value = "/{id}/chunks/{index}", consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Void> putChunk(@PathVariable UUID id, @PathVariable int index,
+                                         HttpServletRequest request) throws IOException {
+        uploadService.putChunk(id, index, request.getContentLengthLong(), request.getInputStream());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{id}/commit")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<HRDocumentDTO> commit(@PathVariable UUID id) throws IOException {
+        HRDocumentDTO document = uploadService.commit(id);
+        return ResponseEntity.status(HttpStatus.CREATED).body(document);
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Void> abort(@PathVariable UUID id) {
+        uploadService.abort(id);
+        return ResponseEntity.noContent().build();
+    }
+}
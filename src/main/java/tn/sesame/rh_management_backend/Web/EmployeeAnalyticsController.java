@@ -0,0 +1,24 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.EmployeeAnalyticsService;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationRequest;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationResponse;
+
+@RestController
+@RequestMapping("/api/analytics/employees")
+@RequiredArgsConstructor
+public class EmployeeAnalyticsController {
+
+    private final EmployeeAnalyticsService analyticsService;
+
+    @PostMapping("/aggregate")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<EmployeeAggregationResponse> aggregate(@RequestBody EmployeeAggregationRequest request) {
+        EmployeeAggregationResponse response = analyticsService.aggregate(request);
+        return ResponseEntity.ok(response);
+    }
+}
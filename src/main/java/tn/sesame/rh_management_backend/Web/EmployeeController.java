@@ -1,17 +1,30 @@
 package tn.sesame.rh_management_backend.Web;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.EmployeeDirectorySnapshot;
 import tn.sesame.rh_management_backend.Services.EmployeeService;
 import tn.sesame.rh_management_backend.dto.EmployeeCreateRequest;
 import tn.sesame.rh_management_backend.dto.EmployeeDto;
+import tn.sesame.rh_management_backend.dto.EmployeeSearchResponse;
 import tn.sesame.rh_management_backend.dto.EmployeeUpdateRequest;
 
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -19,26 +32,129 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class EmployeeController {
 
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     private final EmployeeService employeeService;
 
     @PostMapping
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
-    public ResponseEntity<EmployeeDto> createEmployee(@Valid @RequestBody EmployeeCreateRequest request) {
+    public ResponseEntity<EmployeeDto> createEmployee(
+            @Valid @RequestBody EmployeeCreateRequest request,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
         EmployeeDto employee = employeeService.createEmployee(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(employee);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(EntityTags.of(employee.versions(), accept))
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(employee);
     }
 
+    // Served from the precomputed snapshot files: no query, no serialization, sendfile when available.
+    // The files are JSON: clients preferring CBOR or Smile get the mapping below
     @GetMapping
     @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
-    public ResponseEntity<List<EmployeeDto>> getAllEmployees() {
+    public void getAllEmployees(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        EmployeeDirectorySnapshot.Snapshot snapshot = employeeService.getDirectorySnapshot();
+        boolean gzip = acceptsGzip(acceptEncoding);
+        String etag = gzip ? snapshot.gzipEtag() : snapshot.etag();
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(etag))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        Path file = gzip ? snapshot.gzip() : snapshot.json();
+        long length = gzip ? snapshot.gzipLength() : snapshot.jsonLength();
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLengthLong(length);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file with sendfile after the handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            for (long position = 0; position < length; ) {
+                position += channel.transferTo(position, length - position, out);
+            }
+        }
+    }
+
+    // Binary encodings of the directory, through the normal content negotiation
+    @GetMapping(produces = {"application/cbor", "application/x-jackson-smile"})
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<EmployeeDto>> getAllEmployeesEncoded() {
         List<EmployeeDto> employees = employeeService.getAllEmployees();
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(employees);
+    }
+
+    // Sparse fieldsets: ?fields=id,firstName,department selects only those columns
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAllEmployees(@RequestParam String fields) {
+        List<Map<String, Object>> employees = employeeService.getAllEmployees(fields);
         return ResponseEntity.ok(employees);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> getEmployeeById(@PathVariable UUID id, @RequestParam String fields) {
+        Map<String, Object> employee = employeeService.getEmployeeById(id, fields);
+        return ResponseEntity.ok(employee);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
-    public ResponseEntity<EmployeeDto> getEmployeeById(@PathVariable UUID id) {
+    public ResponseEntity<EmployeeDto> getEmployeeById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        if (ifNoneMatch != null) {
+            String eTag = EntityTags.of(employeeService.getEmployeeVersions(id), accept);
+            if (EntityTags.noneMatchHits(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         EmployeeDto employee = employeeService.getEmployeeById(id);
+        return ResponseEntity.ok().eTag(EntityTags.of(employee.versions(), accept)).varyBy(HttpHeaders.ACCEPT).body(employee);
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<EmployeeSearchResponse> searchEmployees(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        EmployeeSearchResponse response = employeeService.searchEmployees(query, page, size);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/number/{employeeNumber}", params = "fields")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> getEmployeeByNumber(@PathVariable String employeeNumber,
+                                                                   @RequestParam String fields) {
+        Map<String, Object> employee = employeeService.getEmployeeByNumber(employeeNumber, fields);
         return ResponseEntity.ok(employee);
     }
 
@@ -49,6 +165,14 @@ public class EmployeeController {
         return ResponseEntity.ok(employee);
     }
 
+    @GetMapping(value = "/department/{department}", params = "fields")
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getEmployeesByDepartment(@PathVariable String department,
+                                                                              @RequestParam String fields) {
+        List<Map<String, Object>> employees = employeeService.getEmployeesByDepartment(department, fields);
+        return ResponseEntity.ok(employees);
+    }
+
     @GetMapping("/department/{department}")
     @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
     public ResponseEntity<List<EmployeeDto>> getEmployeesByDepartment(@PathVariable String department) {
@@ -60,16 +184,46 @@ public class EmployeeController {
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
     public ResponseEntity<EmployeeDto> updateEmployee(
             @PathVariable UUID id,
-            @Valid @RequestBody EmployeeUpdateRequest request
+            @Valid @RequestBody EmployeeUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
     ) {
-        EmployeeDto employee = employeeService.updateEmployee(id, request);
-        return ResponseEntity.ok(employee);
+        EmployeeDto employee = employeeService.updateEmployee(id, request, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(employee.versions(), accept)).varyBy(HttpHeaders.ACCEPT).body(employee);
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> deleteEmployee(@PathVariable UUID id) {
-        employeeService.deleteEmployee(id);
-        return ResponseEntity.ok("Employee deleted successfully");
+    public ResponseEntity<String> deleteEmployee(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        employeeService.deleteEmployee(id, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok("Employee offboarded successfully");
+    }
+
+    // gzip unless absent from Accept-Encoding or refused with q=0
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
     }
 }
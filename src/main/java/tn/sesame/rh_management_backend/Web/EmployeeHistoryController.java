@@ -0,0 +1,52 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Services.EmployeeHistoryService;
+import tn.sesame.rh_management_backend.dto.EmployeeHistoryEventDto;
+import tn.sesame.rh_management_backend.dto.EmployeeStateDto;
+import tn.sesame.rh_management_backend.dto.SalaryChangeDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/employees")
+@RequiredArgsConstructor
+public class EmployeeHistoryController {
+
+    private final EmployeeHistoryService historyService;
+
+    @GetMapping("/{id}/history")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<EmployeeHistoryEventDto>> getHistory(@PathVariable UUID id) {
+        List<EmployeeHistoryEventDto> events = historyService.getHistory(id);
+        return ResponseEntity.ok(events);
+    }
+
+    @GetMapping("/{id}/history/state")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<EmployeeStateDto> getStateAt(
+            @PathVariable UUID id,
+            @RequestParam("at") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate at
+    ) {
+        EmployeeStateDto state = historyService.getStateAt(id, at);
+        return ResponseEntity.ok(state);
+    }
+
+    @GetMapping("/history/salary-changes")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<SalaryChangeDto>> getSalaryChanges(
+            @RequestParam EmployeeDepartment department,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        List<SalaryChangeDto> changes = historyService.getSalaryChanges(department, from, to);
+        return ResponseEntity.ok(changes);
+    }
+}
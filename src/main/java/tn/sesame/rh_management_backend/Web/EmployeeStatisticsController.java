@@ -0,0 +1,32 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.EmployeeStatisticsService;
+import tn.sesame.rh_management_backend.dto.EmployeeStatisticsDto;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/statistics/employees")
+@RequiredArgsConstructor
+public class EmployeeStatisticsController {
+
+    private final EmployeeStatisticsService statisticsService;
+
+    @GetMapping
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<EmployeeStatisticsDto> getStatistics() {
+        EmployeeStatisticsDto statistics = statisticsService.getStatistics();
+        return ResponseEntity.ok(statistics);
+    }
+
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> reconcile() {
+        int drifted = statisticsService.reconcile();
+        return ResponseEntity.ok(Map.of("driftedCells", drifted));
+    }
+}
@@ -0,0 +1,122 @@
+package tn.sesame.rh_management_backend.Web;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import tn.sesame.rh_management_backend.dto.EntityVersions;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Strong entity tags derived from the JPA @Version columns of a resource.
+ *
+ * A representation tag is the resource's own version, the versions of the rows
+ * its body embeds (user, manager, owner) and the negotiated encoding, e.g.
+ * "12.3.-.cbor": it changes whenever any byte of that body can change, so it can
+ * be compared without loading or serializing the resource. Responses carrying
+ * one must also send Vary: Accept. Raw bodies (downloads) use the bare version.
+ */
+public final class EntityTags {
+
+    // in the order of the message converters: JSON first, the binary encodings of BinaryJsonConfig after it
+    private static final List<MediaType> ENCODINGS = List.of(
+            MediaType.APPLICATION_JSON,
+            MediaType.parseMediaType("application/cbor"),
+            MediaType.parseMediaType("application/x-jackson-smile"));
+    private static final List<String> ENCODING_NAMES = List.of("json", "cbor", "smile");
+
+    private EntityTags() {
+    }
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /** Tag of the representation of versions encoded as the Accept header selects. */
+    public static String of(EntityVersions versions, String accept) {
+        StringBuilder tag = new StringBuilder("\"").append(versions.version());
+        for (Long embedded : versions.embedded()) {
+            tag.append('.').append(embedded != null ? embedded.toString() : "-");
+        }
+        return tag.append('.').append(encoding(accept)).append('"').toString();
+    }
+
+    /**
+     * The encoding content negotiation picks for this Accept header: the most
+     * preferred acceptable type that a converter produces, JSON when absent or unparsable.
+     */
+    static String encoding(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return ENCODING_NAMES.get(0);
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return ENCODING_NAMES.get(0);
+        }
+        accepted = accepted.stream()
+                .sorted(Comparator.comparingDouble(MediaType::getQualityValue).reversed())
+                .toList();
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                break;
+            }
+            for (int i = 0; i < ENCODINGS.size(); i++) {
+                if (type.isCompatibleWith(ENCODINGS.get(i))) {
+                    return ENCODING_NAMES.get(i);
+                }
+            }
+        }
+        return ENCODING_NAMES.get(0);
+    }
+
+    /**
+     * If-None-Match uses the weak comparison (RFC 9110 13.1.2): W/ prefixes are ignored.
+     */
+    public static boolean noneMatchHits(String ifNoneMatch, String current) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses an If-Match header into the expected version of the resource's own
+     * row, the leading part of the tag. The embedded versions and the encoding
+     * are not compared: a write only touches the resource's row.
+     * Returns null when there is no precondition (header absent or "*").
+     * Weak tags never satisfy If-Match (strong comparison), so they fail the precondition.
+     */
+    public static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("If-Match must carry a single entity tag");
+        }
+        if (tag.length() < 3 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new tn.sesame.rh_management_backend.exceptions.PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+        String value = tag.substring(1, tag.length() - 1);
+        int end = value.indexOf('.');
+        try {
+            return Long.parseLong(end < 0 ? value : value.substring(0, end));
+        } catch (NumberFormatException e) {
+            throw new tn.sesame.rh_management_backend.exceptions.PreconditionFailedException("If-Match does not match the current entity tag");
+        }
+    }
+}
@@ -1,38 +1,122 @@
 package tn.sesame.rh_management_backend.Web;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Services.DocumentContentMigration;
+import tn.sesame.rh_management_backend.Services.DocumentReencryption;
 import tn.sesame.rh_management_backend.Services.HRDocumentService;
+import tn.sesame.rh_management_backend.dto.DocumentStorageReportDto;
+import tn.sesame.rh_management_backend.dto.DocumentTagSearchResponse;
 import tn.sesame.rh_management_backend.dto.HRDocumentDTO;
 import tn.sesame.rh_management_backend.dto.HRDocumentUploadRequest;
+import tn.sesame.rh_management_backend.dto.JobStatusDto;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/documents")
-@RequiredArgsConstructor
 public class HRDocumentController {
 
+    private static final String UPLOAD_THROUGHPUT = "X-Upload-Throughput";
+
     private final HRDocumentService documentService;
+    private final DocumentContentMigration contentMigration;
+    private final DocumentReencryption reencryption;
+    private final long maxSize;
+
+    public HRDocumentController(HRDocumentService documentService,
+                                DocumentContentMigration contentMigration,
+                                DocumentReencryption reencryption,
+                                @Value("${hr.documents.max-size:209715200}") long maxSize) {
+        this.documentService = documentService;
+        this.contentMigration = contentMigration;
+        this.reencryption = reencryption;
+        this.maxSize = maxSize;
+    }
 
-    @PostMapping
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, "application/cbor", "application/x-jackson-smile"})
     @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
     public ResponseEntity<HRDocumentDTO> uploadDocument(@Valid @RequestBody HRDocumentUploadRequest request) {
         try {
             HRDocumentDTO document = documentService.uploadDocument(request);
             return ResponseEntity.status(HttpStatus.CREATED).body(document);
+        } catch (RuntimeException e) {
+            // not found, conflict, access denied: keep their status
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Document upload failed: " + e.getMessage());
         }
     }
 
+    // Multipart upload (field "file"): the part is streamed from the container's temp file
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<HRDocumentDTO> uploadDocument(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String documentName,
+            @RequestParam DocumentAccessLevel level,
+            @RequestParam UUID employeeId,
+            @RequestParam(required = false) Set<String> tags
+    ) throws IOException {
+        String name = documentName != null ? documentName : file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Document name is required");
+        }
+        String contentType = file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        long started = System.nanoTime();
+        try (InputStream content = file.getInputStream()) {
+            HRDocumentDTO document = documentService.uploadDocument(name, contentType, level, employeeId, tags, content);
+            return created(document, started);
+        }
+    }
+
+    // Raw upload: the request body is the document, its Content-Type the document type.
+    // The multipart limits do not apply here, hr.documents.max-size does.
+    @PostMapping(consumes = MediaType.ALL_VALUE)
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<HRDocumentDTO> uploadDocument(
+            @RequestParam String documentName,
+            @RequestParam DocumentAccessLevel level,
+            @RequestParam UUID employeeId,
+            @RequestParam(required = false) Set<String> tags,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, defaultValue = MediaType.APPLICATION_OCTET_STREAM_VALUE) String contentType,
+            HttpServletRequest request
+    ) throws IOException {
+        if (request.getContentLengthLong() > maxSize) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Document exceeds the maximum size of " + maxSize + " bytes");
+        }
+        long started = System.nanoTime();
+        // chunked bodies have no Content-Length: count what is read
+        HRDocumentDTO document = documentService.uploadDocument(documentName, contentType, level, employeeId, tags,
+                new SizeLimitedInputStream(request.getInputStream(), maxSize));
+        return created(document, started);
+    }
+
+    // request read + checksum + encryption + write, as seen by the server
+    private static ResponseEntity<HRDocumentDTO> created(HRDocumentDTO document, long started) {
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        String throughput = String.format(Locale.ROOT, "%.1f MB/s", document.getFileSize() / 1_048_576.0 / seconds);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(UPLOAD_THROUGHPUT, throughput)
+                .body(document);
+    }
+
     @GetMapping
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
     public ResponseEntity<List<HRDocumentDTO>> getAllDocuments() {
@@ -40,30 +124,127 @@ public class HRDocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    // Sparse fieldsets: ?fields=id,documentName,tags selects only those columns
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getAllDocuments(@RequestParam String fields) {
+        List<Map<String, Object>> documents = documentService.getAllDocuments(fields);
+        return ResponseEntity.ok(documents);
+    }
+
+    /**
+     * Tag query on the in-memory index: ?all=contract&all=2025&none=draft, with facet counts.
+     *
+     * Latency: the target was well under a millisecond at 1M documents. Rare tags
+     * meet it (about 0.2 ms). Broad queries do not: with about 64k matches and
+     * 50 facets they measured 1.5 to 5 ms on a single core, most of it facet counting.
+     */
+    @GetMapping("/tags/search")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<DocumentTagSearchResponse> searchByTags(
+            @RequestParam(required = false) Set<String> all,
+            @RequestParam(required = false) Set<String> any,
+            @RequestParam(required = false) Set<String> none,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "50") int facets
+    ) {
+        return ResponseEntity.ok(documentService.searchByTags(all != null ? all : Set.of(), any != null ? any : Set.of(),
+                none != null ? none : Set.of(), limit, facets));
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDocumentById(@PathVariable UUID id, @RequestParam String fields) {
+        Map<String, Object> document = documentService.getDocumentById(id, fields);
+        return ResponseEntity.ok(document);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
-    public ResponseEntity<HRDocumentDTO> getDocumentById(@PathVariable UUID id) {
+    public ResponseEntity<HRDocumentDTO> getDocumentById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        if (ifNoneMatch != null) {
+            String eTag = EntityTags.of(documentService.getDocumentVersions(id), accept);
+            if (EntityTags.noneMatchHits(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         HRDocumentDTO document = documentService.getDocumentById(id);
-        return ResponseEntity.ok(document);
+        return ResponseEntity.ok().eTag(EntityTags.of(document.versions(), accept)).varyBy(HttpHeaders.ACCEPT).body(document);
     }
 
+    /**
+     * Streams the decrypted body as it is read, with single-range support
+     * (Range / If-Range) so viewers can seek and interrupted downloads resume.
+     * The validator is the bare document version: the bytes do not depend on
+     * the owner or on Accept, unlike the metadata tag of GET /{id}.
+     */
     @GetMapping("/{id}/download")
     @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
-    public ResponseEntity<byte[]> downloadDocument(@PathVariable UUID id) {
-        try {
-            HRDocumentDTO document = documentService.getDocumentById(id);
-            byte[] content = documentService.downloadDocument(id);
+    public ResponseEntity<StreamingResponseBody> downloadDocument(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+    ) throws Exception {
+        HRDocumentService.DocumentContent document = documentService.getDocumentContent(id);
+        String eTag = EntityTags.of(document.version());
+        if (EntityTags.noneMatchHits(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-            headers.setContentDispositionFormData("attachment", document.getDocumentName());
+        long size = document.size();
+        // If-Range: the range only applies to the representation the client already has part of
+        ByteRange byteRange = ifRange == null || ifRange.trim().equals(eTag) ? ByteRange.parse(range, size) : null;
+        if (byteRange == ByteRange.UNSATISFIABLE) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + size)
+                    .build();
+        }
 
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(content);
-        } catch (Exception e) {
-            throw new RuntimeException("Document download failed: " + e.getMessage());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", document.documentName());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+        headers.setETag(eTag);
+
+        long offset = byteRange != null ? byteRange.start() : 0;
+        long length = byteRange != null ? byteRange.length() : size;
+        headers.setContentLength(length);
+        if (byteRange != null) {
+            headers.set(HttpHeaders.CONTENT_RANGE, byteRange.contentRange(size));
         }
+
+        // opened here, on the request thread: access is checked before the response starts
+        InputStream content = documentService.openContent(document, offset);
+        StreamingResponseBody body = out -> {
+            try (content) {
+                byte[] buffer = new byte[64 * 1024];
+                long remaining = length;
+                while (remaining > 0) {
+                    int read = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read == -1) {
+                        break;
+                    }
+                    out.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        };
+        return ResponseEntity.status(byteRange != null ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .headers(headers)
+                .body(body);
+    }
+
+    @GetMapping(value = "/employee/{employeeId}", params = "fields")
+    @PreAuthorize("hasAnyRole('MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<List<Map<String, Object>>> getDocumentsByEmployee(@PathVariable UUID employeeId,
+                                                                            @RequestParam String fields) {
+        List<Map<String, Object>> documents = documentService.getDocumentsByEmployee(employeeId, fields);
+        return ResponseEntity.ok(documents);
     }
 
     @GetMapping("/employee/{employeeId}")
@@ -73,10 +254,46 @@ public class HRDocumentController {
         return ResponseEntity.ok(documents);
     }
 
+    // Moves inline and pre-hash bodies into the content-addressed store, in the background
+    @PostMapping("/content-migration/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> migrateContent() {
+        return ResponseEntity.accepted().body(contentMigration.runNow());
+    }
+
+    @GetMapping("/content-migration/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> getContentMigrationStatus() {
+        return ResponseEntity.ok(contentMigration.runStatus());
+    }
+
+    // Original vs stored bytes per content type, see hr.documents.compression
+    @GetMapping("/storage-report")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<DocumentStorageReportDto>> getStorageReport() {
+        return ResponseEntity.ok(documentService.getStorageReport());
+    }
+
+    // Converts stored bodies to the active master key, in the background
+    @PostMapping("/re-encryption/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> reencryptContent() {
+        return ResponseEntity.accepted().body(reencryption.runNow());
+    }
+
+    @GetMapping("/re-encryption/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<JobStatusDto> getReencryptionStatus() {
+        return ResponseEntity.ok(reencryption.runStatus());
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> deleteDocument(@PathVariable UUID id) {
-        documentService.deleteDocument(id);
+    public ResponseEntity<String> deleteDocument(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        documentService.deleteDocument(id, EntityTags.expectedVersion(ifMatch));
         return ResponseEntity.ok("Document deleted successfully");
     }
 }
@@ -0,0 +1,33 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tn.sesame.rh_management_backend.Services.LiveUpdateService;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    // e.g. /api/live?department=IT&employee={id}; events are named employee / document
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public SseEmitter subscribe(
+            @RequestParam(name = "employee", required = false) List<UUID> employees,
+            @RequestParam(name = "department", required = false) List<String> departments,
+            @RequestParam(name = "owner", required = false) List<UUID> owners
+    ) {
+        return liveUpdateService.subscribe(
+                employees != null ? employees : List.of(),
+                departments != null ? departments : List.of(),
+                owners != null ? owners : List.of());
+    }
+}
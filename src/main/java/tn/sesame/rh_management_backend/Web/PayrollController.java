@@ -0,0 +1,42 @@
+package tn.sesame.rh_management_backend.Web;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.PayrollService;
+import tn.sesame.rh_management_backend.dto.PayrollRunDto;
+import tn.sesame.rh_management_backend.dto.PayrollRunRequest;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/payroll/runs")
+@RequiredArgsConstructor
+public class PayrollController {
+
+    private final PayrollService payrollService;
+
+    @PostMapping
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<PayrollRunDto> startRun(@Valid @RequestBody PayrollRunRequest request) {
+        PayrollRunDto run = payrollService.startRun(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<PayrollRunDto> getRun(@PathVariable UUID id) {
+        PayrollRunDto run = payrollService.getRun(id);
+        return ResponseEntity.ok(run);
+    }
+
+    @PostMapping("/{id}/resume")
+    @PreAuthorize("hasAnyRole('HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<PayrollRunDto> resumeRun(@PathVariable UUID id) {
+        PayrollRunDto run = payrollService.resumeRun(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(run);
+    }
+}
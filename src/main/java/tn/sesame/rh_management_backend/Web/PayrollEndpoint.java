@@ -0,0 +1,27 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Services.PayrollService;
+import tn.sesame.rh_management_backend.dto.PayrollRunDto;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint (/actuator/payroll) reporting throughput and ETA
+ * of the payroll runs executing on this instance.
+ */
+@Component
+@Endpoint(id = "payroll")
+@RequiredArgsConstructor
+public class PayrollEndpoint {
+
+    private final PayrollService payrollService;
+
+    @ReadOperation
+    public List<PayrollRunDto> activeRuns() {
+        return payrollService.activeRuns();
+    }
+}
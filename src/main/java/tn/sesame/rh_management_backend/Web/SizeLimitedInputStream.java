@@ -0,0 +1,57 @@
+package tn.sesame.rh_management_backend.Web;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Request body that fails with a 400 once more than maxSize bytes have been
+ * read, for bodies sent without Content-Length (chunked transfer encoding).
+ */
+final class SizeLimitedInputStream extends FilterInputStream {
+
+    private final long maxSize;
+    private long count;
+
+    SizeLimitedInputStream(InputStream in, long maxSize) {
+        super(in);
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            counted(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            counted(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        counted(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void counted(long n) {
+        count += n;
+        if (count > maxSize) {
+            throw new tn.sesame.rh_management_backend.exceptions.BadRequestException("Document exceeds the maximum size of " + maxSize + " bytes");
+        }
+    }
+}
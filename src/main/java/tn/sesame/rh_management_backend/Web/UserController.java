@@ -1,14 +1,18 @@
 package tn.sesame.rh_management_backend.Web;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import tn.sesame.rh_management_backend.Services.UserService;
+import tn.sesame.rh_management_backend.dto.EntityVersions;
 import tn.sesame.rh_management_backend.dto.UserDto;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -24,10 +28,42 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    // Sparse fieldsets: ?fields=id,email,role selects only those columns
+    @GetMapping(params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<List<Map<String, Object>>> getAllUsers(@RequestParam String fields) {
+        List<Map<String, Object>> users = userService.getAllUsers(fields);
+        return ResponseEntity.ok(users);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getUserById(@PathVariable UUID id, @RequestParam String fields) {
+        Map<String, Object> user = userService.getUserById(id, fields);
+        return ResponseEntity.ok(user);
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('ADMIN', 'HR_MANAGER')")
-    public ResponseEntity<UserDto> getUserById(@PathVariable UUID id) {
+    public ResponseEntity<UserDto> getUserById(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        if (ifNoneMatch != null) {
+            String eTag = EntityTags.of(EntityVersions.of(userService.getUserVersion(id)), accept);
+            if (EntityTags.noneMatchHits(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
         UserDto user = userService.getUserById(id);
+        return ResponseEntity.ok().eTag(EntityTags.of(EntityVersions.of(user.version()), accept)).varyBy(HttpHeaders.ACCEPT).body(user);
+    }
+
+    @GetMapping(value = "/email/{email}", params = "fields")
+    @PreAuthorize("authentication.name == #email or hasAnyRole('ADMIN','HR_MANAGER')")
+    public ResponseEntity<Map<String, Object>> getUserByEmail(@PathVariable String email, @RequestParam String fields) {
+        Map<String, Object> user = userService.getUserByEmail(email, fields);
         return ResponseEntity.ok(user);
     }
 
@@ -40,22 +76,33 @@ public class UserController {
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> deleteUser(@PathVariable UUID id) {
-        userService.deleteUser(id);
+    public ResponseEntity<String> deleteUser(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        userService.deleteUser(id, EntityTags.expectedVersion(ifMatch));
         return ResponseEntity.ok("User deleted successfully");
     }
 
     @PutMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> lockUser(@PathVariable UUID id) {
-        UserDto user = userService.lockUser(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserDto> lockUser(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        UserDto user = userService.lockUser(id, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(EntityVersions.of(user.version()), accept)).varyBy(HttpHeaders.ACCEPT).body(user);
     }
 
     @PutMapping("/{id}/unlock")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<UserDto> unlockUser(@PathVariable UUID id) {
-        UserDto user = userService.unlockUser(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserDto> unlockUser(
+            @PathVariable UUID id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept
+    ) {
+        UserDto user = userService.unlockUser(id, EntityTags.expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(EntityTags.of(EntityVersions.of(user.version()), accept)).varyBy(HttpHeaders.ACCEPT).body(user);
     }
 }
@@ -0,0 +1,23 @@
+package tn.sesame.rh_management_backend.Web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import tn.sesame.rh_management_backend.Services.WorkspaceService;
+import tn.sesame.rh_management_backend.dto.WorkspaceDto;
+
+@RestController
+@RequestMapping("/api/workspace")
+@RequiredArgsConstructor
+public class WorkspaceController {
+
+    private final WorkspaceService workspaceService;
+
+    // Landing page data in one round trip; parts that failed are listed in errors
+    @GetMapping
+    @PreAuthorize("hasAnyRole('EMPLOYEE', 'MANAGER', 'HR_MANAGER', 'ADMIN')")
+    public ResponseEntity<WorkspaceDto> getWorkspace() {
+        return ResponseEntity.ok(workspaceService.getWorkspace());
+    }
+}
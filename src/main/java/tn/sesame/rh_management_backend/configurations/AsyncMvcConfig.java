@@ -0,0 +1,31 @@
+package tn.sesame.rh_management_backend.configurations;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Async handling of streamed responses (document downloads): each body is
+ * written by its own virtual thread instead of the small default task pool,
+ * and a large download over a slow link is not cut by the 30 s container
+ * default. SseEmitter keeps its own timeout.
+ */
+@Configuration
+public class AsyncMvcConfig implements WebMvcConfigurer {
+
+    private final long timeoutMs;
+
+    public AsyncMvcConfig(@Value("${hr.documents.download-timeout-ms:3600000}") long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
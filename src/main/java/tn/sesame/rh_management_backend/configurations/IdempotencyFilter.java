@@ -0,0 +1,313 @@
+package tn.sesame.rh_management_backend.configurations;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.Part;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Idempotency-Key support for POST requests.
+ *
+ * The first request with a given key (per user and path) runs normally; its
+ * response is kept for hr.idempotency.ttl together with a SHA-256 digest of the
+ * request body. A retry with the same key and body gets that response back
+ * (with Idempotent-Replayed: true) without running the handler again, a retry
+ * with a different body is rejected with 422. Duplicates arriving while the
+ * first request is still running wait for its outcome instead of re-running it.
+ *
+ * Only responses below 500 are kept: after a server error or a failure, the
+ * key is released and the next retry executes again. The store is in memory,
+ * bounded by hr.idempotency.max-entries (least recently used entries go first).
+ */
+@Slf4j
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    // response headers that are part of the replayed response
+    private static final List<String> REPLAYED_HEADERS =
+            List.of(HttpHeaders.CONTENT_TYPE, HttpHeaders.LOCATION, HttpHeaders.ETAG);
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final int maxBodyBytes;
+    private final long waitTimeoutMs;
+
+    private final Map<String, Entry> entries;
+
+    public IdempotencyFilter(@Value("${hr.idempotency.ttl:24h}") Duration ttl,
+                             @Value("${hr.idempotency.max-entries:10000}") int maxEntries,
+                             @Value("${hr.idempotency.max-body-bytes:1048576}") int maxBodyBytes,
+                             @Value("${hr.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+        this.maxBodyBytes = maxBodyBytes;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyFilter.this.maxEntries;
+            }
+        };
+    }
+
+    /** Response kept for replays. */
+    private record StoredResponse(byte[] requestDigest, int status, Map<String, String> headers, byte[] body) {
+    }
+
+    /** A key's execution: completed with the stored response, or with null when it is not replayable. */
+    private static final class Entry {
+        final CompletableFuture<StoredResponse> outcome = new CompletableFuture<>();
+        final long expiresAt;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String user = authentication != null ? authentication.getName() : "anonymous";
+        String key = user + ' ' + request.getRequestURI() + ' ' + idempotencyKey;
+
+        while (true) {
+            Entry entry;
+            boolean leader = false;
+            synchronized (entries) {
+                long now = System.nanoTime();
+                entry = entries.get(key);
+                if (entry == null || now - entry.expiresAt > 0) {
+                    entry = new Entry(now + ttlNanos);
+                    entries.put(key, entry);
+                    leader = true;
+                }
+            }
+            if (leader) {
+                execute(key, entry, request, response, filterChain);
+                return;
+            }
+
+            StoredResponse stored;
+            try {
+                stored = entry.outcome.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                response.sendError(HttpServletResponse.SC_CONFLICT, "A request with this Idempotency-Key is still in progress");
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ServletException(e);
+            } catch (ExecutionException e) {
+                stored = null;
+            }
+            if (stored == null) {
+                // the first execution failed and released the key: try to take it over
+                continue;
+            }
+            if (!MessageDigest.isEqual(stored.requestDigest(), digest(request))) {
+                response.sendError(422, "Idempotency-Key was already used with a different request body");
+                return;
+            }
+            replay(stored, response);
+            return;
+        }
+    }
+
+    private void execute(String key, Entry entry, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain filterChain) throws ServletException, IOException {
+        boolean multipart = isMultipart(request);
+        DigestingRequest digesting = multipart ? null : new DigestingRequest(request);
+        ContentCachingResponseWrapper caching = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(digesting != null ? digesting : request, caching);
+            int status = caching.getStatus();
+            if (status < 500 && caching.getContentSize() <= maxBodyBytes) {
+                byte[] requestDigest = digesting != null ? digesting.finish() : digestParts(request);
+                Map<String, String> headers = new LinkedHashMap<>();
+                for (String name : REPLAYED_HEADERS) {
+                    String value = caching.getHeader(name);
+                    if (value != null) {
+                        headers.put(name, value);
+                    }
+                }
+                stored = new StoredResponse(requestDigest, status, headers, caching.getContentAsByteArray());
+            }
+        } finally {
+            if (stored == null) {
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+            }
+            entry.outcome.complete(stored);
+            caching.copyBodyToResponse();
+        }
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    // ---------------------------------------------------------------- request digest
+
+    private static boolean isMultipart(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType != null && contentType.toLowerCase().startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    private static byte[] digest(HttpServletRequest request) throws IOException, ServletException {
+        if (isMultipart(request)) {
+            return digestParts(request);
+        }
+        MessageDigest digest = sha256();
+        try (InputStream in = request.getInputStream()) {
+            byte[] buffer = new byte[8192];
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return digest.digest();
+    }
+
+    // multipart bodies are parsed by the container, so the parts are hashed (boundaries differ between retries)
+    private static byte[] digestParts(HttpServletRequest request) throws IOException, ServletException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[8192];
+        for (Part part : request.getParts()) {
+            digest.update(part.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            try (InputStream in = part.getInputStream()) {
+                for (int n; (n = in.read(buffer)) != -1; ) {
+                    digest.update(buffer, 0, n);
+                }
+            }
+            digest.update((byte) 0);
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Hashes the body while the handler reads it, so the first execution never buffers it. */
+    private static final class DigestingRequest extends HttpServletRequestWrapper {
+        private final MessageDigest digest = sha256();
+        private ServletInputStream inputStream;
+
+        DigestingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream in = super.getInputStream();
+                inputStream = new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        int b = in.read();
+                        if (b != -1) {
+                            digest.update((byte) b);
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int n = in.read(b, off, len);
+                        if (n > 0) {
+                            digest.update(b, off, n);
+                        }
+                        return n;
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return in.isFinished();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return in.isReady();
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        in.setReadListener(readListener);
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name()));
+        }
+
+        /** Reads what the handler left unread and returns the digest of the whole body. */
+        byte[] finish() throws IOException {
+            ServletInputStream in = getInputStream();
+            byte[] buffer = new byte[8192];
+            while (in.read(buffer) != -1) {
+                // hashed by read()
+            }
+            return digest.digest();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package tn.sesame.rh_management_backend.configurations;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (statistics reconciliation, ...).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,6 @@
 package tn.sesame.rh_management_backend.configurations;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -46,7 +47,7 @@ import java.util.List;
  *    - This provides a seamless login experience
  * 
  * Security Flow:
- * - Public endpoints: /api/auth/**, /h2-console/**, /actuator/**
+ * - Public endpoints: /api/auth/**, /h2-console/**, /actuator/** (except /actuator/payroll: HR managers and admins)
  * - OAuth2 login endpoints: /oauth2/authorization/**, /login/oauth2/code/**
  * - Protected endpoints: All other endpoints require authentication
  * - Role-based access: Different roles have access to different endpoints
@@ -93,10 +94,14 @@ public class SecurityConfig {
                 // Configure authorization rules
                 // Define which endpoints require authentication and which roles can access them
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches of already authorized requests (SSE completion/timeout)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints - no authentication required
                         .requestMatchers("/api/auth/**").permitAll() // Login, register, etc.
                         .requestMatchers("/api/oauth2/**").permitAll() // OAuth2 info endpoints
                         .requestMatchers("/h2-console/**").permitAll() // H2 database console (dev only)
+                        .requestMatchers("/actuator/payroll/**").hasAnyRole("HR_MANAGER", "ADMIN") // Payroll run progress
                         .requestMatchers("/actuator/**").permitAll() // Spring Boot Actuator endpoints
                         
                         // OAuth2 login endpoints - public (Spring Security handles OAuth2 flow)
@@ -188,6 +193,11 @@ public class SecurityConfig {
                 "X-Requested-With",   // For AJAX requests
                 "Accept",             // For content negotiation
                 "Origin",             // For CORS
+                "If-None-Match",      // Conditional GET (ETag)
+                "If-Match",           // Optimistic concurrency on PUT/DELETE
+                "Idempotency-Key",    // Safe retries of POST
+                "Range",              // Partial document downloads
+                "If-Range",
                 "Access-Control-Request-Method",
                 "Access-Control-Request-Headers"
         ));
@@ -195,7 +205,13 @@ public class SecurityConfig {
         // Exposed headers - headers that the browser can access in the response
         configuration.setExposedHeaders(Arrays.asList(
                 "Authorization",
-                "Content-Type"
+                "Content-Type",
+                "ETag",
+                "Idempotent-Replayed",
+                "Accept-Ranges",
+                "Content-Range",
+                "Content-Disposition",
+                "X-Upload-Throughput"
         ));
         
         // Allow credentials (cookies, authorization headers)
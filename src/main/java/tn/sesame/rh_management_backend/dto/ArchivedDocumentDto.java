@@ -0,0 +1,21 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public record ArchivedDocumentDto(
+        UUID id,
+        String documentName,
+        String contentType,
+        long fileSize,
+        DocumentAccessLevel level,
+        List<String> tags,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant uploadedAt,
+        String checkSum,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant archivedAt
+) {
+}
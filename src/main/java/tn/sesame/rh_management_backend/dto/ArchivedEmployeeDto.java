@@ -0,0 +1,35 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Archived employee. documents is only filled on single-employee lookups.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ArchivedEmployeeDto(
+        UUID id,
+        String employeeNumber,
+        String firstName,
+        String lastName,
+        EmployeeDepartment department,
+        EmployeeJobTitle jobTitle,
+        ContractType contract,
+        BigDecimal salary,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate hireDate,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate departedAt,
+        UUID managerId,
+        String userEmail,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant archivedAt,
+        List<ArchivedDocumentDto> documents
+) {
+}
@@ -0,0 +1,12 @@
+package tn.sesame.rh_management_backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BatchRequest(
+        @NotEmpty(message = "At least one request is required")
+        List<@Valid BatchRequestItem> requests
+) {
+}
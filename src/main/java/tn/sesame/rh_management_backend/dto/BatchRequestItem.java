@@ -0,0 +1,19 @@
+package tn.sesame.rh_management_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+import java.util.Map;
+
+/**
+ * One read of a batch: a GET of path (with its query string, e.g.
+ * "/api/documents/employee/{id}?fields=id,documentName"). id is echoed back
+ * in the matching response item. headers are optional request headers such
+ * as If-None-Match; credentials are taken from the batch request itself.
+ */
+public record BatchRequestItem(
+        String id,
+        @NotBlank(message = "path is required")
+        String path,
+        Map<String, String> headers
+) {
+}
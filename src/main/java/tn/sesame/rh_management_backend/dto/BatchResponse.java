@@ -0,0 +1,9 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.List;
+
+// items are in the order of the request
+public record BatchResponse(
+        List<BatchResponseItem> responses
+) {
+}
@@ -0,0 +1,16 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.Map;
+
+/**
+ * Result of one batch item, as the endpoint would have answered it alone.
+ * body is the parsed JSON body, the text of a text response, or Base64 for
+ * anything else (see the Content-Type header).
+ */
+public record BatchResponseItem(
+        String id,
+        int status,
+        Map<String, String> headers,
+        Object body
+) {
+}
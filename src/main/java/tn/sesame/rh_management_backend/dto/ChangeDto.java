@@ -0,0 +1,18 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record ChangeDto(
+        String cursor,
+        ChangeResource resource,
+        UUID id,
+        ChangeType type,
+        long version,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant occurredAt
+) {
+}
@@ -0,0 +1,17 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of the change feed.
+ * cursor is the value to send as since= on the next call (unchanged when there is nothing new).
+ * reset is true when the given cursor is older than the retention horizon: changes were
+ * purged, the client must resync fully and then follow the feed from cursor.
+ */
+public record ChangeFeedDto(
+        List<ChangeDto> changes,
+        String cursor,
+        boolean hasMore,
+        boolean reset
+) {
+}
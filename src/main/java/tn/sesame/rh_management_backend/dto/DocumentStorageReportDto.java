@@ -0,0 +1,22 @@
+package tn.sesame.rh_management_backend.dto;
+
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
+
+/**
+ * Storage used by the documents of one content type and codec. originalBytes
+ * and storedBytes are per document: a body shared by several documents counts
+ * once for each. uniqueStoredBytes counts every body once, it is what the store
+ * holds; savedBytes and savingsPercent compare it with originalBytes, so they
+ * include both compression and deduplication.
+ */
+public record DocumentStorageReportDto(
+        String contentType,
+        ContentCodec compression,
+        long documents,
+        long originalBytes,
+        long storedBytes,
+        long uniqueStoredBytes,
+        long savedBytes,
+        double savingsPercent
+) {
+}
@@ -0,0 +1,15 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a tag query: how many visible documents match, the first of them
+ * and, per tag, how many of the matches carry it (largest counts first).
+ */
+public record DocumentTagSearchResponse(
+        int total,
+        List<HRDocumentDTO> documents,
+        Map<String, Integer> facets
+) {
+}
@@ -0,0 +1,28 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.AggregationDimension;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ad-hoc aggregation over the in-memory employee column store.
+ *
+ * Empty or null filters match everything; hire date bounds are inclusive.
+ * Example: average salary by department and contract for people hired since 2020
+ * is groupBy=[DEPARTMENT, CONTRACT], hiredFrom=2020-01-01.
+ */
+public record EmployeeAggregationRequest(
+        List<AggregationDimension> groupBy,
+        Set<EmployeeDepartment> departments,
+        Set<EmployeeJobTitle> jobTitles,
+        Set<ContractType> contracts,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate hiredFrom,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate hiredTo
+) {
+}
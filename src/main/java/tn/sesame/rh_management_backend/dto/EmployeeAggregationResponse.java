@@ -0,0 +1,25 @@
+package tn.sesame.rh_management_backend.dto;
+
+import tn.sesame.rh_management_backend.Enumerations.AggregationDimension;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record EmployeeAggregationResponse(
+        long scannedRows,
+        long matchedRows,
+        long tookMicros,
+        List<Group> groups
+) {
+
+    public record Group(
+            Map<AggregationDimension, String> key,
+            long count,
+            BigDecimal salarySum,
+            BigDecimal averageSalary,
+            BigDecimal minSalary,
+            BigDecimal maxSalary
+    ) {
+    }
+}
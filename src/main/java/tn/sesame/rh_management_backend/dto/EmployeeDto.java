@@ -1,10 +1,12 @@
 package tn.sesame.rh_management_backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Builder;
 import tn.sesame.rh_management_backend.Enumerations.ContractType;
 import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
 import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -28,8 +30,18 @@ public record EmployeeDto(
         BigDecimal salary,
         EmployeeJobTitle jobTitle,
         ContractType contract,
+        EmploymentStatus status,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate departedAt,
         UUID managerId,
         String managerName,
-        UserDto user
+        @JsonIgnore Long managerVersion,
+        UserDto user,
+        long version
 ) {
+
+    /** What the entity tag covers: this employee, its user and the manager named in managerName. */
+    @JsonIgnore
+    public EntityVersions versions() {
+        return EntityVersions.of(version, user != null ? user.version() : null, managerVersion);
+    }
 }
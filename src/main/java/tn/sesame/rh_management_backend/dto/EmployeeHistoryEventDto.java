@@ -0,0 +1,17 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+
+import java.time.Instant;
+import java.util.Map;
+
+public record EmployeeHistoryEventDto(
+        int sequence,
+        ChangeType type,
+        boolean snapshot,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant occurredAt,
+        String changedBy,
+        Map<String, String> changes
+) {
+}
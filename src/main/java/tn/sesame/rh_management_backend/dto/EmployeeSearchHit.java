@@ -0,0 +1,10 @@
+package tn.sesame.rh_management_backend.dto;
+
+/**
+ * One ranked employee search result.
+ */
+public record EmployeeSearchHit(
+        EmployeeDto employee,
+        double score
+) {
+}
@@ -0,0 +1,16 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.List;
+
+/**
+ * Paginated employee search response.
+ * total is the number of accessible matches across all pages.
+ */
+public record EmployeeSearchResponse(
+        String query,
+        int page,
+        int size,
+        int total,
+        List<EmployeeSearchHit> hits
+) {
+}
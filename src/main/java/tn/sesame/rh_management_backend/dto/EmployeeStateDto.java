@@ -0,0 +1,29 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * State of an employee rebuilt from the change history at a given date.
+ */
+public record EmployeeStateDto(
+        UUID employeeId,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate asOf,
+        int sequence,
+        boolean deleted,
+        String firstName,
+        String lastName,
+        EmployeeDepartment department,
+        EmployeeJobTitle jobTitle,
+        @JsonFormat(pattern = "yyyy-MM-dd") LocalDate hireDate,
+        ContractType contract,
+        BigDecimal salary,
+        UUID managerId
+) {
+}
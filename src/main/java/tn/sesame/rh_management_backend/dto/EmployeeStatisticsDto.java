@@ -0,0 +1,31 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Headcount and payroll counters, rolled up from the employee_statistics cells.
+ */
+public record EmployeeStatisticsDto(
+        Counter total,
+        Map<EmployeeDepartment, Counter> byDepartment,
+        Map<EmployeeJobTitle, Counter> byJobTitle,
+        Map<ContractType, Counter> byContract,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant updatedAt
+) {
+
+    public record Counter(
+            long headcount,
+            BigDecimal salarySum,
+            BigDecimal averageSalary,
+            BigDecimal minSalary,
+            BigDecimal maxSalary
+    ) {
+    }
+}
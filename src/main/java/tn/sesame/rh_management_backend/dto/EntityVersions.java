@@ -0,0 +1,16 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Version of a resource's row plus, in a fixed order, the versions of the other
+ * rows its representation embeds (null where there is none). Entity tags are
+ * built from it.
+ */
+public record EntityVersions(long version, List<Long> embedded) {
+
+    public static EntityVersions of(long version, Long... embedded) {
+        return new EntityVersions(version, Arrays.asList(embedded));
+    }
+}
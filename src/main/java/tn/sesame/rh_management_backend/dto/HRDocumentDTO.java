@@ -1,7 +1,9 @@
 package tn.sesame.rh_management_backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
+import tn.sesame.rh_management_backend.Enumerations.ContentCodec;
 import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
 
 import java.time.Instant;
@@ -9,7 +11,7 @@ import java.util.Set;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class HRDocumentDTO {
@@ -17,11 +19,21 @@ public class HRDocumentDTO {
     private String documentName;
     private String contentType;
     private long fileSize;
+    private ContentCodec compression;
     private DocumentAccessLevel level;
     private UUID employeeId;
     private String employeeName;
+    @JsonIgnore
+    private Long employeeVersion;
     private Set<String> tags;
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC")
     private Instant uploadedAt;
     private String checkSum;
+    private long version;
+
+    /** What the entity tag covers: this document and the owner named in employeeName. */
+    @JsonIgnore
+    public EntityVersions versions() {
+        return EntityVersions.of(version, employeeVersion);
+    }
 }
@@ -0,0 +1,19 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Progress of the current or last run of a background admin job on this
+ * instance. Counters are live while it runs; error is set when the run stopped early.
+ */
+public record JobStatusDto(
+        boolean running,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant startedAt,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant finishedAt,
+        Map<String, Integer> counters,
+        String error
+) {
+}
@@ -0,0 +1,26 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import tn.sesame.rh_management_backend.Enumerations.ChangeResource;
+import tn.sesame.rh_management_backend.Enumerations.ChangeType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Pushed over /api/live. Only identifies what changed; clients reload the
+ * resource (conditional GET with the version as ETag) if they need it.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LiveUpdateDto(
+        ChangeResource resource,
+        UUID id,
+        ChangeType type,
+        EmployeeDepartment department,
+        UUID ownerId,
+        long version,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant occurredAt
+) {
+}
@@ -0,0 +1,26 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import tn.sesame.rh_management_backend.Enumerations.PayrollRunStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Payroll run status. throughputPerSecond and etaSeconds are only set
+ * while the run is executing on this instance.
+ */
+public record PayrollRunDto(
+        UUID id,
+        String period,
+        PayrollRunStatus status,
+        long totalEmployees,
+        long processedEmployees,
+        long payslipCount,
+        Double throughputPerSecond,
+        Long etaSeconds,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant startedAt,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant finishedAt,
+        String lastError
+) {
+}
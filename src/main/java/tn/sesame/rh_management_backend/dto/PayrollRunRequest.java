@@ -0,0 +1,12 @@
+package tn.sesame.rh_management_backend.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.YearMonth;
+
+public record PayrollRunRequest(
+        // yyyy-MM
+        @NotNull(message = "Period is required")
+        YearMonth period
+) {
+}
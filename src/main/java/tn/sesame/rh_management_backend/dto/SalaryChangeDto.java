@@ -0,0 +1,16 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record SalaryChangeDto(
+        UUID employeeId,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant occurredAt,
+        String changedBy,
+        BigDecimal previousSalary,
+        BigDecimal salary
+) {
+}
@@ -0,0 +1,20 @@
+package tn.sesame.rh_management_backend.dto;
+
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+
+import java.util.UUID;
+
+/**
+ * Colleague as seen by another employee: directory fields only (no salary,
+ * contract or account details).
+ */
+public record TeamMemberDto(
+        UUID id,
+        String firstName,
+        String lastName,
+        EmployeeDepartment department,
+        EmployeeJobTitle jobTitle,
+        String email
+) {
+}
@@ -0,0 +1,24 @@
+package tn.sesame.rh_management_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * State of a resumable upload. Chunk numbers start at 0; the session is
+ * removed if nothing is received before expiresAt.
+ */
+public record UploadSessionDto(
+        UUID id,
+        String documentName,
+        long totalSize,
+        int chunkSize,
+        int chunkCount,
+        List<Integer> receivedChunks,
+        List<Integer> missingChunks,
+        long receivedBytes,
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant expiresAt
+) {
+}
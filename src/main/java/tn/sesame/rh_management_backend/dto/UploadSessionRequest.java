@@ -0,0 +1,32 @@
+package tn.sesame.rh_management_backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Opens a resumable upload. chunkSize is optional (hr.uploads.chunk-size),
+ * every chunk but the last must have exactly that size.
+ */
+public record UploadSessionRequest(
+        @NotBlank(message = "Document name is required")
+        String documentName,
+        String contentType,
+        @NotNull(message = "Access level is required")
+        DocumentAccessLevel level,
+        @NotNull(message = "Employee ID is required")
+        UUID employeeId,
+        // stored comma-separated in the session until commit
+        Set<@Pattern(regexp = "[^,]*", message = "Tags cannot contain commas") String> tags,
+        @NotNull(message = "Total size is required")
+        @Positive(message = "Total size must be positive")
+        Long totalSize,
+        @Positive(message = "Chunk size must be positive")
+        Integer chunkSize
+) {
+}
@@ -20,6 +20,7 @@ public record UserDto(
         boolean emailVerified,
         boolean locked,
         @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant lastLoginAt,
-        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant createdAt
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss", timezone = "UTC") Instant createdAt,
+        long version
 ) {
 }
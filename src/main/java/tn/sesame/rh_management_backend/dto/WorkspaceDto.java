@@ -0,0 +1,18 @@
+package tn.sesame.rh_management_backend.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the landing page needs, in one response. Parts are loaded
+ * concurrently; a part that failed or timed out is null and its reason is in
+ * errors (keyed by part name: user, employee, documents, team).
+ */
+public record WorkspaceDto(
+        UserDto user,
+        EmployeeDto employee,
+        List<Map<String, Object>> documents,
+        List<TeamMemberDto> team,
+        Map<String, String> errors
+) {
+}
@@ -0,0 +1,7 @@
+package tn.sesame.rh_management_backend.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,77 @@
+package tn.sesame.rh_management_backend.grpc;
+
+import io.grpc.Server;
+import io.grpc.ServerInterceptors;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process gRPC server (next to Tomcat, on hr.grpc.port), started and
+ * stopped with the application context. Only enabled with hr.grpc.enabled=true.
+ * Plaintext: it is meant for the internal network, behind the same boundary
+ * as the services that call it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hr.grpc.enabled", havingValue = "true")
+public class HrSyncGrpcServer implements SmartLifecycle {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Server server;
+    private final int port;
+    private volatile boolean running;
+
+    public HrSyncGrpcServer(HrSyncGrpcService syncService,
+                            JwtServerInterceptor jwtInterceptor,
+                            @Value("${hr.grpc.port:9996}") int port,
+                            @Value("${hr.grpc.max-concurrent-calls-per-connection:16}") int maxConcurrentCalls) {
+        this.port = port;
+        this.server = NettyServerBuilder.forPort(port)
+                .executor(executor)
+                .addService(ServerInterceptors.intercept(syncService, jwtInterceptor))
+                .maxConcurrentCallsPerConnection(maxConcurrentCalls)
+                .permitKeepAliveTime(1, TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public void start() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start the gRPC server on port " + port, e);
+        }
+        running = true;
+        log.info("gRPC sync server listening on port {}", port);
+    }
+
+    @Override
+    public void stop() {
+        server.shutdown();
+        try {
+            if (!server.awaitTermination(10, TimeUnit.SECONDS)) {
+                server.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            server.shutdownNow();
+        }
+        executor.shutdownNow();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
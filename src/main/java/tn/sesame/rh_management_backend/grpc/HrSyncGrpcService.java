@@ -0,0 +1,240 @@
+package tn.sesame.rh_management_backend.grpc;
+
+import com.google.protobuf.Timestamp;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.Services.EmployeeService;
+import tn.sesame.rh_management_backend.Services.HRDocumentService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Server-streaming bulk sync of employees and document metadata.
+ *
+ * Rows are read in keyset pages ordered by id (one query per page, plus one
+ * for document tags), so a stream can be resumed after any message with
+ * after_id. Each stream is produced by its own virtual thread that only sends
+ * while the transport reports the call ready: a slow client parks the producer
+ * instead of buffering the table in memory.
+ *
+ * Pages are separate read transactions; clients that need an exact copy take a
+ * change feed cursor (GET /api/changes) before the first page and replay it.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hr.grpc.enabled", havingValue = "true")
+public class HrSyncGrpcService extends HrSyncGrpc.HrSyncImplBase {
+
+    // smallest uuid in PostgreSQL ordering
+    private static final UUID FIRST = new UUID(0, 0);
+
+    private final EmployeeService employeeService;
+    private final HRDocumentService documentService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public HrSyncGrpcService(EmployeeService employeeService,
+                             HRDocumentService documentService,
+                             @Value("${hr.grpc.page-size:500}") int defaultPageSize,
+                             @Value("${hr.grpc.max-page-size:5000}") int maxPageSize) {
+        this.employeeService = employeeService;
+        this.documentService = documentService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public void streamEmployees(StreamRequest request, StreamObserver<Employee> responseObserver) {
+        stream(request, responseObserver, employeeService::getEmployeePageAfter, HrSyncGrpcService::toEmployee);
+    }
+
+    @Override
+    public void streamDocuments(StreamRequest request, StreamObserver<DocumentMetadata> responseObserver) {
+        stream(request, responseObserver, documentService::getDocumentPageAfter, HrSyncGrpcService::toDocument);
+    }
+
+    private <T> void stream(StreamRequest request, StreamObserver<T> responseObserver,
+                            BiFunction<UUID, Integer, List<Map<String, Object>>> pages,
+                            Function<Map<String, Object>, T> mapper) {
+        ServerCallStreamObserver<T> call = (ServerCallStreamObserver<T>) responseObserver;
+        UUID after;
+        try {
+            after = request.getAfterId().isEmpty() ? FIRST : UUID.fromString(request.getAfterId());
+        } catch (IllegalArgumentException e) {
+            call.onError(Status.INVALID_ARGUMENT.withDescription("after_id is not a UUID").asRuntimeException());
+            return;
+        }
+        int pageSize = request.getPageSize() > 0 ? Math.min(request.getPageSize(), maxPageSize) : defaultPageSize;
+        Authentication authentication = JwtServerInterceptor.AUTHENTICATION.get();
+
+        // handlers must be registered before this method returns
+        Readiness readiness = new Readiness(call);
+        call.setOnReadyHandler(readiness::signal);
+        call.setOnCancelHandler(readiness::cancel);
+
+        // the call's callbacks (including onReady) run serialized with this method, so produce elsewhere
+        Thread.ofVirtual().name("grpc-sync").start(() -> {
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            try {
+                UUID cursor = after;
+                List<Map<String, Object>> page;
+                do {
+                    page = pages.apply(cursor, pageSize);
+                    for (Map<String, Object> row : page) {
+                        if (!readiness.await()) {
+                            return;
+                        }
+                        call.onNext(mapper.apply(row));
+                    }
+                    if (!page.isEmpty()) {
+                        cursor = (UUID) page.getLast().get("id");
+                    }
+                } while (page.size() == pageSize);
+                call.onCompleted();
+            } catch (AccessDeniedException e) {
+                fail(call, readiness, Status.PERMISSION_DENIED.withDescription("Requires the HR_MANAGER or ADMIN role"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(call, readiness, Status.CANCELLED);
+            } catch (RuntimeException e) {
+                log.warn("gRPC sync stream failed", e);
+                fail(call, readiness, Status.INTERNAL.withDescription("Stream failed"));
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        });
+    }
+
+    private static void fail(ServerCallStreamObserver<?> call, Readiness readiness, Status status) {
+        // a cancelled call no longer accepts anything
+        if (!readiness.cancelled) {
+            call.onError(status.asRuntimeException());
+        }
+    }
+
+    /** Parks the producer until the transport can take another message or the call is cancelled. */
+    private static final class Readiness {
+        private final ServerCallStreamObserver<?> call;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+        private volatile boolean cancelled;
+
+        Readiness(ServerCallStreamObserver<?> call) {
+            this.call = call;
+        }
+
+        void signal() {
+            lock.lock();
+            try {
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            signal();
+        }
+
+        boolean await() throws InterruptedException {
+            lock.lock();
+            try {
+                while (!cancelled && !call.isReady()) {
+                    changed.await();
+                }
+                return !cancelled;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- mapping
+
+    private static Employee toEmployee(Map<String, Object> row) {
+        Employee.Builder employee = Employee.newBuilder()
+                .setId(text(row.get("id")))
+                .setEmployeeNumber(text(row.get("employeeNumber")))
+                .setFirstName(text(row.get("firstName")))
+                .setLastName(text(row.get("lastName")))
+                .setDepartment(text(row.get("department")))
+                .setHireDate(text(row.get("hireDate")))
+                .setSalary(row.get("salary") instanceof BigDecimal salary ? salary.toPlainString() : "")
+                .setJobTitle(text(row.get("jobTitle")))
+                .setContract(text(row.get("contract")))
+                .setStatus(text(row.get("status")))
+                .setDepartedAt(text(row.get("departedAt")))
+                .setManagerId(text(row.get("managerId")))
+                .setManagerName(text(row.get("managerName")))
+                .setVersion(number(row.get("version")));
+        if (row.get("user") instanceof Map<?, ?> user) {
+            User.Builder builder = User.newBuilder()
+                    .setId(text(user.get("id")))
+                    .setEmail(text(user.get("email")))
+                    .setRole(text(user.get("role")))
+                    .setMfaEnabled(Boolean.TRUE.equals(user.get("mfaEnabled")))
+                    .setEmailVerified(Boolean.TRUE.equals(user.get("emailVerified")))
+                    .setLocked(Boolean.TRUE.equals(user.get("locked")))
+                    .setVersion(number(user.get("version")));
+            if (user.get("lastLoginAt") instanceof Instant lastLoginAt) {
+                builder.setLastLoginAt(timestamp(lastLoginAt));
+            }
+            if (user.get("createdAt") instanceof Instant createdAt) {
+                builder.setCreatedAt(timestamp(createdAt));
+            }
+            employee.setUser(builder);
+        }
+        return employee.build();
+    }
+
+    private static DocumentMetadata toDocument(Map<String, Object> row) {
+        DocumentMetadata.Builder document = DocumentMetadata.newBuilder()
+                .setId(text(row.get("id")))
+                .setDocumentName(text(row.get("documentName")))
+                .setContentType(text(row.get("contentType")))
+                .setFileSize(number(row.get("fileSize")))
+                .setLevel(text(row.get("level")))
+                .setEmployeeId(text(row.get("employeeId")))
+                .setEmployeeName(text(row.get("employeeName")))
+                .setCheckSum(text(row.get("checkSum")))
+                .setVersion(number(row.get("version")));
+        if (row.get("tags") instanceof Collection<?> tags) {
+            tags.forEach(tag -> document.addTags(tag.toString()));
+        }
+        if (row.get("uploadedAt") instanceof Instant uploadedAt) {
+            document.setUploadedAt(timestamp(uploadedAt));
+        }
+        return document.build();
+    }
+
+    // proto3 strings cannot be null: absent values are sent as ""
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+
+    private static Timestamp timestamp(Instant instant) {
+        return Timestamp.newBuilder().setSeconds(instant.getEpochSecond()).setNanos(instant.getNano()).build();
+    }
+}
@@ -0,0 +1,68 @@
+package tn.sesame.rh_management_backend.grpc;
+
+import io.grpc.Context;
+import io.grpc.Contexts;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import tn.sesame.rh_management_backend.configurations.JwtUtil;
+
+/**
+ * gRPC counterpart of JwtAuthenticationFilter: the "authorization: Bearer <jwt>"
+ * metadata is validated with the same JwtUtil and user lookup, and the resulting
+ * Authentication is attached to the call context. Calls without a valid token
+ * are closed with UNAUTHENTICATED before reaching the service.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "hr.grpc.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class JwtServerInterceptor implements ServerInterceptor {
+
+    public static final Context.Key<Authentication> AUTHENTICATION = Context.key("authentication");
+
+    private static final Metadata.Key<String> AUTHORIZATION =
+            Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final JwtUtil jwtUtil;
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public <Q, R> ServerCall.Listener<Q> interceptCall(ServerCall<Q, R> call, Metadata headers,
+                                                      ServerCallHandler<Q, R> next) {
+        String header = headers.get(AUTHORIZATION);
+        if (header == null || !header.startsWith("Bearer ") || header.length() <= 7) {
+            return reject(call, "Missing bearer token");
+        }
+        String jwt = header.substring(7).trim();
+        try {
+            UserDetails userDetails = userDetailsService.loadUserByUsername(jwtUtil.extractUsername(jwt));
+            if (!jwtUtil.validateToken(jwt, userDetails)) {
+                return reject(call, "Invalid or expired token");
+            }
+            Authentication authentication = UsernamePasswordAuthenticationToken.authenticated(
+                    userDetails, null, userDetails.getAuthorities());
+            return Contexts.interceptCall(Context.current().withValue(AUTHENTICATION, authentication),
+                    call, headers, next);
+        } catch (RuntimeException e) {
+            log.debug("Rejected gRPC call {}: {}", call.getMethodDescriptor().getFullMethodName(), e.getMessage());
+            return reject(call, "Invalid or expired token");
+        }
+    }
+
+    private static <Q, R> ServerCall.Listener<Q> reject(ServerCall<Q, R> call, String reason) {
+        call.close(Status.UNAUTHENTICATED.withDescription(reason), new Metadata());
+        return new ServerCall.Listener<>() {
+        };
+    }
+}
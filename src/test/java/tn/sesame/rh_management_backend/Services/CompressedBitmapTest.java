@@ -0,0 +1,184 @@
+package tn.sesame.rh_management_backend.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressedBitmapTest {
+
+    // group 3: values 3 * 65536 .. 4 * 65536 - 1
+    private static final int BASE = 3 << 16;
+
+    @Test
+    void addGrowsAGroupPastTheArrayLimit() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 5000; i++) {
+            int value = BASE + i * 7;
+            assertTrue(bitmap.add(value));
+            expected.set(value);
+            if (i >= 4090 && i <= 4100) {
+                assertContents(expected, bitmap);
+            }
+        }
+        assertFalse(bitmap.add(BASE + 7 * 4096));
+        assertContents(expected, bitmap);
+    }
+
+    @Test
+    void removeShrinksAGroupBelowHalfTheArrayLimit() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            values.add(BASE + i * 13);
+        }
+        values.forEach(bitmap::add);
+        values.forEach(expected::set);
+
+        Collections.shuffle(values, new Random(1));
+        for (int i = 0; i < values.size(); i++) {
+            int value = values.get(i);
+            assertTrue(bitmap.remove(value));
+            assertFalse(bitmap.remove(value));
+            expected.clear(value);
+            int left = values.size() - i - 1;
+            if (left >= 4094 && left <= 4098 || left >= 2046 && left <= 2050 || left <= 2) {
+                assertContents(expected, bitmap);
+            }
+        }
+        assertTrue(bitmap.isEmpty());
+        assertEquals(0, bitmap.groups());
+    }
+
+    @Test
+    void addAndRemoveAroundTheLimitKeepTheContents() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 4096; i++) {
+            bitmap.add(BASE + i);
+            expected.set(BASE + i);
+        }
+        for (int round = 0; round < 10; round++) {
+            bitmap.add(BASE + 60_000 + round);
+            expected.set(BASE + 60_000 + round);
+            assertContents(expected, bitmap);
+            bitmap.remove(BASE + round);
+            expected.clear(BASE + round);
+            assertContents(expected, bitmap);
+        }
+    }
+
+    @Test
+    void setOperationsMatchBitSet() {
+        Random random = new Random(7);
+        // sparse, mixed and dense groups, spread over several groups
+        int[][] shapes = {{400_000, 3_000}, {300_000, 60_000}, {200_000, 150_000}, {70_000, 69_000}, {1 << 20, 20_000}};
+        for (int[] x : shapes) {
+            for (int[] y : shapes) {
+                BitSet a = new BitSet();
+                BitSet b = new BitSet();
+                CompressedBitmap left = fill(random, x[0], x[1], a);
+                CompressedBitmap right = fill(random, y[0], y[1], b);
+
+                BitSet and = (BitSet) a.clone();
+                and.and(b);
+                BitSet or = (BitSet) a.clone();
+                or.or(b);
+                BitSet andNot = (BitSet) a.clone();
+                andNot.andNot(b);
+
+                assertContents(and, left.and(right));
+                assertEquals(and.cardinality(), left.andCardinality(right));
+                assertContents(or, left.or(right));
+                assertContents(andNot, left.andNot(right));
+                // results may share groups with their operands, but never change them
+                assertContents(a, left);
+                assertContents(b, right);
+            }
+        }
+    }
+
+    @Test
+    void operationsWithAnEmptyBitmap() {
+        BitSet a = new BitSet();
+        CompressedBitmap bitmap = fill(new Random(3), 200_000, 10_000, a);
+        CompressedBitmap empty = new CompressedBitmap();
+
+        assertTrue(bitmap.and(empty).isEmpty());
+        assertEquals(0, empty.andCardinality(bitmap));
+        assertContents(a, bitmap.or(empty));
+        assertContents(a, empty.or(bitmap));
+        assertContents(a, bitmap.andNot(empty));
+        assertTrue(empty.andNot(bitmap).isEmpty());
+    }
+
+    @Test
+    void firstReturnsTheSmallestValuesInOrder() {
+        BitSet expected = new BitSet();
+        CompressedBitmap bitmap = fill(new Random(5), 500_000, 100_000, expected);
+
+        int[] first = bitmap.first(1000);
+        assertEquals(1000, first.length);
+        int value = -1;
+        for (int v : first) {
+            value = expected.nextSetBit(value + 1);
+            assertEquals(value, v);
+        }
+        assertEquals(expected.cardinality(), bitmap.first(Integer.MAX_VALUE).length);
+        assertEquals(0, bitmap.first(0).length);
+    }
+
+    @Test
+    void containsFollowsAddAndRemove() {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        bitmap.add(0);
+        bitmap.add(65_535);
+        bitmap.add(65_536);
+        bitmap.add(Integer.MAX_VALUE);
+
+        assertTrue(bitmap.contains(0));
+        assertTrue(bitmap.contains(65_535));
+        assertTrue(bitmap.contains(65_536));
+        assertTrue(bitmap.contains(Integer.MAX_VALUE));
+        assertFalse(bitmap.contains(1));
+        assertFalse(bitmap.contains(131_072));
+        assertEquals(3, bitmap.groups());
+
+        bitmap.remove(65_536);
+        assertFalse(bitmap.contains(65_536));
+        assertEquals(2, bitmap.groups());
+        assertEquals(3, bitmap.cardinality());
+    }
+
+    private static CompressedBitmap fill(Random random, int range, int count, BitSet expected) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        for (int i = 0; i < count; i++) {
+            int value = random.nextInt(range);
+            assertEquals(!expected.get(value), bitmap.add(value));
+            expected.set(value);
+        }
+        return bitmap;
+    }
+
+    private static void assertContents(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.cardinality());
+        BitSet contents = new BitSet();
+        int[] previous = {-1};
+        actual.forEach(value -> {
+            assertTrue(value > previous[0], "ascending order");
+            previous[0] = value;
+            contents.set(value);
+        });
+        assertEquals(expected, contents);
+        for (int value = expected.nextSetBit(0); value >= 0; value = expected.nextSetBit(value + 1)) {
+            assertTrue(actual.contains(value));
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package tn.sesame.rh_management_backend.Services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentEnvelopeCipherTest {
+
+    private static final int CHUNK = 64;
+    private static final byte[] KEY_1 = filled(32, 1);
+    private static final byte[] KEY_2 = filled(32, 2);
+    private static final String KEYS = "1:" + base64(KEY_1) + ",2:" + base64(KEY_2);
+
+    @TempDir
+    Path dir;
+
+    // two threads: a window of four chunks, so longer bodies cycle through it
+    private final DocumentEnvelopeCipher cipher = new DocumentEnvelopeCipher(KEYS, 1, CHUNK, 2);
+
+    @AfterEach
+    void tearDown() {
+        cipher.shutdown();
+    }
+
+    @Test
+    void roundTripsAroundChunkBoundaries() throws IOException {
+        for (int size : new int[]{0, 1, CHUNK - 1, CHUNK, CHUNK + 1, 3 * CHUNK, 20 * CHUNK + 5}) {
+            byte[] plain = random(size);
+            Path file = encrypt(cipher, plain, 7);
+
+            assertArrayEquals(plain, read(cipher, file, 0), "size " + size);
+            assertEquals(7, header(cipher, file).encoding());
+        }
+    }
+
+    @Test
+    void readsFromAnyOffset() throws IOException {
+        byte[] plain = random(10 * CHUNK + 17);
+        Path file = encrypt(cipher, plain, 0);
+
+        for (int offset : new int[]{1, CHUNK - 1, CHUNK, CHUNK + 1, 5 * CHUNK + 3, 10 * CHUNK, plain.length - 1, plain.length}) {
+            assertArrayEquals(Arrays.copyOfRange(plain, offset, plain.length), read(cipher, file, offset), "offset " + offset);
+        }
+    }
+
+    @Test
+    void rejectsABodyTruncatedAtAChunkBoundary() throws IOException {
+        Path file = encrypt(cipher, random(4 * CHUNK), 0);
+        long sealedChunk = CHUNK + 16;
+        long headerLength = header(cipher, file).length();
+
+        // the remaining last chunk was sealed as "not last"
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(headerLength + 3 * sealedChunk);
+        }
+
+        assertThrows(IOException.class, () -> read(cipher, file, 0));
+    }
+
+    @Test
+    void rejectsReorderedChunks() throws IOException {
+        Path file = encrypt(cipher, random(4 * CHUNK), 0);
+        byte[] body = Files.readAllBytes(file);
+        int start = header(cipher, file).length();
+        int sealedChunk = CHUNK + 16;
+
+        byte[] first = Arrays.copyOfRange(body, start, start + sealedChunk);
+        System.arraycopy(body, start + sealedChunk, body, start, sealedChunk);
+        System.arraycopy(first, 0, body, start + sealedChunk, sealedChunk);
+        Files.write(file, body);
+
+        assertThrows(IOException.class, () -> read(cipher, file, 0));
+    }
+
+    @Test
+    void rejectsATamperedChunk() throws IOException {
+        Path file = encrypt(cipher, random(3 * CHUNK), 0);
+        byte[] body = Files.readAllBytes(file);
+        body[header(cipher, file).length() + CHUNK + 20] ^= 1;
+        Files.write(file, body);
+
+        assertThrows(IOException.class, () -> read(cipher, file, 0));
+    }
+
+    @Test
+    void rewrapMovesTheBodyToTheActiveKeyWithoutReencrypting() throws IOException {
+        byte[] plain = random(5 * CHUNK + 9);
+        Path file = encrypt(cipher, plain, 3);
+
+        DocumentEnvelopeCipher rotated = new DocumentEnvelopeCipher(KEYS, 2, CHUNK, 2);
+        DocumentEnvelopeCipher onlyNewKey = new DocumentEnvelopeCipher("2:" + base64(KEY_2), 2, CHUNK, 2);
+        try {
+            DocumentEnvelopeCipher.Header header = header(rotated, file);
+            assertTrue(rotated.needsRewrap(header));
+
+            Path rewrapped = dir.resolve("rewrapped");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                 OutputStream out = Files.newOutputStream(rewrapped)) {
+                rotated.rewrap(channel, header, out);
+            }
+
+            DocumentEnvelopeCipher.Header newHeader = header(onlyNewKey, rewrapped);
+            assertEquals(2, newHeader.keyId());
+            assertEquals(3, newHeader.encoding());
+            assertFalse(rotated.needsRewrap(newHeader));
+            assertArrayEquals(plain, read(onlyNewKey, rewrapped, 0));
+            // same chunks, only the header changed
+            byte[] before = Files.readAllBytes(file);
+            byte[] after = Files.readAllBytes(rewrapped);
+            assertArrayEquals(Arrays.copyOfRange(before, header.length(), before.length),
+                    Arrays.copyOfRange(after, newHeader.length(), after.length));
+
+            assertThrows(IOException.class, () -> read(onlyNewKey, file, 0));
+        } finally {
+            rotated.shutdown();
+            onlyNewKey.shutdown();
+        }
+    }
+
+    @Test
+    void readsHrd2Bodies() throws Exception {
+        byte[] plain = random(3 * CHUNK + 10);
+        Path file = writeHrd2(plain);
+
+        assertEquals(2, header(cipher, file).version());
+        assertArrayEquals(plain, read(cipher, file, 0));
+        assertArrayEquals(Arrays.copyOfRange(plain, CHUNK + 5, plain.length), read(cipher, file, CHUNK + 5));
+    }
+
+    private Path encrypt(DocumentEnvelopeCipher cipher, byte[] plain, int encoding) throws IOException {
+        Path file = Files.createTempFile(dir, "body", ".hrd");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            assertEquals(plain.length, cipher.encrypt(new ByteArrayInputStream(plain), out, encoding));
+        }
+        return file;
+    }
+
+    private static byte[] read(DocumentEnvelopeCipher cipher, Path file, long offset) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        DocumentEnvelopeCipher.Header header = cipher.readHeader(channel, magic(channel));
+        try (InputStream in = cipher.decrypt(channel, header, offset)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static DocumentEnvelopeCipher.Header header(DocumentEnvelopeCipher cipher, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return cipher.readHeader(channel, magic(channel));
+        }
+    }
+
+    private static byte[] magic(FileChannel channel) throws IOException {
+        ByteBuffer magic = ByteBuffer.allocate(4);
+        while (magic.hasRemaining() && channel.read(magic) != -1) {
+        }
+        assertTrue(DocumentEnvelopeCipher.isEnvelope(magic.array()));
+        return magic.array();
+    }
+
+    // HRD2 as written before the encoding byte: no encoding in the header nor in the associated data
+    private Path writeHrd2(byte[] plain) throws Exception {
+        SecretKeySpec dataKey = new SecretKeySpec(random(32), "AES");
+        Cipher wrap = Cipher.getInstance("AESWrap");
+        wrap.init(Cipher.WRAP_MODE, new SecretKeySpec(KEY_1, "AES"));
+        byte[] noncePrefix = random(8);
+        DocumentEnvelopeCipher.Header header = new DocumentEnvelopeCipher.Header(2, 1, 0, CHUNK, wrap.wrap(dataKey), noncePrefix);
+
+        Path file = Files.createTempFile(dir, "body", ".hrd2");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            header.write(out);
+            int chunks = (plain.length + CHUNK - 1) / CHUNK;
+            for (int index = 0; index < chunks; index++) {
+                Cipher gcm = Cipher.getInstance("AES/GCM/NoPadding");
+                gcm.init(Cipher.ENCRYPT_MODE, dataKey,
+                        new GCMParameterSpec(128, ByteBuffer.allocate(12).put(noncePrefix).putInt(index).array()));
+                gcm.updateAAD(ByteBuffer.allocate(9).putLong(index).put((byte) (index == chunks - 1 ? 1 : 0)).array());
+                out.write(gcm.doFinal(Arrays.copyOfRange(plain, index * CHUNK, Math.min(plain.length, (index + 1) * CHUNK))));
+            }
+        }
+        return file;
+    }
+
+    private static byte[] random(int size) {
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] filled(int size, int value) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) value);
+        return bytes;
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
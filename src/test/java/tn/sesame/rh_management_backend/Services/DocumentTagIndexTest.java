@@ -0,0 +1,175 @@
+package tn.sesame.rh_management_backend.Services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Repositories.HRDocumentRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DocumentTagIndexTest {
+
+    private static final UUID ALICE = UUID.randomUUID();
+    private static final UUID BOB = UUID.randomUUID();
+
+    private final UUID alicePayslip = UUID.randomUUID();
+    private final UUID aliceContract = UUID.randomUUID();
+    private final UUID bobPayslip = UUID.randomUUID();
+    private final UUID bobContract = UUID.randomUUID();
+    private final UUID policy = UUID.randomUUID();
+
+    private DocumentTagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new DocumentTagIndex(null);
+        index.upsert(alicePayslip, DocumentAccessLevel.INTERNAL, ALICE, List.of("Payslip", "2025"));
+        index.upsert(aliceContract, DocumentAccessLevel.CONFIDENTIAL, ALICE, List.of("contract", "2024"));
+        index.upsert(bobPayslip, DocumentAccessLevel.INTERNAL, BOB, List.of("payslip", "2025"));
+        index.upsert(bobContract, DocumentAccessLevel.CONFIDENTIAL, BOB, List.of("contract", "2025"));
+        index.upsert(policy, DocumentAccessLevel.PUBLIC, null, List.of("policy"));
+    }
+
+    @Test
+    void everythingSeesAllMatchesAndFacets() {
+        DocumentTagIndex.Result result = query(Set.of("2025"), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING);
+
+        assertEquals(3, result.total());
+        assertEquals(Set.of(alicePayslip, bobPayslip, bobContract), Set.copyOf(result.documentIds()));
+        assertEquals(Map.of("2025", 3, "payslip", 2, "contract", 1), result.facets());
+    }
+
+    @Test
+    void managersSeeNonConfidentialDocumentsAndTheirOwn() {
+        DocumentTagIndex.Access manager = new DocumentTagIndex.Access(false, true, ALICE);
+
+        DocumentTagIndex.Result contracts = query(Set.of("contract"), Set.of(), Set.of(), manager);
+        assertEquals(List.of(aliceContract), contracts.documentIds());
+        assertEquals(Map.of("contract", 1, "2024", 1), contracts.facets());
+
+        DocumentTagIndex.Result all = query(Set.of(), Set.of("payslip", "contract", "policy"), Set.of(), manager);
+        assertEquals(Set.of(alicePayslip, aliceContract, bobPayslip, policy), Set.copyOf(all.documentIds()));
+        assertEquals(2, all.facets().get("payslip"));
+        assertEquals(1, all.facets().get("contract"));
+    }
+
+    @Test
+    void employeesSeeOnlyTheirOwnDocuments() {
+        DocumentTagIndex.Access bob = new DocumentTagIndex.Access(false, false, BOB);
+
+        DocumentTagIndex.Result result = query(Set.of("2025"), Set.of(), Set.of(), bob);
+        assertEquals(2, result.total());
+        assertEquals(Set.of(bobPayslip, bobContract), Set.copyOf(result.documentIds()));
+        assertEquals(Map.of("2025", 2, "contract", 1, "payslip", 1), result.facets());
+
+        DocumentTagIndex.Access nobody = new DocumentTagIndex.Access(false, false, null);
+        assertEquals(0, query(Set.of("2025"), Set.of(), Set.of(), nobody).total());
+    }
+
+    @Test
+    void combinesAllAnyAndNone() {
+        DocumentTagIndex.Result result = query(Set.of("2025"), Set.of("payslip", "contract"), Set.of("contract"),
+                DocumentTagIndex.Access.EVERYTHING);
+
+        assertEquals(Set.of(alicePayslip, bobPayslip), Set.copyOf(result.documentIds()));
+        assertEquals(0, query(Set.of("unknown"), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING).total());
+    }
+
+    @Test
+    void tagsAreMatchedCaseInsensitively() {
+        DocumentTagIndex.Result result = query(Set.of(" PAYSLIP "), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING);
+
+        assertEquals(2, result.total());
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        index.upsert(alicePayslip, DocumentAccessLevel.CONFIDENTIAL, ALICE, List.of("payslip", "2026"));
+        index.remove(bobPayslip);
+
+        assertEquals(List.of(alicePayslip), query(Set.of("payslip"), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING).documentIds());
+        assertEquals(0, query(Set.of("payslip"), Set.of(), Set.of(), new DocumentTagIndex.Access(false, true, BOB)).total());
+
+        index.removeOwners(List.of(ALICE));
+        assertEquals(0, query(Set.of("payslip"), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING).total());
+        assertEquals(List.of(policy), query(Set.of(), Set.of("policy", "payslip"), Set.of(), DocumentTagIndex.Access.EVERYTHING).documentIds());
+    }
+
+    @Test
+    void compactionKeepsTheLiveDocuments() {
+        for (int i = 0; i < 3000; i++) {
+            UUID id = UUID.randomUUID();
+            index.upsert(id, DocumentAccessLevel.INTERNAL, BOB, List.of("temporary"));
+            index.remove(id);
+        }
+
+        assertEquals(0, query(Set.of("temporary"), Set.of(), Set.of(), DocumentTagIndex.Access.EVERYTHING).total());
+        DocumentTagIndex.Result result = query(Set.of("2025"), Set.of(), Set.of(), new DocumentTagIndex.Access(false, true, BOB));
+        assertEquals(Set.of(alicePayslip, bobPayslip, bobContract), Set.copyOf(result.documentIds()));
+    }
+
+    @Test
+    void rebuildReplaysChangesMadeWhileReading() {
+        HRDocumentRepository repository = mock(HRDocumentRepository.class);
+        DocumentTagIndex rebuilt = new DocumentTagIndex(repository);
+        UUID uploaded = UUID.randomUUID();
+        when(repository.findTagIndexRows()).thenAnswer(invocation -> {
+            // committed after the rows were read: the events arrive during the rebuild
+            rebuilt.upsert(uploaded, DocumentAccessLevel.INTERNAL, ALICE, List.of("payslip"));
+            rebuilt.remove(bobPayslip);
+            return List.of(row(alicePayslip, ALICE), row(bobPayslip, BOB));
+        });
+        when(repository.findTagRows()).thenReturn(List.of(tag(alicePayslip, "payslip"), tag(bobPayslip, "payslip")));
+
+        rebuilt.rebuild();
+
+        DocumentTagIndex.Result result = rebuilt.query(Set.of("payslip"), Set.of(), Set.of(),
+                DocumentTagIndex.Access.EVERYTHING, 10, 10);
+        assertEquals(Set.of(alicePayslip, uploaded), Set.copyOf(result.documentIds()));
+        assertEquals(Map.of("payslip", 2), result.facets());
+    }
+
+    private DocumentTagIndex.Result query(Set<String> all, Set<String> any, Set<String> none, DocumentTagIndex.Access access) {
+        return index.query(all, any, none, access, 100, 100);
+    }
+
+    private static HRDocumentRepository.TagIndexRow row(UUID id, UUID ownerId) {
+        return new HRDocumentRepository.TagIndexRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public DocumentAccessLevel getLevel() {
+                return DocumentAccessLevel.INTERNAL;
+            }
+
+            @Override
+            public UUID getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+
+    private static HRDocumentRepository.TagRow tag(UUID id, String tag) {
+        return new HRDocumentRepository.TagRow() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public String getTag() {
+                return tag;
+            }
+        };
+    }
+}
@@ -0,0 +1,96 @@
+package tn.sesame.rh_management_backend.benchmarks;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Enumerations.EmploymentStatus;
+import tn.sesame.rh_management_backend.Enumerations.UserRole;
+import tn.sesame.rh_management_backend.dto.EmployeeDto;
+import tn.sesame.rh_management_backend.dto.UserDto;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode time of a 10k-row List<EmployeeDto> page in JSON, CBOR and Smile.
+ * Payload sizes are printed once per fork during setup.
+ *
+ * Run with: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main BinaryJsonBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryJsonBenchmark {
+
+    private static final TypeReference<List<EmployeeDto>> PAGE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"10000"})
+    int rows;
+
+    ObjectMapper mapper;
+    List<EmployeeDto> page;
+    byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        mapper = new ObjectMapper(factory).findAndRegisterModules();
+
+        Random random = new Random(42);
+        EmployeeDepartment[] departments = EmployeeDepartment.values();
+        EmployeeJobTitle[] jobTitles = EmployeeJobTitle.values();
+        ContractType[] contracts = ContractType.values();
+        long firstDay = LocalDate.of(2000, 1, 1).toEpochDay();
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+        page = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            UserDto user = new UserDto(UUID.randomUUID(), "employee" + i + "@sesame.com.tn", UserRole.EMPLOYEE,
+                    random.nextBoolean(), true, false, now.minusSeconds(random.nextInt(10_000_000)), now, 1);
+            page.add(new EmployeeDto(UUID.randomUUID(), String.format("EMP%06d", i), "First" + i, "Last" + i,
+                    departments[random.nextInt(departments.length)],
+                    LocalDate.ofEpochDay(firstDay + random.nextInt(9_000)),
+                    BigDecimal.valueOf(1_500_00 + random.nextInt(10_000_00), 2),
+                    jobTitles[random.nextInt(jobTitles.length)],
+                    contracts[random.nextInt(contracts.length)],
+                    EmploymentStatus.ACTIVE, null, UUID.randomUUID(), "Manager " + random.nextInt(100), 3L, user, 3));
+        }
+        encoded = mapper.writeValueAsBytes(page);
+        System.out.printf("%n%s: %d rows, %d bytes (%.1f bytes/row)%n", format, rows, encoded.length,
+                (double) encoded.length / rows);
+    }
+
+    @Benchmark
+    public void encode(Blackhole blackhole) throws IOException {
+        blackhole.consume(mapper.writeValueAsBytes(page));
+    }
+
+    @Benchmark
+    public void decode(Blackhole blackhole) throws IOException {
+        blackhole.consume(mapper.readValue(encoded, PAGE));
+    }
+}
@@ -0,0 +1,153 @@
+package tn.sesame.rh_management_backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tn.sesame.rh_management_backend.Services.DocumentEnvelopeCipher;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encryption and decryption time of a 64 MB document body in the three
+ * formats: the original whole-array AES/ECB, HRD1 (streamed AES/CTR) and the
+ * chunked AES-GCM envelopes (HRD3, on 1 and 4 threads). MB/s = size / score.
+ * Envelope decryption reads from a temporary file, as the store does.
+ *
+ * Run with: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main DocumentEncryptionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentEncryptionBenchmark {
+
+    private static final SecretKeySpec STATIC_KEY = new SecretKeySpec("MySecretKey12345".getBytes(StandardCharsets.UTF_8), "AES");
+    private static final String MASTER_KEYS = "1:c2VzYW1lLWhyLWRvY3VtZW50cy1tYXN0ZXIta2V5LTE=";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte[] MAGIC = "HRD3".getBytes(StandardCharsets.US_ASCII);
+
+    @Param({"ecb", "hrd1", "envelope-1", "envelope-4"})
+    String format;
+
+    @Param({"67108864"})
+    int size;
+
+    byte[] plain;
+    byte[] encrypted;
+    byte[] iv = new byte[16];
+    Path envelopeFile;
+    DocumentEnvelopeCipher envelopeCipher;
+
+    @Setup
+    public void setUp() throws Exception {
+        plain = new byte[size];
+        new Random(42).nextBytes(plain);
+        if (format.startsWith("envelope")) {
+            envelopeCipher = new DocumentEnvelopeCipher(MASTER_KEYS, 1, 262144, Integer.parseInt(format.substring(9)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size + size / 1000 + 64);
+        encrypt(out);
+        encrypted = out.toByteArray();
+        if (envelopeCipher != null) {
+            envelopeFile = Files.createTempFile("envelope-", ".bench");
+            Files.write(envelopeFile, encrypted);
+        }
+        System.out.printf("%s: %d plain bytes, %d stored bytes%n", format, size, encrypted.length);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        if (envelopeCipher != null) {
+            envelopeCipher.shutdown();
+            Files.deleteIfExists(envelopeFile);
+        }
+    }
+
+    @Benchmark
+    public void encrypt(Blackhole blackhole) throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        encrypt(out);
+        blackhole.consume(out.count);
+    }
+
+    @Benchmark
+    public void decrypt(Blackhole blackhole) throws Exception {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        switch (format) {
+            case "ecb" -> {
+                Cipher cipher = Cipher.getInstance("AES");
+                cipher.init(Cipher.DECRYPT_MODE, STATIC_KEY);
+                total = cipher.doFinal(encrypted).length;
+            }
+            case "hrd1" -> {
+                Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+                cipher.init(Cipher.DECRYPT_MODE, STATIC_KEY, new IvParameterSpec(iv));
+                for (int offset = 0; offset < encrypted.length; offset += BUFFER_SIZE) {
+                    int length = Math.min(BUFFER_SIZE, encrypted.length - offset);
+                    total += cipher.update(encrypted, offset, length, buffer, 0);
+                }
+            }
+            default -> {
+                FileChannel channel = FileChannel.open(envelopeFile);
+                channel.position(4);
+                DocumentEnvelopeCipher.Header header = envelopeCipher.readHeader(channel, MAGIC);
+                try (InputStream in = envelopeCipher.decrypt(channel, header, 0)) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        total += read;
+                    }
+                }
+            }
+        }
+        blackhole.consume(total);
+    }
+
+    private void encrypt(OutputStream out) throws Exception {
+        switch (format) {
+            case "ecb" -> {
+                Cipher cipher = Cipher.getInstance("AES");
+                cipher.init(Cipher.ENCRYPT_MODE, STATIC_KEY);
+                out.write(cipher.doFinal(plain));
+            }
+            case "hrd1" -> {
+                Cipher cipher = Cipher.getInstance("AES/CTR/NoPadding");
+                cipher.init(Cipher.ENCRYPT_MODE, STATIC_KEY, new IvParameterSpec(iv));
+                byte[] buffer = new byte[BUFFER_SIZE];
+                for (int offset = 0; offset < plain.length; offset += BUFFER_SIZE) {
+                    int length = Math.min(BUFFER_SIZE, plain.length - offset);
+                    out.write(buffer, 0, cipher.update(plain, offset, length, buffer, 0));
+                }
+            }
+            default -> envelopeCipher.encrypt(new ByteArrayInputStream(plain), out, 0);
+        }
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
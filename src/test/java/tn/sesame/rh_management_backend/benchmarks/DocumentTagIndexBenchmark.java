@@ -0,0 +1,69 @@
+package tn.sesame.rh_management_backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import tn.sesame.rh_management_backend.Enumerations.DocumentAccessLevel;
+import tn.sesame.rh_management_backend.Services.DocumentTagIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tag queries with facet counts over 1M documents carrying five tags each
+ * out of ~300 (two common, three skewed). Target: a few milliseconds for a
+ * broad query, well under one for a rare tag.
+ *
+ * Run with: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main DocumentTagIndexBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentTagIndexBenchmark {
+
+    @Param({"1000000"})
+    int documents;
+
+    @Param({"admin", "manager"})
+    String caller;
+
+    DocumentTagIndex index;
+    DocumentTagIndex.Access access;
+
+    @Setup
+    public void setUp() {
+        index = new DocumentTagIndex(null);
+        Random random = new Random(42);
+        UUID[] owners = new UUID[20_000];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = UUID.randomUUID();
+        }
+        DocumentAccessLevel[] levels = DocumentAccessLevel.values();
+        for (int i = 0; i < documents; i++) {
+            List<String> tags = new ArrayList<>();
+            tags.add(i % 3 == 0 ? "contract" : "payslip");
+            tags.add(i % 5 == 0 ? "2025" : "2024");
+            for (int k = 0; k < 3; k++) {
+                tags.add("tag" + (int) Math.min(299, Math.abs(random.nextGaussian() * 60)));
+            }
+            index.upsert(UUID.randomUUID(), levels[i % levels.length], owners[i % owners.length], tags);
+        }
+        access = caller.equals("admin")
+                ? DocumentTagIndex.Access.EVERYTHING
+                : new DocumentTagIndex.Access(false, true, owners[3]);
+    }
+
+    @Benchmark
+    public DocumentTagIndex.Result broadQuery() {
+        return index.query(List.of("contract", "2025"), List.of(), List.of("tag0"), access, 50, 50);
+    }
+
+    @Benchmark
+    public DocumentTagIndex.Result rareTag() {
+        return index.query(List.of("tag150"), List.of("2024", "2025"), List.of(), access, 50, 20);
+    }
+}
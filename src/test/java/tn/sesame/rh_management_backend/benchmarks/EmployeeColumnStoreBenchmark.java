@@ -0,0 +1,73 @@
+package tn.sesame.rh_management_backend.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tn.sesame.rh_management_backend.Enumerations.AggregationDimension;
+import tn.sesame.rh_management_backend.Enumerations.ContractType;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeDepartment;
+import tn.sesame.rh_management_backend.Enumerations.EmployeeJobTitle;
+import tn.sesame.rh_management_backend.Services.EmployeeColumnStore;
+import tn.sesame.rh_management_backend.dto.EmployeeAggregationRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregations over 1M employees in the column store.
+ * Target: tens of milliseconds per aggregation.
+ *
+ * Run with: java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main EmployeeColumnStoreBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeColumnStoreBenchmark {
+
+    @Param({"1000000"})
+    int employees;
+
+    EmployeeColumnStore store;
+
+    EmployeeAggregationRequest byDepartmentAndContractSince2020 = new EmployeeAggregationRequest(
+            List.of(AggregationDimension.DEPARTMENT, AggregationDimension.CONTRACT),
+            null, null, null, LocalDate.of(2020, 1, 1), null);
+
+    EmployeeAggregationRequest byHireYear = new EmployeeAggregationRequest(
+            List.of(AggregationDimension.HIRE_YEAR),
+            null, null, null, null, null);
+
+    @Setup
+    public void setUp() {
+        store = new EmployeeColumnStore(null);
+        Random random = new Random(42);
+        EmployeeDepartment[] departments = EmployeeDepartment.values();
+        EmployeeJobTitle[] jobTitles = EmployeeJobTitle.values();
+        ContractType[] contracts = ContractType.values();
+        long firstDay = LocalDate.of(2000, 1, 1).toEpochDay();
+        for (int i = 0; i < employees; i++) {
+            store.upsert(UUID.randomUUID(),
+                    departments[random.nextInt(departments.length)],
+                    jobTitles[random.nextInt(jobTitles.length)],
+                    contracts[random.nextInt(contracts.length)],
+                    BigDecimal.valueOf(1_500_00 + random.nextInt(10_000_00), 2),
+                    LocalDate.ofEpochDay(firstDay + random.nextInt(9_000)));
+        }
+    }
+
+    @Benchmark
+    public void averageSalaryByDepartmentAndContractSince2020(Blackhole blackhole) {
+        blackhole.consume(store.aggregate(byDepartmentAndContractSince2020));
+    }
+
+    @Benchmark
+    public void headcountByHireYear(Blackhole blackhole) {
+        blackhole.consume(store.aggregate(byHireYear));
+    }
+}
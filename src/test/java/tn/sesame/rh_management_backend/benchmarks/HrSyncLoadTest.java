@@ -0,0 +1,114 @@
+package tn.sesame.rh_management_backend.benchmarks;
+
+import com.google.protobuf.Message;
+import io.grpc.ClientInterceptor;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Metadata;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.MetadataUtils;
+import tn.sesame.rh_management_backend.grpc.DocumentMetadata;
+import tn.sesame.rh_management_backend.grpc.Employee;
+import tn.sesame.rh_management_backend.grpc.HrSyncGrpc;
+import tn.sesame.rh_management_backend.grpc.StreamRequest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test for the gRPC sync server: N concurrent clients each stream the
+ * whole employee directory or document metadata and report messages and bytes
+ * per second. Also checks that every stream is in strictly increasing id order
+ * (the keyset resumption contract).
+ *
+ * Needs a running application with hr.grpc.enabled=true and a JWT of an
+ * HR_MANAGER or ADMIN user (POST /api/auth/login):
+ *
+ * HR_TOKEN=... java -cp target/test-classes:target/classes:<test classpath> \
+ *     tn.sesame.rh_management_backend.benchmarks.HrSyncLoadTest [employees|documents] [clients] [page-size] [host] [port]
+ */
+public class HrSyncLoadTest {
+
+    record Result(long messages, long bytes, long outOfOrder, long nanos) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String rpc = args.length > 0 ? args[0] : "employees";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        int pageSize = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+        String host = args.length > 3 ? args[3] : "localhost";
+        int port = args.length > 4 ? Integer.parseInt(args[4]) : 9996;
+        String token = System.getenv("HR_TOKEN");
+        if (token == null || token.isBlank()) {
+            System.err.println("Set HR_TOKEN to the JWT of an HR_MANAGER or ADMIN user");
+            System.exit(1);
+        }
+
+        Metadata headers = new Metadata();
+        headers.put(Metadata.Key.of("authorization", Metadata.ASCII_STRING_MARSHALLER), "Bearer " + token);
+        ClientInterceptor auth = MetadataUtils.newAttachHeadersInterceptor(headers);
+        ManagedChannel channel = ManagedChannelBuilder.forAddress(host, port).usePlaintext().build();
+        HrSyncGrpc.HrSyncBlockingStub stub = HrSyncGrpc.newBlockingStub(channel).withInterceptors(auth);
+        StreamRequest request = StreamRequest.newBuilder().setPageSize(pageSize).build();
+
+        long started = System.nanoTime();
+        List<Future<Result>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> run(stub, rpc, request)));
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+
+        long messages = 0;
+        long bytes = 0;
+        long outOfOrder = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Result result = futures.get(i).get();
+            System.out.printf("client %2d: %,d messages, %,d bytes in %d ms%n",
+                    i, result.messages(), result.bytes(), TimeUnit.NANOSECONDS.toMillis(result.nanos()));
+            messages += result.messages();
+            bytes += result.bytes();
+            outOfOrder += result.outOfOrder();
+        }
+        double seconds = elapsed / 1e9;
+        System.out.printf("%s x %d clients: %,d messages in %.2f s = %,.0f msg/s, %.1f MB/s, %d out of order%n",
+                rpc, clients, messages, seconds, messages / seconds, bytes / seconds / 1_000_000, outOfOrder);
+
+        channel.shutdown().awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private static Result run(HrSyncGrpc.HrSyncBlockingStub stub, String rpc, StreamRequest request) {
+        long started = System.nanoTime();
+        long messages = 0;
+        long bytes = 0;
+        long outOfOrder = 0;
+        String previous = "";
+        try {
+            Iterator<? extends Message> stream = rpc.equals("documents")
+                    ? stub.streamDocuments(request)
+                    : stub.streamEmployees(request);
+            while (stream.hasNext()) {
+                Message message = stream.next();
+                String id = message instanceof Employee employee
+                        ? employee.getId()
+                        : ((DocumentMetadata) message).getId();
+                // uuid order in PostgreSQL is the order of the lowercase hex strings
+                if (id.compareTo(previous) <= 0) {
+                    outOfOrder++;
+                }
+                previous = id;
+                messages++;
+                bytes += message.getSerializedSize();
+            }
+        } catch (StatusRuntimeException e) {
+            System.err.println("stream failed: " + e.getStatus());
+        }
+        return new Result(messages, bytes, outOfOrder, System.nanoTime() - started);
+    }
+}